@@ -6,17 +6,29 @@ import com.revature.controller.RecipeController;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
 import com.revature.service.AuthenticationService;
 import com.revature.service.ChefService;
 import com.revature.service.IngredientService;
 import com.revature.service.RecipeService;
 import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.IngredientDictionary;
+import com.revature.util.IngredientIndex;
 import com.revature.util.JavalinAppUtil;
-import com.revature.util.DBUtil;
+import com.revature.util.LruCache;
+import com.revature.util.NegativeCache;
+import com.revature.util.QueryCache;
+import com.revature.util.ResponseCache;
+import com.revature.util.ResponseCompression;
+import com.revature.util.SchemaMigrations;
+import com.revature.util.SingleFlight;
+import com.revature.util.TableVersions;
 
 import io.javalin.Javalin;
 
+import java.util.function.LongSupplier;
+
 /**
  * The Main class serves as the entry point for the application.
  * It initializes and manages various components related to recipes, chefs, 
@@ -75,6 +87,34 @@ public class Main {
     @SuppressWarnings("unused")    
     private static IngredientController INGREDIENT_CONTROLLER;
 
+    /** Inverted index of recipes by ingredient, used for ingredient searches. */
+    @SuppressWarnings("unused")    
+    private static IngredientIndex INGREDIENT_INDEX;
+
+    /** Cache of recipes by id, serving the recipe detail path from memory. */
+    @SuppressWarnings("unused")    
+    private static LruCache<Integer, Recipe> RECIPE_CACHE;
+
+    /** Coalescing of concurrent identical recipe reads. */
+    @SuppressWarnings("unused")    
+    private static SingleFlight RECIPE_FLIGHTS;
+    /** Cache of recipe search results. */
+    @SuppressWarnings("unused")    
+    private static QueryCache RECIPE_SEARCH_CACHE;
+    /** Recently looked up recipe ids that have no recipe. */
+    @SuppressWarnings("unused")    
+    private static NegativeCache<Integer> MISSING_RECIPES;
+    /** In-memory copy of the INGREDIENT table serving ingredient reads. */
+    @SuppressWarnings("unused")    
+    private static IngredientDictionary INGREDIENT_DICTIONARY;
+    /** Cache of serialized recipe and ingredient read responses. */
+    @SuppressWarnings("unused")    
+    private static ResponseCache RESPONSE_CACHE;
+
+    /** Compression of responses, shared by the server and the response cache. */
+    @SuppressWarnings("unused")    
+    private static ResponseCompression RESPONSE_COMPRESSION;
+
     /** Middleware for administering administrative functionalities. */
     @SuppressWarnings("unused")    
     private static AdminMiddleware ADMIN_MIDDLEWARE;
@@ -87,29 +127,71 @@ public class Main {
      */
     public static void main(String[] args) {
 
-    INGREDIENT_DAO = new IngredientDAO(CONNECTION_UTIL);
+    INGREDIENT_DAO = new IngredientDAO(CONNECTION_UTIL, true);
 		
-		CHEF_DAO = new ChefDAO(CONNECTION_UTIL);
+		CHEF_DAO = new ChefDAO(CONNECTION_UTIL, true);
 		
-		RECIPE_DAO = new RecipeDAO(CHEF_DAO, INGREDIENT_DAO, CONNECTION_UTIL);
+		RECIPE_DAO = new RecipeDAO(CONNECTION_UTIL, true);
 		
-		CHEF_SERVICE = new ChefService(CHEF_DAO);
+		CHEF_SERVICE = new ChefService(CHEF_DAO, new LruCache<>(Integer.getInteger("reva.cache.chefs.maxEntries", 1000),
+				Long.getLong("reva.cache.chefs.ttlMillis", 300000), () -> TableVersions.get(TableVersions.CHEF)));
 		
 		AUTH_SERVICE = new AuthenticationService(CHEF_SERVICE);
 		
-		RECIPE_SERVICE = new RecipeService(RECIPE_DAO);
+		INGREDIENT_INDEX = new IngredientIndex(CONNECTION_UTIL);
+		
+		// cached recipes embed their author and ingredient names, so chef and ingredient writes invalidate them too
+		RECIPE_CACHE = new LruCache<>(Integer.getInteger("reva.cache.recipes.maxEntries", 1000),
+				Long.getLong("reva.cache.recipes.ttlMillis", 300000),
+				() -> TableVersions.get(TableVersions.CHEF) + TableVersions.get(TableVersions.INGREDIENT));
+		
+		// recipe reads join the author and ingredient lines, so a write to any of these tables changes them
+		LongSupplier recipeTables = () -> TableVersions.get(TableVersions.RECIPE) + TableVersions.get(TableVersions.CHEF)
+				+ TableVersions.get(TableVersions.INGREDIENT) + TableVersions.get(TableVersions.RECIPE_INGREDIENT);
+		RECIPE_FLIGHTS = new SingleFlight(Long.getLong("reva.singleFlight.waitMillis", SingleFlight.DEFAULT_WAIT_MILLIS),
+				recipeTables);
+		int searchCacheEntries = Integer.getInteger("reva.cache.searches.maxEntries", 500);
+		long searchCacheTtl = Long.getLong("reva.cache.searches.ttlMillis", 300000);
+		RECIPE_SEARCH_CACHE = new QueryCache(searchCacheEntries, searchCacheTtl, recipeTables);
+		int missingEntries = Integer.getInteger("reva.cache.missing.maxEntries", 10000);
+		long missingTtl = Long.getLong("reva.cache.missing.ttlMillis", NegativeCache.DEFAULT_TTL_MILLIS);
+		// recipe creates forget their id; updates and deletes never give a missing id a recipe
+		MISSING_RECIPES = new NegativeCache<>(missingEntries, missingTtl);
+		RECIPE_SERVICE = new RecipeService(RECIPE_DAO, new RecipeService.Options()
+				.ingredientIndex(INGREDIENT_INDEX)
+				.recipeCache(RECIPE_CACHE)
+				.flights(RECIPE_FLIGHTS)
+				.searchCache(RECIPE_SEARCH_CACHE)
+				.missingRecipes(MISSING_RECIPES));
 		
-		RECIPE_CONTROLLER = new RecipeController(RECIPE_SERVICE, AUTH_SERVICE);
+		RESPONSE_COMPRESSION = ResponseCompression.fromProperties();
 		
-		INGREDIENT_SERVICE = new IngredientService(INGREDIENT_DAO);
+		RESPONSE_CACHE = new ResponseCache(Integer.getInteger("reva.cache.responses.maxEntries", 500),
+				Long.getLong("reva.cache.responses.ttlMillis", 300000), RESPONSE_COMPRESSION);
 		
-		INGREDIENT_CONTROLLER = new IngredientController(INGREDIENT_SERVICE);
+		RECIPE_CONTROLLER = new RecipeController(RECIPE_SERVICE, AUTH_SERVICE, RESPONSE_CACHE);
+		
+		INGREDIENT_DICTIONARY = new IngredientDictionary(CONNECTION_UTIL);
+		
+		INGREDIENT_SERVICE = new IngredientService(INGREDIENT_DAO, INGREDIENT_DICTIONARY);
+		
+		INGREDIENT_CONTROLLER = new IngredientController(INGREDIENT_SERVICE, RESPONSE_CACHE);
 		
 		AUTH_CONTROLLER = new AuthenticationController(CHEF_SERVICE, AUTH_SERVICE);
 		
-		JAVALIN_APP_UTIL = new JavalinAppUtil(RECIPE_CONTROLLER, AUTH_CONTROLLER, INGREDIENT_CONTROLLER);
+		JAVALIN_APP_UTIL = new JavalinAppUtil(RECIPE_CONTROLLER, AUTH_CONTROLLER, INGREDIENT_CONTROLLER,
+				RESPONSE_COMPRESSION);
+		JAVALIN_APP_UTIL.addMetrics("recipeCache", RECIPE_CACHE::getStats);
+		JAVALIN_APP_UTIL.addMetrics("responseCache", RESPONSE_CACHE::getStats);
+		JAVALIN_APP_UTIL.addMetrics("singleFlight", RECIPE_FLIGHTS::getStats);
+		JAVALIN_APP_UTIL.addMetrics("recipeSearchCache", RECIPE_SEARCH_CACHE::getStats);
+		JAVALIN_APP_UTIL.addMetrics("missingRecipes", MISSING_RECIPES::getStats);
+		JAVALIN_APP_UTIL.addMetrics("connectionPool", ConnectionUtil::getPoolStats);
+		
+		SchemaMigrations.migrate();
 		
-		DBUtil.RUN_SQL();
+		INGREDIENT_INDEX.refresh();
+		INGREDIENT_DICTIONARY.refresh();
 		
 		Javalin app = JAVALIN_APP_UTIL.getApp();
 		
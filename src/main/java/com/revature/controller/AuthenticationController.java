@@ -1,5 +1,8 @@
 package com.revature.controller;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 
@@ -43,40 +46,60 @@ public class AuthenticationController {
      * If the username already exists, responds with a 409 Conflict status and a result of "Username already exists".
      * 
      * Otherwise, registers the chef and responds with a 201 Created status and the registered chef details.
+     * 
+     * The password is hashed off the request thread; if too many requests are waiting for hashing, responds with a 503 Service Unavailable status.
      *
      * @param ctx the Javalin context containing the chef information in the request body
      */
     public void register(Context ctx) {
         Chef chef = ctx.bodyAsClass(Chef.class);
 
-        // Attempt to register; if service indicates conflict, return 409
-        Chef registered = authService.registerChef(chef);
-        if (registered == null) {
-            ctx.status(409).result("Username already exists");
-            return;
-        }
-
-        ctx.status(201).json(registered);
+        ctx.future(() -> authService.registerChefAsync(chef).thenAccept(registered -> {
+            // if service indicates conflict, return 409
+            if (registered == null) {
+                ctx.status(409).result("Username already exists");
+                return;
+            }
+            ctx.status(201).json(registered);
+        }).exceptionally(e -> respondIfBusy(ctx, e)));
     }
 
     /**
      * TODO: Authenticates a chef and uses a generated authorization token if the credentials are valid. The token is used to check if login is successful. If so, this method responds with a 200 OK status, the token in the response body, and an "Authorization" header that sends the token in the response.
      * 
      * If login fails, responds with a 401 Unauthorized status and an error message of "Invalid username or password".
+     * 
+     * The password is verified off the request thread; if too many logins are waiting for hashing, responds with a 503 Service Unavailable status.
      *
      * @param ctx the Javalin context containing the chef login credentials in the request body
      */
     public void login(Context ctx) {
         Chef credentials = ctx.bodyAsClass(Chef.class);
-        String token = authService.login(credentials);
 
-        if (token == null || token.isEmpty()) {
-            ctx.status(401).result("Invalid username or password");
-            return;
-        }
+        ctx.future(() -> authService.loginAsync(credentials).thenAccept(token -> {
+            if (token == null || token.isEmpty()) {
+                ctx.status(401).result("Invalid username or password");
+                return;
+            }
+            ctx.header("Authorization", "Bearer " + token);
+            ctx.status(200).result(token);
+        }).exceptionally(e -> respondIfBusy(ctx, e)));
+    }
 
-        ctx.header("Authorization", "Bearer " + token);
-        ctx.status(200).result(token);
+    /**
+     * Responds with a 503 status if the hashing executor rejected the work, and rethrows any other failure.
+     *
+     * @param ctx the Javalin context of the request
+     * @param e the failure of the asynchronous login or registration
+     * @return null, once the response is set
+     */
+    private Void respondIfBusy(Context ctx, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            ctx.status(503).result("Too many login requests, try again later");
+            return null;
+        }
+        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
     }
 
     /**
@@ -85,23 +108,21 @@ public class AuthenticationController {
      * @param ctx the Javalin context, containing the Authorization token in the request header
      */
     public void logout(Context ctx) {
-        String authHeader = ctx.header("Authorization");
-        String token = null;
-        if (authHeader != null) {
-            if (authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring("Bearer ".length());
-            } else {
-                token = authHeader;
-            }
-        }
-
-        if (token != null && !token.isEmpty()) {
+        String token = AuthenticationService.tokenFromHeader(ctx.header("Authorization"));
+        if (token != null) {
             authService.logout(token);
         }
 
         ctx.status(200).result("Logout successful");
     }
 
+    /**
+     * @return the service used to manage authentication-related operations
+     */
+    public AuthenticationService getAuthService() {
+        return authService;
+    }
+
     /**
      * Configures the routes for authentication operations.
      * 
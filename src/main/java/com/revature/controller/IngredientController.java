@@ -5,7 +5,10 @@ import io.javalin.http.Context;
 
 import com.revature.service.IngredientService;
 import com.revature.model.Ingredient;
-import com.revature.util.Page;
+import com.revature.util.ETags;
+import com.revature.util.IdList;
+import com.revature.util.ResponseCache;
+import com.revature.util.TableVersions;
 
 
 /**
@@ -20,9 +23,14 @@ public class IngredientController {
      * A service that manages ingredient-related operations.
      */
 
-    @SuppressWarnings("unused")
     private IngredientService ingredientService;
 
+    /**
+     * The serialized responses of the read endpoints.
+     */
+
+    private ResponseCache responseCache;
+
     /**
      * Constructs an IngredientController with the specified IngredientService.
      *
@@ -32,25 +40,35 @@ public class IngredientController {
      */
 
     public IngredientController(IngredientService ingredientService) {
+        this(ingredientService, new ResponseCache());
+    }
+
+    /**
+     * Constructs an IngredientController whose read endpoints respond from a cache of serialized responses.
+     *
+     * @param ingredientService the service used to manage ingredient-related operations
+     * @param responseCache the cache the read endpoints respond from
+     */
+
+    public IngredientController(IngredientService ingredientService, ResponseCache responseCache) {
         this.ingredientService = ingredientService;
+        this.responseCache = responseCache;
     }
 
     /**
      * TODO: Retrieves a single ingredient by its ID.
      * 
      * If the ingredient exists, responds with a 200 OK status and the ingredient data. If not found, responds with a 404 Not Found status.
+     * If the ingredient exists and the client's If-None-Match matches the current ETag, responds with a 304 Not Modified status; a missing ingredient is always a 404, without an ETag.
      *
      * @param ctx the Javalin context containing the request path parameter for the ingredient ID
      */
     public void getIngredient(Context ctx) {
         int id = Integer.parseInt(ctx.pathParam("id"));
-        ingredientService.findIngredient(id)
-            .ifPresentOrElse(
-                ingredient -> {
-                    ctx.status(200).json(ingredient);
-                },
-                () -> ctx.status(404)
-            );
+        String etag = ETags.forTables(TableVersions.INGREDIENT);
+        if (!responseCache.json(ctx, etag, () -> ingredientService.findIngredient(id).orElse(null))) {
+            ctx.status(404);
+        }
     }
 
     /**
@@ -104,11 +122,27 @@ public class IngredientController {
      * TODO: Retrieves a paginated list of ingredients, or all ingredients if no pagination parameters are provided.
      * 
      * If pagination parameters are included, returns ingredients based on page, page size, sorting, and filter term.
+     * If an {@code ids} parameter is included, such as {@code ids=4,1,7}, returns those ingredients in that order, read with one query; ids with no ingredient are skipped.
+     * If an {@code after} parameter is included (empty for the first page), returns the page following that cursor instead, together with the cursor of the next page.
+     * If the client's If-None-Match matches the current ETag, responds with a 304 Not Modified status, answered from the response cache when it holds the list.
      *
      * @param ctx the Javalin context containing query parameters for pagination, sorting, and filtering
      */
     public void getIngredients(Context ctx) {
+        String etag = ETags.forTables(TableVersions.INGREDIENT);
+        if (ctx.queryParam("ids") != null) {
+            int[] ids = IdList.parse(ctx.queryParam("ids"));
+            responseCache.json(ctx, etag, () -> ingredientService.findIngredients(ids));
+            return;
+        }
         String term = ctx.queryParam("term");
+        if (ctx.queryParam("after") != null) {
+            // keyset pagination: the sort travels inside the cursor, so explicit sort params are optional
+            Integer pageSize = getParamAsClassOrElse(ctx, "pageSize", Integer.class, 10);
+            responseCache.json(ctx, etag, () -> ingredientService.searchIngredientsAfter(term, ctx.queryParam("after"),
+                    pageSize, ctx.queryParam("sortBy"), ctx.queryParam("sortDirection")));
+            return;
+        }
         boolean paginate = ctx.queryParam("page") != null || ctx.queryParam("pageSize") != null
                 || ctx.queryParam("sortBy") != null || ctx.queryParam("sortDirection") != null;
 
@@ -118,12 +152,11 @@ public class IngredientController {
             String sortBy = getParamAsClassOrElse(ctx, "sortBy", String.class, "id");
             String sortDirection = getParamAsClassOrElse(ctx, "sortDirection", String.class, "asc");
 
-            Page<Ingredient> result = ingredientService.searchIngredients(term, page, pageSize, sortBy, sortDirection);
-            ctx.status(200).json(result);
+            responseCache.json(ctx, etag, () -> ingredientService.searchIngredients(term, page, pageSize, sortBy, sortDirection));
             return;
         }
 
-        ctx.status(200).json(ingredientService.searchIngredients(term));
+        responseCache.json(ctx, etag, () -> ingredientService.searchIngredients(term));
     }
 
     /**
@@ -1,5 +1,8 @@
 package com.revature.controller;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 import io.javalin.http.Handler;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
@@ -8,7 +11,13 @@ import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
 import com.revature.model.Recipe;
 import com.revature.model.Chef;
+import com.revature.util.CursorPage;
+import com.revature.util.ETags;
+import com.revature.util.FieldSelection;
+import com.revature.util.IdList;
 import com.revature.util.Page;
+import com.revature.util.ResponseCache;
+import com.revature.util.TableVersions;
 
 /**
  * The RecipeController class provides RESTful endpoints for managing recipes.
@@ -18,6 +27,10 @@ import com.revature.util.Page;
 
 public class RecipeController {
 
+    /** The tables a recipe response is built from: the recipe, its author and its ingredient lines. */
+    private static final String[] RECIPE_TABLES = { TableVersions.RECIPE, TableVersions.CHEF,
+            TableVersions.INGREDIENT, TableVersions.RECIPE_INGREDIENT };
+
     /** The service used to interact with the recipe data. */
     @SuppressWarnings("unused")
     private RecipeService recipeService;
@@ -26,6 +39,9 @@ public class RecipeController {
     @SuppressWarnings("unused")
     private AuthenticationService authService;
 
+    /** The serialized responses of the read endpoints. */
+    private ResponseCache responseCache;
+
     /**
      * TODO: Constructor that initializes the RecipeController with the parameters.
      * 
@@ -33,19 +49,66 @@ public class RecipeController {
      * * @param authService the service used to manage authentication-related operations
      */
     public RecipeController(RecipeService recipeService, AuthenticationService authService) {
+        this(recipeService, authService, new ResponseCache());
+    }
+
+    /**
+     * Constructor that initializes the RecipeController with a cache of serialized read responses.
+     * 
+     * @param recipeService The service that handles the business logic for managing recipes.
+     * @param authService the service used to manage authentication-related operations
+     * @param responseCache the cache the read endpoints respond from
+     */
+    public RecipeController(RecipeService recipeService, AuthenticationService authService, ResponseCache responseCache) {
         this.recipeService = recipeService;
         this.authService = authService;
+        this.responseCache = responseCache;
     }
 
     /**
      * TODO: Handler for fetching all recipes. Supports pagination, sorting, and filtering by recipe name or ingredient.
      * 
-     * Responds with a 200 OK status and the list of recipes, or 404 Not Found with a result of "No recipes found".
+     * An {@code ids} query parameter, such as {@code ids=4,1,7}, selects those recipes in that order, read with one query and from the recipe cache where possible; ids with no recipe are skipped, and more than {@value com.revature.util.IdList#MAX_IDS} ids are answered with 400 Bad Request.
+     * 
+     * One or more {@code ingredient} query parameters select the recipes made with all of those ingredients ({@code match=any}: with any of them), answered from the ingredient index when the service has one.
+     * 
+     * An {@code after} query parameter (empty for the first page) switches to cursor pagination: the response holds the page following that cursor and the cursor of the next page.
+     * 
+     * A {@code fields} query parameter, such as {@code fields=id,name,author.username}, narrows each recipe to those properties and the database read to the columns behind them; an unknown field is answered with 400 Bad Request.
+     * 
+     * Responds with a 200 OK status and the list of recipes, or 404 Not Found with a result of "No recipes found". Found lists carry an ETag, and a request whose If-None-Match still matches gets 304 Not Modified, answered from the response cache when it holds the list.
      */
     public Handler fetchAllRecipes = ctx -> {
-        String term = ctx.queryParam("term");
-        if (term == null) {
-            term = ctx.queryParam("name");
+        String etag = ETags.forTables(RECIPE_TABLES);
+        String term = ctx.queryParam("term") != null ? ctx.queryParam("term") : ctx.queryParam("name");
+        FieldSelection fields = FieldSelection.parse(ctx.queryParam("fields"));
+        if (ctx.queryParam("ids") != null) {
+            int[] ids = IdList.parse(ctx.queryParam("ids"));
+            respondWithList(ctx, etag, fields, () -> recipeService.findRecipes(ids));
+            return;
+        }
+        List<String> ingredients = ctx.queryParams("ingredient");
+        if (!ingredients.isEmpty()) {
+            // match=any accepts recipes with at least one of the ingredients; the default requires all of them
+            boolean matchAll = !"any".equalsIgnoreCase(ctx.queryParam("match"));
+            // the ingredient index answers with whole recipes, which are projected after the fact
+            respondWithList(ctx, etag, fields, () -> recipeService.searchRecipesByIngredients(ingredients, matchAll, term, fields));
+            return;
+        }
+        if (ctx.queryParam("after") != null) {
+            // keyset pagination: the sort travels inside the cursor, so explicit sort params are optional
+            Integer pageSize = getParamAsClassOrElse(ctx, "pageSize", Integer.class, 10);
+            if (fields.isAll()) {
+                responseCache.json(ctx, etag, () -> recipeService.searchRecipesAfter(term, ctx.queryParam("after"),
+                        pageSize, ctx.queryParam("sortBy"), ctx.queryParam("sortDirection")));
+            } else {
+                responseCache.json(ctx, etag, () -> {
+                    CursorPage<Recipe> page = recipeService.searchRecipesAfter(term, ctx.queryParam("after"),
+                            pageSize, ctx.queryParam("sortBy"), ctx.queryParam("sortDirection"), fields);
+                    return new CursorPage<>(page.getPageSize(), fields.project(page.getItems()), page.getNextCursor());
+                });
+            }
+            return;
         }
         boolean paginate = ctx.queryParam("page") != null || ctx.queryParam("pageSize") != null
                 || ctx.queryParam("sortBy") != null || ctx.queryParam("sortDirection") != null;
@@ -56,19 +119,22 @@ public class RecipeController {
             String sortBy = getParamAsClassOrElse(ctx, "sortBy", String.class, "id");
             String sortDirection = getParamAsClassOrElse(ctx, "sortDirection", String.class, "asc");
 
-            Page<Recipe> result = recipeService.searchRecipes(term, page, pageSize, sortBy, sortDirection);
-            ctx.status(200);
-            ctx.json(result);
+            if (fields.isAll()) {
+                responseCache.json(ctx, etag, () -> recipeService.searchRecipes(term, page, pageSize, sortBy, sortDirection));
+            } else {
+                responseCache.json(ctx, etag, () -> {
+                    Page<Recipe> found = recipeService.searchRecipes(term, page, pageSize, sortBy, sortDirection, fields);
+                    return new Page<>(found.getPageNumber(), found.getPageSize(), found.getTotalPages(),
+                            found.getTotalElements(), fields.project(found.getItems()));
+                });
+            }
             return;
         }
 
-        var list = recipeService.searchRecipes(term);
-        if (list == null || list.isEmpty()) {
-            ctx.status(404);
-            ctx.result("No recipes found");
+        if (fields.isAll()) {
+            respondWithList(ctx, etag, fields, () -> recipeService.searchRecipes(term));
         } else {
-            ctx.status(200);
-            ctx.json(list);
+            respondWithList(ctx, etag, fields, () -> recipeService.searchRecipes(term, fields));
         }
     };
 
@@ -78,14 +144,22 @@ public class RecipeController {
      * If successful, responds with a 200 status code and the recipe as the response body.
      * 
      * If unsuccessful, responds with a 404 status code and a result of "Recipe not found".
+     * 
+     * If the recipe exists and the client's If-None-Match matches the current ETag, responds with a 304 status code; a missing recipe is always a 404, without an ETag.
+     * 
+     * A {@code fields} query parameter narrows the recipe to those properties, as for the list.
      */
     public Handler fetchRecipeById = ctx -> {
         int id = Integer.parseInt(ctx.pathParam("id"));
-        recipeService.findRecipe(id)
-                .ifPresentOrElse(
-                        recipe -> { ctx.status(200); ctx.json(recipe); },
-                        () -> { ctx.status(404); ctx.result("Recipe not found"); }
-                );
+        FieldSelection fields = FieldSelection.parse(ctx.queryParam("fields"));
+        String etag = ETags.forTables(RECIPE_TABLES);
+        boolean found = fields.isAll()
+                ? responseCache.json(ctx, etag, () -> recipeService.findRecipe(id).orElse(null))
+                : responseCache.json(ctx, etag, () -> fields.project(recipeService.findRecipe(id, fields).orElse(null)));
+        if (!found) {
+            ctx.status(404);
+            ctx.result("Recipe not found");
+        }
     };
 
     /**
@@ -95,17 +169,8 @@ public class RecipeController {
      * If unauthorized, responds with a 401 Unauthorized status.
      */
     public Handler createRecipe = ctx -> {
-        String authHeader = ctx.header("Authorization");
-        String token = null;
-        if (authHeader != null) {
-            if (authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring("Bearer ".length());
-            } else {
-                token = authHeader;
-            }
-        }
-
-        Chef chef = token != null && !token.isEmpty() ? authService.getChefFromSessionToken(token) : null;
+        String token = AuthenticationService.tokenFromHeader(ctx.header("Authorization"));
+        Chef chef = token != null ? authService.getChefFromSessionToken(token) : null;
         if (chef == null) {
             ctx.status(401);
             return;
@@ -163,6 +228,28 @@ public class RecipeController {
         ctx.json(updated);
     };
 
+    /**
+     * Responds with a 200 status and the recipes, or a 404 status and a result of "No recipes found" if there are none.
+     * 
+     * @param ctx The context of the request.
+     * @param etag The entity tag of the current recipe data.
+     * @param fields The recipe properties to respond with.
+     * @param list Finds the recipes to respond with.
+     */
+    private void respondWithList(Context ctx, String etag, FieldSelection fields, Supplier<List<Recipe>> list) {
+        boolean found = responseCache.json(ctx, etag, () -> {
+            List<Recipe> recipes = list.get();
+            if (recipes == null || recipes.isEmpty()) {
+                return null;
+            }
+            return fields.isAll() ? recipes : fields.project(recipes);
+        });
+        if (!found) {
+            ctx.status(404);
+            ctx.result("No recipes found");
+        }
+    }
+
     /**
      * A helper method to retrieve a query parameter from the context as a specific class type, or return a default value if the query parameter is not present.
      * 
@@ -2,11 +2,17 @@ package com.revature.dao;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.TableVersions;
+import com.revature.util.TrigramIndex;
 import com.revature.model.Chef;
 import java.util.List;
+import java.util.Map;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 
 
 /**
@@ -23,6 +29,19 @@ public class ChefDAO {
     @SuppressWarnings("unused")
     private ConnectionUtil connectionUtil;
 
+    /** The trigram index answering username searches, or null to search with LIKE. */
+    private final TrigramIndex usernameIndex;
+
+    /** Sorting, counting and wrapping of paginated queries; its counts are reused until the CHEF table changes. */
+    private final PageQueries pages = new PageQueries(SORT_COLUMNS, "");
+
+    /** The columns chefs may be sorted by, indexed by the accepted sortBy value. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "username", "username",
+            "email", "email",
+            "is_admin", "is_admin");
+
     /** 
      * Constructs a ChefDAO with the specified ConnectionUtil for database connectivity.
      * 
@@ -31,7 +50,18 @@ public class ChefDAO {
      * @param connectionUtil the utility used to connect to the database
      */
     public ChefDAO(ConnectionUtil connectionUtil) {
+        this(connectionUtil, false);
+    }
+
+    /**
+     * Constructs a ChefDAO that optionally answers username searches from an in-memory trigram index instead of a LIKE scan.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     * @param indexUsernames true to keep a trigram index over the usernames
+     */
+    public ChefDAO(ConnectionUtil connectionUtil, boolean indexUsernames) {
         this.connectionUtil = connectionUtil;
+        this.usernameIndex = indexUsernames ? new TrigramIndex(connectionUtil, TableVersions.CHEF, "username") : null;
     }
 
     /**
@@ -60,14 +90,11 @@ public class ChefDAO {
      * @return a paginated list of Chef objects
      */
     public Page<Chef> getAllChefs(PageOptions pageOptions) {
-        try (var conn = connectionUtil.getConnection();
-             var stmt = conn.createStatement();
-             var rs = stmt.executeQuery("SELECT * FROM CHEF ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection())) {
-            return pageResults(rs, pageOptions);
+        try (var conn = connectionUtil.getConnection()) {
+            return pageResults(conn, "SELECT * FROM CHEF", "SELECT COUNT(*) FROM CHEF", null, pageOptions);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch paginated chefs", e);
         }
-        return new Page<>();
     }
 
     /**
@@ -91,11 +118,34 @@ public class ChefDAO {
         return null;
     }
 
+    /**
+     * Retrieves a Chef record by its exact username, using the index behind the UNIQUE constraint.
+     *
+     * @param username the username of the Chef to retrieve, matched case-sensitively.
+     * @return the Chef object, or null if there is none.
+     */
+    public Chef getChefByUsername(String username) {
+        try (var conn = connectionUtil.getConnection();
+             var ps = conn.prepareStatement("SELECT * FROM CHEF WHERE username = ?")) {
+            ps.setString(1, username);
+            try (var rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return mapSingleRow(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to fetch chef by username: " + username, e);
+        }
+        return null;
+    }
+
     /**
      * TODO: Creates a new Chef record in the database.
      *
+     * The UNIQUE constraints on the username and email are what detect duplicates, so concurrent registrations of the same username cannot both succeed.
+     *
      * @param chef the Chef object to be created.
-     * @return the unique identifier of the created Chef.
+     * @return the unique identifier of the created Chef, or 0 if the username or email is already taken.
      */
     public int createChef(Chef chef) {
         try (var conn = connectionUtil.getConnection();
@@ -107,13 +157,19 @@ public class ChefDAO {
             ps.setString(3, chef.getPassword());
             ps.setBoolean(4, chef.isAdmin());
             ps.executeUpdate();
+            TableVersions.bump(TableVersions.CHEF);
             try (var keys = ps.getGeneratedKeys()) {
                 if (keys.next()) {
                     int newId = keys.getInt(1);
                     chef.setId(newId);
+                    if (usernameIndex != null) {
+                        usernameIndex.put(newId, chef.getUsername());
+                    }
                     return newId;
                 }
             }
+        } catch (SQLIntegrityConstraintViolationException e) {
+            return 0;
         } catch (SQLException e) {
             throw new RuntimeException("Failed to create chef", e);
         }
@@ -135,6 +191,10 @@ public class ChefDAO {
             ps.setBoolean(4, chef.isAdmin());
             ps.setInt(5, chef.getId());
             ps.executeUpdate();
+            TableVersions.bump(TableVersions.CHEF);
+            if (usernameIndex != null) {
+                usernameIndex.put(chef.getId(), chef.getUsername());
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update chef with id: " + chef.getId(), e);
         }
@@ -150,6 +210,11 @@ public class ChefDAO {
              var ps = conn.prepareStatement("DELETE FROM CHEF WHERE id = ?")) {
             ps.setInt(1, chef.getId());
             ps.executeUpdate();
+            // recipes and their ingredient lines are removed by ON DELETE CASCADE
+            TableVersions.bump(TableVersions.CHEF, TableVersions.RECIPE, TableVersions.RECIPE_INGREDIENT);
+            if (usernameIndex != null) {
+                usernameIndex.remove(chef.getId());
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to delete chef with id: " + chef.getId(), e);
         }
@@ -163,9 +228,15 @@ public class ChefDAO {
      */
     public List<Chef> searchChefsByTerm(String term) {
         List<Chef> chefs = new ArrayList<>();
+        Integer[] ids = indexedMatches(term);
         try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement("SELECT * FROM CHEF WHERE username LIKE ? ORDER BY id")) {
-            ps.setString(1, "%" + term + "%");
+             var ps = conn.prepareStatement(ids != null ? "SELECT * FROM CHEF WHERE id = ANY(?) ORDER BY id"
+                     : "SELECT * FROM CHEF WHERE username LIKE ? ORDER BY id")) {
+            if (ids != null) {
+                ps.setObject(1, ids);
+            } else {
+                ps.setString(1, "%" + term + "%");
+            }
             try (var rs = ps.executeQuery()) {
                 while (rs.next()) {
                     chefs.add(mapSingleRow(rs));
@@ -185,17 +256,16 @@ public class ChefDAO {
      * @return a paginated list of Chef objects that match the search term
      */
     public Page<Chef> searchChefsByTerm(String term, PageOptions pageOptions) {
-        try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement(
-                     "SELECT * FROM CHEF WHERE username LIKE ? ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection())) {
-            ps.setString(1, "%" + term + "%");
-            try (var rs = ps.executeQuery()) {
-                return pageResults(rs, pageOptions);
+        Integer[] ids = indexedMatches(term);
+        try (var conn = connectionUtil.getConnection()) {
+            if (ids != null) {
+                return pageResults(conn, "SELECT * FROM CHEF WHERE id = ANY(?)", ids, ids.length, pageOptions);
             }
+            return pageResults(conn, "SELECT * FROM CHEF WHERE username LIKE ?",
+                    "SELECT COUNT(*) FROM CHEF WHERE username LIKE ?", "%" + term + "%", pageOptions);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to search paginated chefs by term: " + term, e);
         }
-        return new Page<>();
     }
 
     
@@ -233,36 +303,78 @@ public class ChefDAO {
     }
 
     /**
-     * Paginates the results of a ResultSet into a Page of Chef objects.
+     * Fetches one page of chefs with LIMIT/OFFSET and wraps it in a Page object, together with the total number of matching rows.
      *
-     * @param set the ResultSet containing Chef data.
+     * @param conn the connection to run the queries on.
+     * @param selectSql the SELECT statement without ORDER BY or LIMIT.
+     * @param countSql the matching COUNT(*) statement.
+     * @param likePattern the LIKE pattern bound to both statements, or null if they take no parameter.
      * @param pageOptions options for pagination and sorting.
-     * @return a Page of Chef objects containing the paginated results.
-     * @throws SQLException if an error occurs while accessing the ResultSet.
+     * @return a Page of Chef objects containing the requested page.
+     * @throws SQLException if an error occurs while running the queries.
      */
-    private Page<Chef> pageResults(ResultSet set, PageOptions pageOptions) throws SQLException {
-        List<Chef> chefs = mapRows(set);
-        int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-        int limit = offset + pageOptions.getPageSize();
-        List<Chef> slicedList = sliceList(chefs, offset, limit);
-        return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(),
-                chefs.size() / pageOptions.getPageSize(), chefs.size(), slicedList);
+    private Page<Chef> pageResults(Connection conn, String selectSql, String countSql, String likePattern,
+            PageOptions pageOptions) throws SQLException {
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        int offset = (Math.max(1, pageOptions.getPageNumber()) - 1) * pageSize;
+        // read the version first: a write racing the page read leaves the count stale rather than wrongly current
+        long version = TableVersions.get(TableVersions.CHEF);
+        List<Chef> chefs = readPage(conn, selectSql, likePattern, pageOptions);
+        int totalElements = pages.countRows(conn, countSql, likePattern, version, offset, chefs.size(), pageSize);
+        return PageQueries.toPage(chefs, totalElements, pageOptions);
     }
 
     /**
-     * Slices a list of Chef objects from a starting index to an ending index.
+     * Fetches one page of chefs whose total number is already known, so no COUNT query is needed.
      *
-     * @param list the list of Chef objects to slice.
-     * @param start the starting index.
-     * @param end the ending index.
-     * @return a sliced list of Chef objects.
+     * @param conn the connection to run the query on.
+     * @param selectSql the SELECT statement without ORDER BY or LIMIT.
+     * @param parameter the value bound to the statement's only placeholder.
+     * @param totalElements the total number of matching rows.
+     * @param pageOptions options for pagination and sorting.
+     * @return a Page of Chef objects containing the requested page.
+     * @throws SQLException if an error occurs while running the query.
      */
-    private List<Chef> sliceList(List<Chef> list, int start, int end) {
-        List<Chef> sliced = new ArrayList<>();
-        for (int i = start; i < end; i++) {
-            sliced.add(list.get(i));
+    private Page<Chef> pageResults(Connection conn, String selectSql, Object parameter, int totalElements,
+            PageOptions pageOptions) throws SQLException {
+        return PageQueries.toPage(readPage(conn, selectSql, parameter, pageOptions), totalElements, pageOptions);
+    }
+
+    /**
+     * Reads the rows of the requested page with LIMIT/OFFSET.
+     *
+     * @param conn the connection to run the query on.
+     * @param selectSql the SELECT statement without ORDER BY or LIMIT.
+     * @param parameter the value bound to the statement's only placeholder, or null if it has none.
+     * @param pageOptions options for pagination and sorting.
+     * @return the Chef objects on the page.
+     * @throws SQLException if an error occurs while running the query.
+     */
+    private List<Chef> readPage(Connection conn, String selectSql, Object parameter, PageOptions pageOptions)
+            throws SQLException {
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        int offset = (Math.max(1, pageOptions.getPageNumber()) - 1) * pageSize;
+        try (var ps = conn.prepareStatement(selectSql + pages.orderBy(pageOptions) + " LIMIT ? OFFSET ?")) {
+            int index = 1;
+            if (parameter != null) {
+                ps.setObject(index++, parameter);
+            }
+            ps.setInt(index++, pageSize);
+            ps.setInt(index, offset);
+            try (var rs = ps.executeQuery()) {
+                return mapRows(rs);
+            }
         }
-        return sliced;
     }
-}
 
+    /**
+     * Looks up the chefs whose username contains the term in the trigram index.
+     *
+     * @param term the search term.
+     * @return the ids of the matching chefs, or null if there is no index or the term needs the LIKE query.
+     */
+    private Integer[] indexedMatches(String term) {
+        int[] ids = usernameIndex == null ? null : usernameIndex.search(term);
+        return ids == null ? null : Arrays.stream(ids).boxed().toArray(Integer[]::new);
+    }
+}
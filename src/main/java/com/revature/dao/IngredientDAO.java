@@ -1,13 +1,21 @@
 package com.revature.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.TableVersions;
+import com.revature.util.TrigramIndex;
 import com.revature.model.Ingredient;
 
 
@@ -25,6 +33,17 @@ public class IngredientDAO {
     @SuppressWarnings("unused")
     private ConnectionUtil connectionUtil;
 
+    /** The trigram index answering name searches, or null to search with LIKE. */
+    private final TrigramIndex nameIndex;
+
+    /** Sorting, counting and wrapping of paginated queries; its counts are reused until the INGREDIENT table changes. */
+    private final PageQueries pages = new PageQueries(SORT_COLUMNS, "");
+
+    /** The columns ingredients may be sorted by, indexed by the accepted sortBy value. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name");
+
     /**
      * Constructs an IngredientDAO with the specified ConnectionUtil for database connectivity.
      * 
@@ -33,7 +52,18 @@ public class IngredientDAO {
      * @param connectionUtil the utility used to connect to the database
      */
     public IngredientDAO(ConnectionUtil connectionUtil) {
+        this(connectionUtil, false);
+    }
+
+    /**
+     * Constructs an IngredientDAO that optionally answers name searches from an in-memory trigram index instead of a LIKE scan.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     * @param indexNames true to keep a trigram index over the ingredient names
+     */
+    public IngredientDAO(ConnectionUtil connectionUtil, boolean indexNames) {
         this.connectionUtil = connectionUtil;
+        this.nameIndex = indexNames ? new TrigramIndex(connectionUtil, TableVersions.INGREDIENT, "name") : null;
     }
 
     /**
@@ -70,10 +100,14 @@ public class IngredientDAO {
                      java.sql.Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, ingredient.getName());
             ps.executeUpdate();
+            TableVersions.bump(TableVersions.INGREDIENT);
             try (var keys = ps.getGeneratedKeys()) {
                 if (keys.next()) {
                     int newId = keys.getInt(1);
                     ingredient.setId(newId);
+                    if (nameIndex != null) {
+                        nameIndex.put(newId, ingredient.getName());
+                    }
                     return newId;
                 }
             }
@@ -98,6 +132,10 @@ public class IngredientDAO {
                 ps2.setInt(1, ingredient.getId());
                 ps2.executeUpdate();
             }
+            TableVersions.bump(TableVersions.INGREDIENT, TableVersions.RECIPE_INGREDIENT);
+            if (nameIndex != null) {
+                nameIndex.remove(ingredient.getId());
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -114,6 +152,10 @@ public class IngredientDAO {
             ps.setString(1, ingredient.getName());
             ps.setInt(2, ingredient.getId());
             ps.executeUpdate();
+            TableVersions.bump(TableVersions.INGREDIENT);
+            if (nameIndex != null) {
+                nameIndex.put(ingredient.getId(), ingredient.getName());
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -145,16 +187,39 @@ public class IngredientDAO {
      * @return a Page of Ingredient objects containing the retrieved ingredients.
      */
     public Page<Ingredient> getAllIngredients(PageOptions pageOptions) {
-        try (var conn = connectionUtil.getConnection();
-             var stmt = conn.createStatement();
-             var rs = stmt.executeQuery("SELECT * FROM INGREDIENT ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection())) {
-            return pageResults(rs, pageOptions);
+        try (var conn = connectionUtil.getConnection()) {
+            return pageResults(conn, "SELECT * FROM INGREDIENT", "SELECT COUNT(*) FROM INGREDIENT", null, pageOptions);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return new Page<>();
     }
 
+    /**
+     * Retrieves the Ingredient records with the given ids in one query.
+     *
+     * @param ids the unique identifiers of the Ingredients to retrieve.
+     * @return the Ingredient objects found, ordered by id; ids with no Ingredient are skipped.
+     */
+    public List<Ingredient> getIngredientsByIds(int[] ids) {
+        List<Ingredient> ingredients = new ArrayList<>();
+        if (ids.length == 0) {
+            return ingredients;
+        }
+        try (var conn = connectionUtil.getConnection();
+             var ps = conn.prepareStatement("SELECT * FROM INGREDIENT WHERE id = ANY(?) ORDER BY id")) {
+            ps.setObject(1, Arrays.stream(ids).boxed().toArray(Integer[]::new));
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ingredients.add(mapSingleRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return ingredients;
+    }
+
     /**
      * TODO: Searches for Ingredient records by a search term in the name.
      *
@@ -163,9 +228,15 @@ public class IngredientDAO {
      */
     public List<Ingredient> searchIngredients(String term) {
         List<Ingredient> ingredients = new ArrayList<>();
+        Integer[] ids = indexedMatches(term);
         try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement("SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY id")) {
-            ps.setString(1, "%" + term + "%");
+             var ps = conn.prepareStatement(ids != null ? "SELECT * FROM INGREDIENT WHERE id = ANY(?) ORDER BY id"
+                     : "SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY id")) {
+            if (ids != null) {
+                ps.setObject(1, ids);
+            } else {
+                ps.setString(1, "%" + term + "%");
+            }
             try (var rs = ps.executeQuery()) {
                 while (rs.next()) {
                     ingredients.add(mapSingleRow(rs));
@@ -185,17 +256,80 @@ public class IngredientDAO {
      * @return a Page of Ingredient objects containing the retrieved ingredients.
      */
     public Page<Ingredient> searchIngredients(String term, PageOptions pageOptions) {
+        Integer[] ids = indexedMatches(term);
+        try (var conn = connectionUtil.getConnection()) {
+            if (ids != null) {
+                return pageResults(conn, "SELECT * FROM INGREDIENT WHERE id = ANY(?)", ids, ids.length, pageOptions);
+            }
+            return pageResults(conn, "SELECT * FROM INGREDIENT WHERE name LIKE ?",
+                    "SELECT COUNT(*) FROM INGREDIENT WHERE name LIKE ?", "%" + term + "%", pageOptions);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new Page<>();
+    }
+
+    /**
+     * Retrieves the page of Ingredient records that follows a cursor, optionally filtered by a search term in the name. The database seeks straight to the cursor position, so a deep page costs as much as the first one.
+     *
+     * @param term the search term to filter Ingredient names, or null for all ingredients.
+     * @param after the position the page starts after, or null for the first page.
+     * @param pageOptions the page size and sort options; the page number is ignored.
+     * @return a CursorPage of Ingredient objects carrying the cursor of the following page.
+     */
+    public CursorPage<Ingredient> getIngredientsAfter(String term, Cursor after, PageOptions pageOptions) {
+        String column = pages.sortColumn(pageOptions);
+        String direction = PageQueries.sortDirection(pageOptions);
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+
+        Integer[] ids = term == null ? null : indexedMatches(term);
+        List<String> conditions = new ArrayList<>();
+        if (ids != null) {
+            conditions.add("id = ANY(?)");
+        } else if (term != null) {
+            conditions.add("name LIKE ?");
+        }
+        if (after != null) {
+            conditions.add(seekCondition(column, direction));
+        }
+        String sql = "SELECT * FROM INGREDIENT" + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + pages.orderBy(pageOptions) + " LIMIT ?";
+
         try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement(
-                     "SELECT * FROM INGREDIENT WHERE name LIKE ? ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection())) {
-            ps.setString(1, "%" + term + "%");
+             var ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (ids != null) {
+                ps.setObject(index++, ids);
+            } else if (term != null) {
+                ps.setString(index++, "%" + term + "%");
+            }
+            if (after != null) {
+                index = bindSeek(ps, index, column, after);
+            }
+            // one extra row tells whether another page follows
+            ps.setInt(index, pageSize + 1);
             try (var rs = ps.executeQuery()) {
-                return pageResults(rs, pageOptions);
+                List<Ingredient> ingredients = new ArrayList<>();
+                String lastKey = null;
+                boolean hasMore = false;
+                while (rs.next()) {
+                    if (ingredients.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    lastKey = rs.getString(column);
+                    ingredients.add(mapSingleRow(rs));
+                }
+                String nextCursor = hasMore
+                        ? new Cursor(pageOptions.getSortBy() == null ? "id" : pageOptions.getSortBy(), direction, lastKey,
+                                ingredients.get(ingredients.size() - 1).getId()).encode()
+                        : null;
+                return new CursorPage<>(pageSize, ingredients, nextCursor);
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return new Page<>();
+        return new CursorPage<>();
     }
 
     // below are helper methods for your convenience
@@ -227,19 +361,112 @@ public class IngredientDAO {
     }
 
     /**
-     * Paginates the results of a ResultSet into a Page of Ingredient objects.
+     * Fetches one page of ingredients with LIMIT/OFFSET and wraps it in a Page object, together with the total number of matching rows.
      *
-     * @param resultSet the ResultSet containing Ingredient data.
+     * @param conn the connection to run the queries on.
+     * @param selectSql the SELECT statement without ORDER BY or LIMIT.
+     * @param countSql the matching COUNT(*) statement.
+     * @param likePattern the LIKE pattern bound to both statements, or null if they take no parameter.
      * @param pageOptions options for pagination and sorting.
-     * @return a Page of Ingredient objects containing the paginated results.
-     * @throws SQLException if an error occurs while accessing the ResultSet.
+     * @return a Page of Ingredient objects containing the requested page.
+     * @throws SQLException if an error occurs while running the queries.
+     */
+    private Page<Ingredient> pageResults(Connection conn, String selectSql, String countSql, String likePattern,
+            PageOptions pageOptions) throws SQLException {
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        int offset = (Math.max(1, pageOptions.getPageNumber()) - 1) * pageSize;
+        // read the version first: a write racing the page read leaves the count stale rather than wrongly current
+        long version = TableVersions.get(TableVersions.INGREDIENT);
+        List<Ingredient> ingredients = readPage(conn, selectSql, likePattern, pageOptions);
+        int totalElements = pages.countRows(conn, countSql, likePattern, version, offset, ingredients.size(), pageSize);
+        return PageQueries.toPage(ingredients, totalElements, pageOptions);
+    }
+
+    /**
+     * Fetches one page of ingredients whose total number is already known, so no COUNT query is needed.
+     *
+     * @param conn the connection to run the query on.
+     * @param selectSql the SELECT statement without ORDER BY or LIMIT.
+     * @param parameter the value bound to the statement's only placeholder.
+     * @param totalElements the total number of matching rows.
+     * @param pageOptions options for pagination and sorting.
+     * @return a Page of Ingredient objects containing the requested page.
+     * @throws SQLException if an error occurs while running the query.
+     */
+    private Page<Ingredient> pageResults(Connection conn, String selectSql, Object parameter, int totalElements,
+            PageOptions pageOptions) throws SQLException {
+        return PageQueries.toPage(readPage(conn, selectSql, parameter, pageOptions), totalElements, pageOptions);
+    }
+
+    /**
+     * Reads the rows of the requested page with LIMIT/OFFSET.
+     *
+     * @param conn the connection to run the query on.
+     * @param selectSql the SELECT statement without ORDER BY or LIMIT.
+     * @param parameter the value bound to the statement's only placeholder, or null if it has none.
+     * @param pageOptions options for pagination and sorting.
+     * @return the Ingredient objects on the page.
+     * @throws SQLException if an error occurs while running the query.
+     */
+    private List<Ingredient> readPage(Connection conn, String selectSql, Object parameter, PageOptions pageOptions)
+            throws SQLException {
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        int offset = (Math.max(1, pageOptions.getPageNumber()) - 1) * pageSize;
+        try (var ps = conn.prepareStatement(selectSql + pages.orderBy(pageOptions) + " LIMIT ? OFFSET ?")) {
+            int index = 1;
+            if (parameter != null) {
+                ps.setObject(index++, parameter);
+            }
+            ps.setInt(index++, pageSize);
+            ps.setInt(index, offset);
+            try (var rs = ps.executeQuery()) {
+                return mapRows(rs);
+            }
+        }
+    }
+
+    /**
+     * Looks up the ingredients whose name contains the term in the trigram index.
+     *
+     * @param term the search term.
+     * @return the ids of the matching ingredients, or null if there is no index or the term needs the LIKE query.
+     */
+    private Integer[] indexedMatches(String term) {
+        int[] ids = nameIndex == null ? null : nameIndex.search(term);
+        return ids == null ? null : Arrays.stream(ids).boxed().toArray(Integer[]::new);
+    }
+
+    /**
+     * Builds the WHERE condition that selects the rows after a cursor position in the given sort order, comparing the sort key first and the id when keys are equal.
+     *
+     * @param column the sort column.
+     * @param direction "ASC" or "DESC".
+     * @return the seek condition with placeholders for the cursor values.
      */
-    private Page<Ingredient> pageResults(ResultSet resultSet, PageOptions pageOptions) throws SQLException {
-        List<Ingredient> ingredients = mapRows(resultSet);
-        int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-        int limit = offset + pageOptions.getPageSize();
-        List<Ingredient> subList = ingredients.subList(offset, limit);
-        return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(),
-                (int) Math.ceil(ingredients.size() / ((float) pageOptions.getPageSize())), ingredients.size(), subList);
+    private String seekCondition(String column, String direction) {
+        String operator = direction.equals("ASC") ? ">" : "<";
+        if (column.equals("id")) {
+            return "id " + operator + " ?";
+        }
+        return "(" + column + " " + operator + " ? OR (" + column + " = ? AND id " + operator + " ?))";
+    }
+
+    /**
+     * Binds the cursor values to the placeholders of the seek condition.
+     *
+     * @param ps the statement to bind to.
+     * @param index the index of the first seek placeholder.
+     * @param column the sort column.
+     * @param after the cursor position.
+     * @return the index of the next unbound placeholder.
+     * @throws SQLException if an error occurs while binding the values.
+     */
+    private int bindSeek(PreparedStatement ps, int index, String column, Cursor after) throws SQLException {
+        if (!column.equals("id")) {
+            ps.setString(index++, after.getKey());
+            ps.setString(index++, after.getKey());
+        }
+        ps.setInt(index++, after.getId());
+        return index;
     }
 }
@@ -0,0 +1,137 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import com.revature.util.CountCache;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * The PageQueries class holds the paging logic the DAOs share: it resolves the requested sort options against a table's whitelisted columns, builds the matching ORDER BY clause, determines the total number of matching rows through a {@link CountCache}, and wraps a page of rows in a Page object.
+ *
+ * Each DAO owns one instance, so that its counts are cached apart from those of the other tables.
+ */
+class PageQueries {
+
+    /** The columns rows may be sorted by, indexed by the accepted sortBy value. */
+    private final Map<String, String> sortColumns;
+    /** The prefix qualifying the columns in the ORDER BY clause, such as a table alias and a dot, or an empty string. */
+    private final String columnPrefix;
+    /** Row counts of paginated queries, reused until the table changes. */
+    private final CountCache countCache = new CountCache(256);
+
+    /**
+     * Constructs a PageQueries for one table.
+     *
+     * @param sortColumns the columns rows may be sorted by, indexed by the accepted sortBy value
+     * @param columnPrefix the prefix qualifying the columns in the ORDER BY clause, or an empty string
+     */
+    PageQueries(Map<String, String> sortColumns, String columnPrefix) {
+        this.sortColumns = sortColumns;
+        this.columnPrefix = columnPrefix;
+    }
+
+    /**
+     * Wraps the rows of a page in a Page object. The number of pages is rounded up, so a last page holding fewer rows than the page size is counted.
+     *
+     * @param <T> the row type
+     * @param rows the rows on the page
+     * @param totalElements the total number of matching rows
+     * @param pageOptions options for pagination and sorting
+     * @return the Page object
+     */
+    static <T> Page<T> toPage(List<T> rows, int totalElements, PageOptions pageOptions) {
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        return new Page<>(Math.max(1, pageOptions.getPageNumber()), pageSize,
+                (int) Math.ceil(totalElements / (double) pageSize), totalElements, rows);
+    }
+
+    /**
+     * Determines the total number of rows matched by a paginated query. A short page
+     * means the end of the results was reached, so the total is known without counting;
+     * otherwise the count is served from the count cache or computed with the COUNT query.
+     *
+     * @param conn the connection to run the count on
+     * @param countSql the COUNT(*) statement
+     * @param likePattern the LIKE pattern bound to the statement, or null
+     * @param version the version of the table read before the page was, which the count is cached under
+     * @param offset the offset of the page that was read
+     * @param rows the number of rows on the page that was read
+     * @param pageSize the requested page size
+     * @return the total number of matching rows
+     * @throws SQLException if there is an error running the count
+     */
+    int countRows(Connection conn, String countSql, String likePattern, long version, int offset, int rows,
+            int pageSize) throws SQLException {
+        String key = likePattern == null ? "" : likePattern;
+        if ((rows > 0 && rows < pageSize) || (rows == 0 && offset == 0)) {
+            countCache.put(key, version, offset + rows);
+            return offset + rows;
+        }
+        int cached = countCache.get(key, version);
+        if (cached >= 0) {
+            return cached;
+        }
+        try (var ps = conn.prepareStatement(countSql)) {
+            if (likePattern != null) {
+                ps.setString(1, likePattern);
+            }
+            try (var rs = ps.executeQuery()) {
+                int count = rs.next() ? rs.getInt(1) : 0;
+                countCache.put(key, version, count);
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Builds the ORDER BY clause for the given page options from the whitelisted sort columns, with the id as a tie-breaker so that pages never overlap.
+     *
+     * @param pageOptions options for pagination and sorting
+     * @return the ORDER BY clause, starting with a space
+     * @throws IllegalArgumentException if the sort column or direction is not supported
+     */
+    String orderBy(PageOptions pageOptions) {
+        String column = sortColumn(pageOptions);
+        String direction = sortDirection(pageOptions);
+        return " ORDER BY " + columnPrefix + column + " " + direction
+                + (column.equals("id") ? "" : ", " + columnPrefix + "id " + direction);
+    }
+
+    /**
+     * Resolves the requested sortBy value to a whitelisted column, defaulting to the id.
+     *
+     * @param pageOptions options for pagination and sorting
+     * @return the column to sort by
+     * @throws IllegalArgumentException if the sort column is not supported
+     */
+    String sortColumn(PageOptions pageOptions) {
+        String sortBy = pageOptions.getSortBy() == null ? "id" : pageOptions.getSortBy().toLowerCase();
+        String column = sortColumns.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort column: " + pageOptions.getSortBy());
+        }
+        return column;
+    }
+
+    /**
+     * Normalizes the requested sort direction to ASC or DESC, defaulting to ascending.
+     *
+     * @param pageOptions options for pagination and sorting
+     * @return "ASC" or "DESC"
+     * @throws IllegalArgumentException if the direction is neither asc nor desc
+     */
+    static String sortDirection(PageOptions pageOptions) {
+        String sortDirection = pageOptions.getSortDirection();
+        if (sortDirection == null || sortDirection.equalsIgnoreCase("asc")) {
+            return "ASC";
+        }
+        if (sortDirection.equalsIgnoreCase("desc")) {
+            return "DESC";
+        }
+        throw new IllegalArgumentException("Unsupported sort direction: " + sortDirection);
+    }
+}
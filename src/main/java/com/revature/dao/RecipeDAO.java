@@ -1,15 +1,30 @@
 package com.revature.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
+import com.revature.util.FieldSelection;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
-import com.revature.model.Chef;
+import com.revature.util.TableVersions;
+import com.revature.util.TrigramIndex;
+import com.revature.model.ChefSummary;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
 
 
 
@@ -22,34 +37,56 @@ import com.revature.model.Recipe;
 
 public class RecipeDAO {
 
+    /** A utility class for establishing connections to the database. */
+    private ConnectionUtil connectionUtil;
+
+    /** The trigram index answering name searches, or null to search with LIKE. */
+    private final TrigramIndex nameIndex;
+
+    /** Sorting, counting and wrapping of paginated queries; its counts are reused until the RECIPE table changes. */
+    private final PageQueries pages = new PageQueries(SORT_COLUMNS, "r.");
+
     /**
-	 * DAO for managing Chef entities, used for retrieving chef details associated with recipes.
-	 */
-	private ChefDAO chefDAO;
+     * The SELECT statement every recipe read starts from. The author's username is joined in and aliased with a
+     * chef_ prefix, so that a recipe and its author summary are mapped from one row instead of one extra query per
+     * recipe; the author's email, password and admin flag are never read with a recipe.
+     */
+    private static final String SELECT_RECIPE_WITH_CHEF = "SELECT r.id, r.name, r.instructions, r.chef_id,"
+            + " c.username AS chef_username FROM RECIPE r JOIN CHEF c ON c.id = r.chef_id";
 
-	/**
-	 * DAO for managing Ingredient entities, used for retrieving ingredient details for recipes.
-	 */
-    @SuppressWarnings("unused")
-	private IngredientDAO ingredientDAO;
+    /** The most recipe ids bound into one ingredient query, which keeps the statement size bounded for large reads. */
+    private static final int INGREDIENT_BATCH_SIZE = 500;
 
-    /** A utility class for establishing connections to the database. */
-    @SuppressWarnings("unused")
-    private ConnectionUtil connectionUtil;
+    /** The RECIPE columns recipes may be sorted by, indexed by the accepted sortBy value. They double as result labels. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "instructions", "instructions",
+            "chef_id", "chef_id");
+
+    /** The sort columns holding integers, whose cursor keys are bound as numbers. */
+    private static final Set<String> INTEGER_SORT_COLUMNS = Set.of("id", "chef_id");
 
     /**
-	 * Constructs a RecipeDAO instance with specified ChefDAO and IngredientDAO.
+	 * Constructs a RecipeDAO instance with the specified ConnectionUtil. Authors are read by joining the CHEF table and ingredient lines in one batched query, so no other DAO is needed.
 	 *
 	 * TODO: Finish the implementation so that this class's instance variables are initialized accordingly.
 	 * 
-	 * @param chefDAO - the ChefDAO used for retrieving chef details.
-	 * @param ingredientDAO - the IngredientDAO used for retrieving ingredient details.
      * @param connectionUtil - the utility used to connect to the database
 	 */
-	public RecipeDAO(ChefDAO chefDAO, IngredientDAO ingredientDAO, ConnectionUtil connectionUtil) {
-		this.chefDAO = chefDAO;
-		this.ingredientDAO = ingredientDAO;
+	public RecipeDAO(ConnectionUtil connectionUtil) {
+		this(connectionUtil, false);
+	}
+
+	/**
+	 * Constructs a RecipeDAO that optionally answers name searches from an in-memory trigram index instead of a LIKE scan.
+	 *
+	 * @param connectionUtil - the utility used to connect to the database
+	 * @param indexNames - true to keep a trigram index over the recipe names
+	 */
+	public RecipeDAO(ConnectionUtil connectionUtil, boolean indexNames) {
 		this.connectionUtil = connectionUtil;
+		this.nameIndex = indexNames ? new TrigramIndex(connectionUtil, TableVersions.RECIPE, "name") : null;
 	}
 
     /**
@@ -59,13 +96,23 @@ public class RecipeDAO {
      */
 
     public List<Recipe> getAllRecipes() {
+        return getAllRecipes(FieldSelection.ALL);
+    }
+
+    /**
+     * Retrieves all recipes from the database, reading only the selected properties.
+     * 
+     * @param fields the recipe properties to read
+     * @return a list of all Recipe objects, with the unselected properties left empty
+     */
+
+    public List<Recipe> getAllRecipes(FieldSelection fields) {
         List<Recipe> recipes = new ArrayList<>();
         try (var conn = connectionUtil.getConnection();
              var stmt = conn.createStatement();
-             var rs = stmt.executeQuery("SELECT * FROM RECIPE ORDER BY id")) {
-            while (rs.next()) {
-                recipes.add(mapSingleRow(rs));
-            }
+             var rs = stmt.executeQuery(selectRecipes(fields, null) + " ORDER BY r.id")) {
+            recipes.addAll(mapRows(rs, fields));
+            loadIngredients(conn, recipes, fields);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch all recipes", e);
         }
@@ -79,11 +126,20 @@ public class RecipeDAO {
      * @return a paginated list of Recipe objects
      */
     public Page<Recipe> getAllRecipes(PageOptions pageOptions) {
-        String sql = "SELECT * FROM RECIPE ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection();
-        try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement(sql);
-             var rs = ps.executeQuery()) {
-            return pageResults(rs, pageOptions);
+        return getAllRecipes(pageOptions, FieldSelection.ALL);
+    }
+
+    /**
+     * Retrieves a paginated list of all recipes from the database, reading only the selected properties.
+     * 
+     * @param pageOptions options for pagination, including page size and page number
+     * @param fields the recipe properties to read
+     * @return a paginated list of Recipe objects, with the unselected properties left empty
+     */
+    public Page<Recipe> getAllRecipes(PageOptions pageOptions, FieldSelection fields) {
+        try (var conn = connectionUtil.getConnection()) {
+            return pageResults(conn, selectRecipes(fields, null), "SELECT COUNT(*) FROM RECIPE", null, pageOptions,
+                    fields);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch paginated recipes", e);
         }
@@ -97,25 +153,32 @@ public class RecipeDAO {
      */
 
     public List<Recipe> searchRecipesByTerm(String term) {
+        return searchRecipesByTerm(term, FieldSelection.ALL);
+    }
+
+    /**
+     * Searches for recipes that match a specified term, reading only the selected properties.
+     * 
+     * @param term the search term to filter recipes by
+     * @param fields the recipe properties to read
+     * @return a list of Recipe objects that match the search term, with the unselected properties left empty
+     */
+
+    public List<Recipe> searchRecipesByTerm(String term, FieldSelection fields) {
         List<Recipe> recipes = new ArrayList<>();
+        Integer[] ids = indexedMatches(term);
         try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement("SELECT * FROM RECIPE WHERE name LIKE ? ORDER BY id")) {
-            ps.setString(1, "%" + term + "%");
+             var ps = conn.prepareStatement(selectRecipes(fields, null)
+                     + (ids != null ? " WHERE r.id = ANY(?)" : " WHERE r.name LIKE ?") + " ORDER BY r.id")) {
+            if (ids != null) {
+                ps.setObject(1, ids);
+            } else {
+                ps.setString(1, "%" + term + "%");
+            }
             try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String name = rs.getString("name");
-                    String instructions = rs.getString("instructions");
-                    int authorId;
-                    try {
-                        authorId = rs.getInt("author_id");
-                    } catch (SQLException e) {
-                        authorId = rs.getInt("chef_id");
-                    }
-                    Chef author = chefDAO.getChefById(authorId);
-                    recipes.add(new Recipe(id, name, instructions, author));
-                }
+                recipes.addAll(mapRows(rs, fields));
             }
+            loadIngredients(conn, recipes, fields);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to search recipes by term: " + term, e);
         }
@@ -131,16 +194,210 @@ public class RecipeDAO {
      */
 
     public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions) {
+        return searchRecipesByTerm(term, pageOptions, FieldSelection.ALL);
+    }
+
+    /**
+     * Searches for recipes that match a specified term and returns a paginated result, reading only the selected properties.
+     * 
+     * @param term the search term to filter recipes by
+     * @param pageOptions options for pagination, including page size and page number
+     * @param fields the recipe properties to read
+     * @return a paginated list of Recipe objects that match the search term, with the unselected properties left empty
+     */
+
+    public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions, FieldSelection fields) {
+        Integer[] ids = indexedMatches(term);
+        try (var conn = connectionUtil.getConnection()) {
+            if (ids != null) {
+                return pageResults(conn, selectRecipes(fields, null) + " WHERE r.id = ANY(?)", ids, ids.length,
+                        pageOptions, fields);
+            }
+            return pageResults(conn, selectRecipes(fields, null) + " WHERE r.name LIKE ?",
+                    "SELECT COUNT(*) FROM RECIPE WHERE name LIKE ?", "%" + term + "%", pageOptions, fields);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to search paginated recipes by term: " + term, e);
+        }
+    }
+
+    /**
+     * Retrieves the page of recipes that follows a cursor, optionally filtered by a search term.
+     * The database seeks straight to the cursor position, so a deep page costs as much as the first one.
+     * 
+     * @param term the search term to filter recipes by, or null for all recipes
+     * @param after the position the page starts after, or null for the first page
+     * @param pageOptions the page size and sort options; the page number is ignored
+     * @return a CursorPage of Recipe objects carrying the cursor of the following page
+     */
+
+    public CursorPage<Recipe> getRecipesAfter(String term, Cursor after, PageOptions pageOptions) {
+        return getRecipesAfter(term, after, pageOptions, FieldSelection.ALL);
+    }
+
+    /**
+     * Retrieves the page of recipes that follows a cursor, optionally filtered by a search term, reading only the selected properties.
+     * 
+     * @param term the search term to filter recipes by, or null for all recipes
+     * @param after the position the page starts after, or null for the first page
+     * @param pageOptions the page size and sort options; the page number is ignored
+     * @param fields the recipe properties to read
+     * @return a CursorPage of Recipe objects, with the unselected properties left empty
+     */
+
+    public CursorPage<Recipe> getRecipesAfter(String term, Cursor after, PageOptions pageOptions, FieldSelection fields) {
+        String column = pages.sortColumn(pageOptions);
+        String direction = PageQueries.sortDirection(pageOptions);
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+
+        Integer[] ids = term == null ? null : indexedMatches(term);
+        List<String> conditions = new ArrayList<>();
+        if (ids != null) {
+            conditions.add("r.id = ANY(?)");
+        } else if (term != null) {
+            conditions.add("r.name LIKE ?");
+        }
+        if (after != null) {
+            conditions.add(seekCondition(column, direction));
+        }
+        String sql = selectRecipes(fields, column) + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + pages.orderBy(pageOptions) + " LIMIT ?";
+
         try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement(
-                     "SELECT * FROM RECIPE WHERE name LIKE ? ORDER BY " + pageOptions.getSortBy() + " " + pageOptions.getSortDirection())) {
-            ps.setString(1, "%" + term + "%");
+             var ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (ids != null) {
+                ps.setObject(index++, ids);
+            } else if (term != null) {
+                ps.setString(index++, "%" + term + "%");
+            }
+            if (after != null) {
+                index = bindSeek(ps, index, column, after);
+            }
+            // one extra row tells whether another page follows
+            ps.setInt(index, pageSize + 1);
+            try (var rs = ps.executeQuery()) {
+                List<Recipe> recipes = new ArrayList<>();
+                Map<Integer, ChefSummary> authors = new HashMap<>();
+                String lastKey = null;
+                boolean hasMore = false;
+                while (rs.next()) {
+                    if (recipes.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    lastKey = rs.getString(column);
+                    recipes.add(mapSingleRow(rs, fields, authors));
+                }
+                String nextCursor = hasMore
+                        ? new Cursor(pageOptions.getSortBy() == null ? "id" : pageOptions.getSortBy(), direction, lastKey,
+                                recipes.get(recipes.size() - 1).getId()).encode()
+                        : null;
+                loadIngredients(conn, recipes, fields);
+                return new CursorPage<>(pageSize, recipes, nextCursor);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to fetch recipes after cursor", e);
+        }
+    }
+
+    /**
+     * Retrieves the recipes with the given IDs in one query.
+     * 
+     * @param ids the IDs of the recipes to retrieve
+     * @return the Recipe objects found, ordered by ID; IDs with no recipe are skipped
+     */
+
+    public List<Recipe> getRecipesByIds(int[] ids) {
+        return getRecipesByIds(ids, null, FieldSelection.ALL);
+    }
+
+    /**
+     * Retrieves the recipes with the given IDs in one query, reading only the selected properties. The name is
+     * matched against the term with the same LIKE condition as {@link #searchRecipesByTerm(String)}.
+     * 
+     * @param ids the IDs of the recipes to retrieve
+     * @param term the search term the recipe name must contain, or null
+     * @param fields the recipe properties to read
+     * @return the Recipe objects found, with the unselected properties left empty, ordered by ID; IDs with no matching recipe are skipped
+     */
+
+    public List<Recipe> getRecipesByIds(int[] ids, String term, FieldSelection fields) {
+        List<Recipe> recipes = new ArrayList<>();
+        if (ids.length == 0) {
+            return recipes;
+        }
+        try (var conn = connectionUtil.getConnection();
+             var ps = conn.prepareStatement(selectRecipes(fields, null) + " WHERE r.id = ANY(?)"
+                     + (term != null ? " AND r.name LIKE ?" : "") + " ORDER BY r.id")) {
+            ps.setArray(1, conn.createArrayOf("INTEGER", Arrays.stream(ids).boxed().toArray()));
+            if (term != null) {
+                ps.setString(2, "%" + term + "%");
+            }
             try (var rs = ps.executeQuery()) {
-                return pageResults(rs, pageOptions);
+                recipes.addAll(mapRows(rs, fields));
             }
+            loadIngredients(conn, recipes, fields);
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to search paginated recipes by term: " + term, e);
+            throw new RuntimeException("Failed to get recipes by ids", e);
+        }
+        return recipes;
+    }
+
+    /**
+     * Searches for recipes by their ingredients, for use when no ingredient index is available.
+     * 
+     * @param ingredientNames the ingredient names to look for, matched case-insensitively
+     * @param matchAll true to require every ingredient, false to accept any of them
+     * @return the matching Recipe objects, ordered by ID
+     */
+
+    public List<Recipe> searchRecipesByIngredients(Collection<String> ingredientNames, boolean matchAll) {
+        return searchRecipesByIngredients(ingredientNames, matchAll, null, FieldSelection.ALL);
+    }
+
+    /**
+     * Searches for recipes by their ingredients, for use when no ingredient index is available, reading only the selected
+     * properties. The name is matched against the term with the same LIKE condition as {@link #searchRecipesByTerm(String)}.
+     * 
+     * @param ingredientNames the ingredient names to look for, matched case-insensitively
+     * @param matchAll true to require every ingredient, false to accept any of them
+     * @param term the search term the recipe name must contain, or null
+     * @param fields the recipe properties to read
+     * @return the matching Recipe objects, with the unselected properties left empty, ordered by ID
+     */
+
+    public List<Recipe> searchRecipesByIngredients(Collection<String> ingredientNames, boolean matchAll, String term,
+            FieldSelection fields) {
+        List<String> names = ingredientNames.stream().map(String::toLowerCase).distinct().toList();
+        List<Recipe> recipes = new ArrayList<>();
+        if (names.isEmpty()) {
+            return recipes;
+        }
+        String sql = selectRecipes(fields, null) + " WHERE r.id IN (SELECT ri.recipe_id FROM RECIPE_INGREDIENT ri"
+                + " JOIN INGREDIENT i ON i.id = ri.ingredient_id WHERE LOWER(i.name) IN ("
+                + String.join(", ", Collections.nCopies(names.size(), "?")) + ") GROUP BY ri.recipe_id"
+                + (matchAll ? " HAVING COUNT(DISTINCT LOWER(i.name)) = ?" : "") + ")"
+                + (term != null ? " AND r.name LIKE ?" : "") + " ORDER BY r.id";
+        try (var conn = connectionUtil.getConnection();
+             var ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String name : names) {
+                ps.setString(index++, name);
+            }
+            if (matchAll) {
+                ps.setInt(index++, names.size());
+            }
+            if (term != null) {
+                ps.setString(index, "%" + term + "%");
+            }
+            try (var rs = ps.executeQuery()) {
+                recipes.addAll(mapRows(rs, fields));
+            }
+            loadIngredients(conn, recipes, fields);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to search recipes by ingredients: " + names, e);
         }
+        return recipes;
     }
 
     /**
@@ -151,12 +408,26 @@ public class RecipeDAO {
      */
 
     public Recipe getRecipeById(int id) {
+        return getRecipeById(id, FieldSelection.ALL);
+    }
+
+    /**
+     * Retrieves a specific recipe by its ID, reading only the selected properties.
+     * 
+     * @param id the ID of the recipe to retrieve
+     * @param fields the recipe properties to read
+     * @return the Recipe object corresponding to the given ID, with the unselected properties left empty, or null if there is none
+     */
+
+    public Recipe getRecipeById(int id, FieldSelection fields) {
         try (var conn = connectionUtil.getConnection();
-             var ps = conn.prepareStatement("SELECT * FROM RECIPE WHERE id = ?")) {
+             var ps = conn.prepareStatement(selectRecipes(fields, null) + " WHERE r.id = ?")) {
             ps.setInt(1, id);
             try (var rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return mapSingleRow(rs);
+                    Recipe recipe = mapSingleRow(rs, fields);
+                    loadIngredients(conn, List.of(recipe), fields);
+                    return recipe;
                 }
             }
         } catch (SQLException e) {
@@ -182,10 +453,14 @@ public class RecipeDAO {
             ps.setString(2, recipe.getInstructions());
             ps.setInt(3, recipe.getAuthor().getId());
             ps.executeUpdate();
+            TableVersions.bump(TableVersions.RECIPE);
             try (var keys = ps.getGeneratedKeys()) {
                 if (keys.next()) {
                     int newId = keys.getInt(1);
                     recipe.setId(newId);
+                    if (nameIndex != null) {
+                        nameIndex.put(newId, recipe.getName());
+                    }
                     return newId;
                 }
             }
@@ -208,6 +483,10 @@ public class RecipeDAO {
             ps.setInt(2, recipe.getAuthor().getId());
             ps.setInt(3, recipe.getId());
             ps.executeUpdate();
+            TableVersions.bump(TableVersions.RECIPE);
+            if (nameIndex != null) {
+                nameIndex.recordUnchanged();
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update recipe with id: " + recipe.getId(), e);
         }
@@ -229,6 +508,10 @@ public class RecipeDAO {
                 ps2.setInt(1, recipe.getId());
                 ps2.executeUpdate();
             }
+            TableVersions.bump(TableVersions.RECIPE, TableVersions.RECIPE_INGREDIENT);
+            if (nameIndex != null) {
+                nameIndex.remove(recipe.getId());
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to delete recipe with id: " + recipe.getId(), e);
         }
@@ -240,17 +523,64 @@ public class RecipeDAO {
 	 * Maps a single row from the ResultSet to a Recipe object.
 	 * This method extracts the recipe details such as ID, name, instructions,
 	 * and associated chef from the ResultSet and constructs a Recipe instance.
+	 * The author is a ChefSummary read from the joined, chef_-prefixed columns of the same row.
+	 *
+	 * @param set the ResultSet containing the recipe data
+	 * @param fields the recipe properties the row was read with
+	 * @return a Recipe object with the unselected properties left empty
+	 * @throws SQLException if there is an error accessing the ResultSet
+	 */
+	private Recipe mapSingleRow(ResultSet set, FieldSelection fields) throws SQLException {
+		return mapSingleRow(set, fields, null);
+	}
+
+	/**
+	 * Maps a row read with {@link #selectRecipes(FieldSelection, String)} to a Recipe object, filling in only the selected properties.
+	 *
+	 * @param set the ResultSet containing the recipe data
+	 * @param fields the recipe properties the row was read with
+	 * @param authors the author summaries already read from the result set by chef id, shared with this row's recipe and
+	 *            extended with its author; null to read the author afresh
+	 * @return a Recipe object with the unselected properties left empty
+	 * @throws SQLException if there is an error accessing the ResultSet
+	 */
+	private Recipe mapSingleRow(ResultSet set, FieldSelection fields, Map<Integer, ChefSummary> authors)
+			throws SQLException {
+		Recipe recipe = new Recipe();
+		recipe.setId(set.getInt("id"));
+		if (fields.includes("name")) {
+			recipe.setName(set.getString("name"));
+		}
+		if (fields.includes("instructions")) {
+			recipe.setInstructions(set.getString("instructions"));
+		}
+		if (fields.includes("author")) {
+			recipe.setAuthor(mapAuthor(set, fields, authors));
+		}
+		return recipe;
+	}
+
+	/**
+	 * Reads the author summary of a row, reusing the summary of an earlier row by the same chef so that a result set
+	 * holds one instance per chef and reads each username once.
 	 *
 	 * @param set the ResultSet containing the recipe data
-	 * @return a Recipe object representing the mapped row
+	 * @param fields the recipe properties the row was read with
+	 * @param authors the author summaries already read by chef id, or null
+	 * @return the author summary
 	 * @throws SQLException if there is an error accessing the ResultSet
 	 */
-	private Recipe mapSingleRow(ResultSet set) throws SQLException {
-		int id = set.getInt("id");
-		String name = set.getString("name");
-		String instructions = set.getString("instructions");
-		Chef author = chefDAO.getChefById(set.getInt("chef_id"));
-		return new Recipe(id, name, instructions, author);
+	private static ChefSummary mapAuthor(ResultSet set, FieldSelection fields, Map<Integer, ChefSummary> authors)
+			throws SQLException {
+		int chefId = set.getInt("chef_id");
+		ChefSummary author = authors != null ? authors.get(chefId) : null;
+		if (author == null) {
+			author = new ChefSummary(chefId, fields.includesAuthor("username") ? set.getString("chef_username") : null);
+			if (authors != null) {
+				authors.put(chefId, author);
+			}
+		}
+		return author;
 	}
 
 	/**
@@ -263,50 +593,233 @@ public class RecipeDAO {
 	 * @throws SQLException if there is an error accessing the ResultSet
 	 */
 	private List<Recipe> mapRows(ResultSet set) throws SQLException {
+		return mapRows(set, FieldSelection.ALL);
+	}
+
+	/**
+	 * Maps multiple rows from a ResultSet to a list of Recipe objects, filling in only the selected properties. The
+	 * recipes of one chef share a single author summary.
+	 *
+	 * @param set the ResultSet containing multiple recipe rows
+	 * @param fields the recipe properties the rows were read with
+	 * @return a list of Recipe objects representing the mapped rows
+	 * @throws SQLException if there is an error accessing the ResultSet
+	 */
+	private List<Recipe> mapRows(ResultSet set, FieldSelection fields) throws SQLException {
 		List<Recipe> recipes = new ArrayList<>();
+		Map<Integer, ChefSummary> authors = new HashMap<>();
 		while (set.next()) {
-			recipes.add(mapSingleRow(set));
+			recipes.add(mapSingleRow(set, fields, authors));
 		}
 		return recipes;
 	}
 
 	/**
-	 * Pages the results from a ResultSet into a Page object for the Recipe entity.
-	 * This method processes the ResultSet to retrieve recipes, then slices the list
-	 * based on the provided pagination options, and returns a Page object
-	 * containing
-	 * the paginated results.
+	 * Builds the SELECT statement for reading the selected properties of recipes. The recipe id is always read; the
+	 * CHEF table is only joined when the author's username is selected.
+	 *
+	 * @param fields the recipe properties to read
+	 * @param sortColumn a RECIPE column that must be read as well because the caller reads it, or null
+	 * @return the SELECT statement without WHERE, ORDER BY or LIMIT
+	 */
+	private static String selectRecipes(FieldSelection fields, String sortColumn) {
+		if (fields.isAll()) {
+			return SELECT_RECIPE_WITH_CHEF;
+		}
+		Set<String> columns = new LinkedHashSet<>();
+		columns.add("r.id");
+		if (fields.includes("name")) {
+			columns.add("r.name");
+		}
+		if (fields.includes("instructions")) {
+			columns.add("r.instructions");
+		}
+		if (fields.includes("author")) {
+			columns.add("r.chef_id");
+		}
+		if (sortColumn != null) {
+			columns.add("r." + sortColumn);
+		}
+		if (!fields.needsChef()) {
+			return "SELECT " + String.join(", ", columns) + " FROM RECIPE r";
+		}
+		columns.add("c.username AS chef_username");
+		return "SELECT " + String.join(", ", columns) + " FROM RECIPE r JOIN CHEF c ON c.id = r.chef_id";
+	}
+
+	/**
+	 * Fills in the ingredient lines of the given recipes if they are selected, and skips the query otherwise.
+	 *
+	 * @param conn the connection to run the query on
+	 * @param recipes the recipes to fill in
+	 * @param fields the recipe properties to read
+	 * @throws SQLException if there is an error running the query
+	 */
+	private void loadIngredients(Connection conn, List<Recipe> recipes, FieldSelection fields) throws SQLException {
+		if (fields.includes("ingredients")) {
+			loadIngredients(conn, recipes);
+		}
+	}
+
+	/**
+	 * Fills in the ingredient lines of the given recipes. The lines of all recipes are read
+	 * with one query joining RECIPE_INGREDIENT to INGREDIENT on an IN list of recipe ids
+	 * (split into batches of INGREDIENT_BATCH_SIZE ids), then grouped by recipe id, so the
+	 * cost does not grow with the number of recipes. Recipes without lines get an empty list.
+	 *
+	 * @param conn the connection to run the query on
+	 * @param recipes the recipes to fill in
+	 * @throws SQLException if there is an error running the query
+	 */
+	private void loadIngredients(Connection conn, List<Recipe> recipes) throws SQLException {
+		Map<Integer, List<RecipeIngredient>> linesByRecipe = new HashMap<>();
+		for (Recipe recipe : recipes) {
+			List<RecipeIngredient> lines = new ArrayList<>();
+			recipe.setIngredients(lines);
+			linesByRecipe.put(recipe.getId(), lines);
+		}
+		for (int from = 0; from < recipes.size(); from += INGREDIENT_BATCH_SIZE) {
+			List<Recipe> batch = recipes.subList(from, Math.min(recipes.size(), from + INGREDIENT_BATCH_SIZE));
+			String sql = "SELECT ri.recipe_id, i.id, i.name, ri.vol, ri.unit FROM RECIPE_INGREDIENT ri"
+					+ " JOIN INGREDIENT i ON i.id = ri.ingredient_id WHERE ri.recipe_id IN ("
+					+ String.join(", ", Collections.nCopies(batch.size(), "?")) + ") ORDER BY ri.recipe_id, ri.id";
+			try (var ps = conn.prepareStatement(sql)) {
+				for (int i = 0; i < batch.size(); i++) {
+					ps.setInt(i + 1, batch.get(i).getId());
+				}
+				try (var rs = ps.executeQuery()) {
+					while (rs.next()) {
+						linesByRecipe.get(rs.getInt("recipe_id")).add(new RecipeIngredient(rs.getInt("id"),
+								rs.getString("name"), rs.getDouble("vol"), rs.getString("unit")));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fetches one page of recipes from the database and wraps it in a Page object.
+	 * The page is cut out by the database with LIMIT/OFFSET, so only the rows on the
+	 * requested page are read. The total number of matching rows comes from a separate
+	 * COUNT query, which is skipped when the page itself reveals the total and cached
+	 * until the RECIPE table changes otherwise.
 	 *
-	 * @param set the ResultSet containing recipe data
+	 * @param conn the connection to run the queries on
+	 * @param selectSql the SELECT statement without ORDER BY or LIMIT
+	 * @param countSql the matching COUNT(*) statement
+	 * @param likePattern the LIKE pattern bound to both statements, or null if they take no parameter
 	 * @param pageOptions the PageOptions object containing pagination details
-	 * @return a Page object containing the paginated list of Recipe objects
-	 * @throws SQLException if there is an error accessing the ResultSet
+	 * @param fields the recipe properties selectSql reads
+	 * @return a Page object containing the requested page of Recipe objects
+	 * @throws SQLException if there is an error running the queries
+	 */
+	private Page<Recipe> pageResults(Connection conn, String selectSql, String countSql, String likePattern,
+			PageOptions pageOptions, FieldSelection fields) throws SQLException {
+		int pageSize = Math.max(1, pageOptions.getPageSize());
+		int offset = (Math.max(1, pageOptions.getPageNumber()) - 1) * pageSize;
+		// read the version first: a write racing the page read leaves the count stale rather than wrongly current
+		long version = TableVersions.get(TableVersions.RECIPE);
+		List<Recipe> recipes = readPage(conn, selectSql, likePattern, pageOptions, fields);
+		int totalElements = pages.countRows(conn, countSql, likePattern, version, offset, recipes.size(), pageSize);
+		return PageQueries.toPage(recipes, totalElements, pageOptions);
+	}
+
+	/**
+	 * Fetches one page of recipes whose total number is already known, so no COUNT query is needed.
+	 *
+	 * @param conn the connection to run the query on
+	 * @param selectSql the SELECT statement without ORDER BY or LIMIT
+	 * @param parameter the value bound to the statement's only placeholder
+	 * @param totalElements the total number of matching rows
+	 * @param pageOptions the PageOptions object containing pagination details
+	 * @param fields the recipe properties selectSql reads
+	 * @return a Page object containing the requested page of Recipe objects
+	 * @throws SQLException if there is an error running the query
+	 */
+	private Page<Recipe> pageResults(Connection conn, String selectSql, Object parameter, int totalElements,
+			PageOptions pageOptions, FieldSelection fields) throws SQLException {
+		return PageQueries.toPage(readPage(conn, selectSql, parameter, pageOptions, fields), totalElements, pageOptions);
+	}
+
+	/**
+	 * Reads the recipes on the requested page with LIMIT/OFFSET, ingredient lines included if they are selected.
+	 *
+	 * @param conn the connection to run the queries on
+	 * @param selectSql the SELECT statement without ORDER BY or LIMIT
+	 * @param parameter the value bound to the statement's only placeholder, or null if it has none
+	 * @param pageOptions the PageOptions object containing pagination details
+	 * @param fields the recipe properties selectSql reads
+	 * @return the Recipe objects on the page
+	 * @throws SQLException if there is an error running the queries
 	 */
-	private Page<Recipe> pageResults(ResultSet set, PageOptions pageOptions) throws SQLException {
-		List<Recipe> recipes = mapRows(set);
-		int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-		int limit = offset + pageOptions.getPageSize();
-		List<Recipe> slicedList = sliceList(recipes, offset, limit);
-		return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(),
-				recipes.size() / pageOptions.getPageSize(), recipes.size(), slicedList);
+	private List<Recipe> readPage(Connection conn, String selectSql, Object parameter, PageOptions pageOptions,
+			FieldSelection fields) throws SQLException {
+		int pageSize = Math.max(1, pageOptions.getPageSize());
+		int offset = (Math.max(1, pageOptions.getPageNumber()) - 1) * pageSize;
+		List<Recipe> recipes;
+		try (var ps = conn.prepareStatement(selectSql + pages.orderBy(pageOptions) + " LIMIT ? OFFSET ?")) {
+			int index = 1;
+			if (parameter != null) {
+				ps.setObject(index++, parameter);
+			}
+			ps.setInt(index++, pageSize);
+			ps.setInt(index, offset);
+			try (var rs = ps.executeQuery()) {
+				recipes = mapRows(rs, fields);
+			}
+		}
+		loadIngredients(conn, recipes, fields);
+		return recipes;
 	}
 
 	/**
-	 * Slices a list of Recipe objects from a specified start index to an end index.
-	 * This method creates a sublist of the provided list, which can be used for
-	 * pagination.
+	 * Looks up the recipes whose name contains the term in the trigram index.
 	 *
-	 * @param list  the original list of Recipe objects
-	 * @param start the starting index (inclusive) for the slice
-	 * @param end   the ending index (exclusive) for the slice
-	 * @return a list of Recipe objects representing the sliced portion
+	 * @param term the search term
+	 * @return the ids of the matching recipes, or null if there is no index or the term needs the LIKE query
 	 */
-	private List<Recipe> sliceList(List<Recipe> list, int start, int end) {
-		List<Recipe> sliced = new ArrayList<>();
-		for (int i = start; i < end; i++) {
-			sliced.add(list.get(i));
+	private Integer[] indexedMatches(String term) {
+		int[] ids = nameIndex == null ? null : nameIndex.search(term);
+		return ids == null ? null : Arrays.stream(ids).boxed().toArray(Integer[]::new);
+	}
+
+	/**
+	 * Builds the WHERE condition that selects the rows after a cursor position in the
+	 * given sort order, comparing the sort key first and the id when keys are equal.
+	 *
+	 * @param column the sort column
+	 * @param direction "ASC" or "DESC"
+	 * @return the seek condition with placeholders for the cursor values
+	 */
+	private String seekCondition(String column, String direction) {
+		String operator = direction.equals("ASC") ? ">" : "<";
+		if (column.equals("id")) {
+			return "r.id " + operator + " ?";
 		}
-		return sliced;
+		return "(r." + column + " " + operator + " ? OR (r." + column + " = ? AND r.id " + operator + " ?))";
 	}
-}
 
+	/**
+	 * Binds the cursor values to the placeholders of the seek condition.
+	 *
+	 * @param ps the statement to bind to
+	 * @param index the index of the first seek placeholder
+	 * @param column the sort column
+	 * @param after the cursor position
+	 * @return the index of the next unbound placeholder
+	 * @throws SQLException if there is an error binding the values
+	 */
+	private int bindSeek(PreparedStatement ps, int index, String column, Cursor after) throws SQLException {
+		if (!column.equals("id")) {
+			for (int i = 0; i < 2; i++) {
+				if (INTEGER_SORT_COLUMNS.contains(column)) {
+					ps.setInt(index++, Integer.parseInt(after.getKey()));
+				} else {
+					ps.setString(index++, after.getKey());
+				}
+			}
+		}
+		ps.setInt(index++, after.getId());
+		return index;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.revature.model;
+
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+
+/**
+ * The ChefSummary class is the compact form of a Chef that recipes are read with: only the id and username of the author, which is all a recipe response shows of it. Recipe reads never select the author's email, password or admin flag, and a ChefSummary is written to JSON as {@code {"id":..,"username":..}} only.
+ *
+ * The RecipeDAO shares one ChefSummary between all the recipes of a chef in a result set, so a summary must not be modified once read.
+ */
+@JsonIncludeProperties({ "id", "username" })
+public class ChefSummary extends Chef {
+
+    // constructors
+    public ChefSummary() {
+    }
+
+    public ChefSummary(int id, String username) {
+        super(id, username, null, null, false);
+    }
+
+    /**
+     * Returns the summary of a chef.
+     *
+     * @param chef the chef, or null
+     * @return a ChefSummary with the chef's id and username, or null if the chef is null
+     */
+    public static ChefSummary of(Chef chef) {
+        if (chef == null) {
+            return null;
+        }
+        return new ChefSummary(chef.getId(), chef.getUsername());
+    }
+}
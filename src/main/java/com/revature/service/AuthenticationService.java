@@ -1,15 +1,31 @@
 package com.revature.service;
-import java.util.HashMap;
-import java.util.Map;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 import com.revature.model.Chef;
+import com.revature.util.PasswordHasher;
+import com.revature.util.Pbkdf2PasswordHasher;
+import com.revature.util.SessionStore;
+import com.revature.util.SignedTokens;
 
 
 /**
  * The AuthenticationService class provides authentication functionality
  * for Chef objects. It manages the login, logout, and registration
  * processes, as well as session management for chefs. This service 
- * utilizes a ChefService to perform operations related to chefs and 
- * maintains a session map to track active sessions.
+ * utilizes a ChefService to perform operations related to chefs, 
+ * a SessionStore to track active sessions and a PasswordHasher to store 
+ * and check passwords. Hashing is deliberately slow, so the controller 
+ * calls the asynchronous variants, which run on a small bounded executor 
+ * instead of the request threads.
  */
 
 public class AuthenticationService {
@@ -21,21 +37,113 @@ public class AuthenticationService {
     @SuppressWarnings("unused")
     private ChefService chefService;
 
-    /** A map that keeps track of currently logged in users, indexed by session token. */
-    public static Map<String, Chef> loggedInUsers = new HashMap<>();
+    /** The sessions shared by every AuthenticationService constructed without a SessionStore of its own. */
+    private static final SessionStore SHARED_SESSIONS = new SessionStore(
+            Integer.getInteger("reva.sessions.maxSessions", 10000),
+            Long.getLong("reva.sessions.idleTimeoutMillis", 1800000),
+            Long.getLong("reva.sessions.absoluteTimeoutMillis", 43200000))
+            .startSweeper(Long.getLong("reva.sessions.sweepIntervalMillis", 60000));
+
+    /** The signed token issuer shared by every AuthenticationService constructed without one, or null unless reva.auth.tokens is "signed". */
+    private static final SignedTokens SHARED_SIGNED_TOKENS =
+            "signed".equalsIgnoreCase(System.getProperty("reva.auth.tokens")) ? SignedTokens.fromProperties() : null;
+
+    /** The password hashing engine shared by every AuthenticationService constructed without one. */
+    private static final PasswordHasher SHARED_HASHER = Pbkdf2PasswordHasher.fromProperties();
+
+    /** The executor shared by every AuthenticationService constructed without one: reva.auth.hashThreads threads and a queue of reva.auth.hashQueueSize logins, beyond which logins are rejected. */
+    private static final ExecutorService SHARED_HASHING_EXECUTOR = newHashingExecutor(
+            Integer.getInteger("reva.auth.hashThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            Integer.getInteger("reva.auth.hashQueueSize", 256));
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** The store that keeps track of currently logged in users, indexed by session token. */
+    private final SessionStore sessions;
+
+    /** The issuer of stateless signed tokens, or null to keep sessions in the session store. */
+    private final SignedTokens signedTokens;
+
+    /** The engine that hashes and verifies passwords. */
+    private final PasswordHasher passwordHasher;
+
+    /** The executor running logins and registrations, and with them the password hashing. */
+    private final ExecutorService hashingExecutor;
+
+    /** A hash of a random password with the current work factor, verified against when the username is unknown; made on first use. */
+    private volatile String dummyHash;
 
     /**
-     * Constructs an AuthenticationService with the specified ChefService and a newly created HashMap for the LoggedInUsers.
+     * Constructs an AuthenticationService with the specified ChefService, using the shared session store, or signed tokens if the reva.auth.tokens system property is "signed".
      *
      * @param chefService the ChefService to be used by this authentication service
      */
     public AuthenticationService(ChefService chefService) {
+        this(chefService, SHARED_SESSIONS, SHARED_SIGNED_TOKENS);
+    }
+
+    /**
+     * Constructs an AuthenticationService with the specified ChefService and SessionStore.
+     *
+     * @param chefService the ChefService to be used by this authentication service
+     * @param sessions the store that keeps track of logged in users
+     */
+    public AuthenticationService(ChefService chefService, SessionStore sessions) {
+        this(chefService, sessions, null);
+    }
+
+    /**
+     * Constructs an AuthenticationService that issues stateless signed tokens when signedTokens is not null. Such tokens are verified without any session lookup, so they are accepted by every node sharing the signing key.
+     *
+     * @param chefService the ChefService to be used by this authentication service
+     * @param sessions the store that keeps track of logged in users when signed tokens are not used
+     * @param signedTokens the issuer of signed tokens, or null to use the session store
+     */
+    public AuthenticationService(ChefService chefService, SessionStore sessions, SignedTokens signedTokens) {
+        this(chefService, sessions, signedTokens, SHARED_HASHER, SHARED_HASHING_EXECUTOR);
+    }
+
+    /**
+     * Constructs an AuthenticationService with every collaborator specified.
+     *
+     * @param chefService the ChefService to be used by this authentication service
+     * @param sessions the store that keeps track of logged in users when signed tokens are not used
+     * @param signedTokens the issuer of signed tokens, or null to use the session store
+     * @param passwordHasher the engine that hashes and verifies passwords
+     * @param hashingExecutor the executor running asynchronous logins and registrations
+     */
+    public AuthenticationService(ChefService chefService, SessionStore sessions, SignedTokens signedTokens,
+            PasswordHasher passwordHasher, ExecutorService hashingExecutor) {
         this.chefService = chefService;
-        loggedInUsers = new HashMap<>();
+        this.sessions = sessions;
+        this.signedTokens = signedTokens;
+        this.passwordHasher = passwordHasher;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    /**
+     * Creates a bounded executor for password hashing, with daemon threads and a bounded queue that rejects work once full.
+     *
+     * @param threads the number of hashing threads
+     * @param queueSize the number of tasks that may wait for a thread
+     * @return the executor
+     */
+    public static ExecutorService newHashingExecutor(int threads, int queueSize) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
     }
 
     /**
-     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the logged in users map.
+     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the session store, or a signed token is issued.
+     * 
+     * A password stored in plain text or hashed with an outdated work factor is rehashed with the current one.
+     * An unknown username is checked against a dummy hash, so that it takes as long as a wrong password and response times do not reveal which usernames exist.
+     * This method hashes on the calling thread; request handlers should use {@link #loginAsync(Chef)}.
      * 
      * @param chef the Chef object containing login credentials
      * @return a session token if the login is successful; null otherwise
@@ -45,58 +153,149 @@ public class AuthenticationService {
             return null;
         }
 
-        // naive auth: find chef by username from available list
-        // Since DAO is not directly available, rely on service search by term and exact match
-        var possibleMatches = chefService.searchChefs(chef.getUsername());
-        for (Chef existing : possibleMatches) {
-            if (existing.getUsername().equals(chef.getUsername()) && existing.getPassword().equals(chef.getPassword())) {
-                String token = existing.getUsername() + ":" + existing.getPassword();
-                loggedInUsers.put(token, existing);
-                return token;
-            }
+        Chef existing = chefService.findChefByUsername(chef.getUsername()).orElse(null);
+        if (existing == null) {
+            passwordHasher.verify(chef.getPassword(), dummyHash());
+            return null;
         }
-        return null; 
+        if (!passwordHasher.verify(chef.getPassword(), existing.getPassword())) {
+            return null;
+        }
+        if (passwordHasher.needsRehash(existing.getPassword())) {
+            // the found chef may be cached and shared, so the new hash is saved on a copy
+            existing = new Chef(existing.getId(), existing.getUsername(), existing.getEmail(),
+                    passwordHasher.hash(chef.getPassword()), existing.isAdmin());
+            chefService.saveChef(existing);
+        }
+        if (signedTokens != null) {
+            return signedTokens.issue(existing);
+        }
+        byte[] tokenBytes = new byte[32];
+        RANDOM.nextBytes(tokenBytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+        sessions.put(token, existing);
+        return token;
     }
 
     /**
-     * TODO: Logs out a chef by removing their session token from the LoggedInUsers map.
+     * Returns the hash verified against for unknown usernames, making it on first use.
+     */
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            byte[] password = new byte[16];
+            RANDOM.nextBytes(password);
+            hash = passwordHasher.hash(Base64.getEncoder().encodeToString(password));
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Runs {@link #login(Chef)} on the hashing executor.
+     *
+     * @param chef the Chef object containing login credentials
+     * @return a future completed with the session token, or with null if the credentials are wrong; it fails with a RejectedExecutionException if too many logins are already waiting
+     */
+    public CompletableFuture<String> loginAsync(Chef chef) {
+        return supplyOnHashingExecutor(() -> login(chef));
+    }
+
+    /**
+     * TODO: Logs out a chef by removing their session token from the session store, or by revoking their signed token.
      *
      * @param token the session token of the chef to be logged out
      */
 
     public void logout(String token) {
-        if (token != null) {
-            loggedInUsers.remove(token);
+        if (signedTokens != null) {
+            signedTokens.revoke(token);
+        } else {
+            sessions.remove(token);
         }
     }
 
     /**
 	 * TODO: Registers a new chef by saving the chef's information using ChefService.
+	 * The password is hashed before it is stored.
 	 *
 	 * @param chef the chef object containing registration details
-	 * @return the registered chef object
+	 * @return the registered chef object; null if the username or email is already taken
 	 */
     public Chef registerChef(Chef chef) {
-        if (chef == null || chef.getUsername() == null) {
-            return null;
-        }
-        // Check if username exists
-        var existing = chefService.searchChefs(chef.getUsername());
-        boolean usernameTaken = existing.stream().anyMatch(c -> c.getUsername().equals(chef.getUsername()));
-        if (usernameTaken) {
+        if (chef == null || chef.getUsername() == null || chef.getPassword() == null) {
             return null;
         }
+        chef.setPassword(passwordHasher.hash(chef.getPassword()));
+        // a single INSERT: the UNIQUE constraints reject duplicates, even between concurrent registrations
+        chef.setId(0);
         chefService.saveChef(chef);
-        return chef;
+        return chef.getId() == 0 ? null : chef;
+    }
+
+    /**
+     * Runs {@link #registerChef(Chef)} on the hashing executor.
+     *
+     * @param chef the chef object containing registration details
+     * @return a future completed with the registered chef, or with null if the username or email is already taken; it fails with a RejectedExecutionException if too many requests are already waiting
+     */
+    public CompletableFuture<Chef> registerChefAsync(Chef chef) {
+        return supplyOnHashingExecutor(() -> registerChef(chef));
+    }
+
+    private <T> CompletableFuture<T> supplyOnHashingExecutor(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, hashingExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     /**
      * TODO: Retrieves a Chef object from the session token.
      *
      * @param token the session token used to retrieve the chef
-     * @return the Chef object associated with the session token; null if not found
+     * @return the Chef object associated with the session token; null if not found or expired
      */
     public Chef getChefFromSessionToken(String token) {
-        return loggedInUsers.get(token);
+        if (signedTokens != null) {
+            return signedTokens.verify(token);
+        }
+        return sessions.get(token);
+    }
+
+    /**
+     * Tells whether a session belongs to an admin. The admin flag is the one read at login, kept in the session or signed into the token, so the check needs no database access.
+     *
+     * @param token the session token
+     * @return true if the session exists and its chef is an admin; false otherwise
+     */
+    public boolean isAdmin(String token) {
+        Chef chef = getChefFromSessionToken(token);
+        return chef != null && chef.isAdmin();
+    }
+
+    /**
+     * Extracts the session token from an Authorization header. The "Bearer" scheme is optional and matched case-insensitively, and the whitespace after it may be missing.
+     *
+     * @param authorizationHeader the value of the Authorization header, or null
+     * @return the session token, or null if the header is missing or holds no token
+     */
+    public static String tokenFromHeader(String authorizationHeader) {
+        if (authorizationHeader == null) {
+            return null;
+        }
+        String token = authorizationHeader.strip();
+        if (token.regionMatches(true, 0, "Bearer", 0, "Bearer".length())) {
+            token = token.substring("Bearer".length()).strip();
+        }
+        return token.isEmpty() ? null : token;
+    }
+
+    /**
+     * @return the store that keeps track of logged in users
+     */
+    public SessionStore getSessions() {
+        return sessions;
     }
 }
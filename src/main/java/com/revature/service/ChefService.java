@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import com.revature.model.Chef;
 import com.revature.dao.ChefDAO;
+import com.revature.util.LruCache;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -21,6 +22,9 @@ public class ChefService {
     @SuppressWarnings("unused")
     private ChefDAO chefDAO;
 
+    /** The cache of chefs by username, or null to read every chef from the database. */
+    private LruCache<String, Chef> usernameCache;
+
     /**
      * Constructs a ChefService with the specified ChefDAO.
      *
@@ -32,6 +36,36 @@ public class ChefService {
         this.chefDAO = chefDAO;
     }
 
+    /**
+     * Constructs a ChefService that serves username lookups from a cache. The cache must be stamped with the version of the CHEF table, so that any chef write invalidates it.
+     *
+     * @param chefDAO the ChefDao to be used by this service for data access
+     * @param usernameCache the cache of chefs by username
+     */
+    public ChefService(ChefDAO chefDAO, LruCache<String, Chef> usernameCache) {
+        this.chefDAO = chefDAO;
+        this.usernameCache = usernameCache;
+    }
+
+    /**
+     * Finds a Chef by their exact username.
+     *
+     * When a cache is configured the returned Chef may be shared with other callers, so it must not be modified.
+     *
+     * @param username the username of the chef to be found, matched case-sensitively
+     * @return an Optional containing the found Chef if present;
+     *         an empty Optional if not found
+     */
+    public Optional<Chef> findChefByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        if (usernameCache != null) {
+            return Optional.ofNullable(usernameCache.get(username, chefDAO::getChefByUsername));
+        }
+        return Optional.ofNullable(chefDAO.getChefByUsername(username));
+    }
+
     /**
      * TODO: Finds a Chef by their unique identifier.
      *
@@ -45,6 +79,7 @@ public class ChefService {
 
     /**
      * TODO: Saves a Chef entity. If the Chef's ID is zero, a new Chef is created and the `chef` parameter's ID is updated.
+	* The ID stays zero if the username or email is already taken.
 	* 
      * Otherwise, updates the existing Chef.
      *
@@ -1,9 +1,15 @@
 package com.revature.service;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.revature.dao.IngredientDAO;
 import com.revature.model.Ingredient;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
+import com.revature.util.IngredientDictionary;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -19,9 +25,11 @@ import com.revature.util.PageOptions;
 public class IngredientService {
 
     /** The data access object used for performing operations on Ingredient entities. */
-    @SuppressWarnings("unused")
     private IngredientDAO ingredientDAO;
 
+    /** The in-memory copy of the INGREDIENT table serving every read, or null to query the database. */
+    private IngredientDictionary ingredientDictionary;
+
     /**
      * Constructs an IngredientService with the specified IngredientDao.
      *
@@ -34,6 +42,17 @@ public class IngredientService {
        this.ingredientDAO = ingredientDAO;
     }
 
+    /**
+     * Constructs an IngredientService that answers every read from an in-memory copy of the INGREDIENT table, which its writes keep up to date.
+     *
+     * @param ingredientDAO the IngredientDao to be used by this service for data access
+     * @param ingredientDictionary the in-memory copy of the INGREDIENT table
+     */
+    public IngredientService(IngredientDAO ingredientDAO, IngredientDictionary ingredientDictionary) {
+        this.ingredientDAO = ingredientDAO;
+        this.ingredientDictionary = ingredientDictionary;
+    }
+
     /**
      * TODO: Finds an Ingredient by its unique identifier.
      *
@@ -41,9 +60,35 @@ public class IngredientService {
      * @return an Optional containing the Ingredient if found, or an empty Optional if not found
      */
     public Optional<Ingredient> findIngredient(int id) {
+        if (ingredientDictionary != null) {
+            return Optional.ofNullable(ingredientDictionary.find(id));
+        }
         return Optional.ofNullable(ingredientDAO.getIngredientById(id));
     }
 
+    /**
+     * Finds several Ingredients by their unique identifiers with a single query.
+     *
+     * @param ids the unique identifiers of the Ingredients
+     * @return the Ingredients found, in the order of the ids; ids with no Ingredient are skipped
+     */
+    public List<Ingredient> findIngredients(int[] ids) {
+        Map<Integer, Ingredient> byId = new HashMap<>();
+        if (ingredientDictionary == null) {
+            for (Ingredient ingredient : ingredientDAO.getIngredientsByIds(ids)) {
+                byId.put(ingredient.getId(), ingredient);
+            }
+        }
+        List<Ingredient> ingredients = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Ingredient ingredient = ingredientDictionary != null ? ingredientDictionary.find(id) : byId.get(id);
+            if (ingredient != null) {
+                ingredients.add(ingredient);
+            }
+        }
+        return ingredients;
+    }
+
     /**
      * TODO: Searches for Ingredients based on a search term with pagination and sorting options.
      *
@@ -56,12 +101,34 @@ public class IngredientService {
      */
     public Page<Ingredient> searchIngredients(String term, int page, int pageSize, String sortBy, String sortDirection) {
         PageOptions options = new PageOptions(page, pageSize, sortBy, sortDirection);
+        if (ingredientDictionary != null) {
+            return ingredientDictionary.search(term, options);
+        }
         if (term == null) {
             return ingredientDAO.getAllIngredients(options);
         }
         return ingredientDAO.searchIngredients(term, options);
     }
 
+    /**
+     * Searches for ingredients with keyset pagination, returning the page that follows a cursor.
+     *
+     * @param term the search term used to filter ingredients, or null for all ingredients
+     * @param after the cursor token returned with the previous page, or null/empty for the first page
+     * @param pageSize the number of ingredients per page
+     * @param sortBy the field by which to sort the results, or null to use the cursor's
+     * @param sortDirection the direction of sorting, or null to use the cursor's
+     * @return a CursorPage containing the results and the cursor of the next page
+     */
+    public CursorPage<Ingredient> searchIngredientsAfter(String term, String after, int pageSize, String sortBy, String sortDirection) {
+        Cursor cursor = Cursor.decode(after);
+        PageOptions options = Cursor.resolveOptions(cursor, pageSize, sortBy, sortDirection);
+        if (ingredientDictionary != null) {
+            return ingredientDictionary.searchAfter(term, cursor, options);
+        }
+        return ingredientDAO.getIngredientsAfter(term, cursor, options);
+    }
+
     /**
      * TODO: Searches for Ingredients based on a search term.
      * If the term is null, retrieves all Ingredients.
@@ -70,6 +137,9 @@ public class IngredientService {
      * @return a list of Ingredient objects that match the search term
      */
     public List<Ingredient> searchIngredients(String term) {
+        if (ingredientDictionary != null) {
+            return ingredientDictionary.search(term);
+        }
         if (term == null) {
             return ingredientDAO.getAllIngredients();
         }
@@ -83,6 +153,13 @@ public class IngredientService {
      */
 
     public void deleteIngredient(int id) {
+        if (ingredientDictionary != null) {
+            Ingredient ingredient = ingredientDictionary.find(id);
+            if (ingredient != null) {
+                ingredientDictionary.remove(id, () -> ingredientDAO.deleteIngredient(ingredient));
+            }
+            return;
+        }
         Ingredient ingredient = ingredientDAO.getIngredientById(id);
         if (ingredient != null) {
             ingredientDAO.deleteIngredient(ingredient);
@@ -97,6 +174,19 @@ public class IngredientService {
      * @param ingredient the Ingredient entity to be saved or updated
      */
     public void saveIngredient(Ingredient ingredient) {
+        if (ingredientDictionary != null) {
+            ingredientDictionary.put(ingredient, () -> writeIngredient(ingredient));
+        } else {
+            writeIngredient(ingredient);
+        }
+    }
+
+    /**
+     * Creates the Ingredient if its ID is zero, setting the new ID, and updates it otherwise.
+     *
+     * @param ingredient the Ingredient entity to be saved or updated
+     */
+    private void writeIngredient(Ingredient ingredient) {
         if (ingredient.getId() == 0) {
             int newId = ingredientDAO.createIngredient(ingredient);
             ingredient.setId(newId);
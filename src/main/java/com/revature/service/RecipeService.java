@@ -1,12 +1,24 @@
 package com.revature.service;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import com.revature.dao.RecipeDAO;
 import com.revature.model.Recipe;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
+import com.revature.util.FieldSelection;
+import com.revature.util.IngredientIndex;
+import com.revature.util.LruCache;
+import com.revature.util.NegativeCache;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.QueryCache;
+import com.revature.util.SingleFlight;
 
 /**
  * The RecipeService class provides services related to Recipe objects,
@@ -20,6 +32,21 @@ public class RecipeService {
     /** The data access object used for performing operations on Recipe entities. */
     private RecipeDAO recipeDAO;
 
+    /** The inverted index answering ingredient searches, or null to search the database instead. */
+    private IngredientIndex ingredientIndex;
+
+    /** The cache of recipes by id, or null to read every recipe from the database. */
+    private LruCache<Integer, Recipe> recipeCache;
+
+    /** Coalesces concurrent identical reads, or null to run every read. */
+    private SingleFlight flights;
+
+    /** The cache of search results, or null to run every search. */
+    private QueryCache searchCache;
+
+    /** The recently looked up ids that have no recipe, or null to query every id. */
+    private NegativeCache<Integer> missingRecipes;
+
     /**
      * Constructs a RecipeService with the specified RecipeDao.
      *
@@ -28,18 +55,74 @@ public class RecipeService {
      * @param recipeDao the RecipeDao to be used by this service for data access
      */
     public RecipeService(RecipeDAO recipeDAO) {
+        this(recipeDAO, new Options());
+    }
+
+    /**
+     * Constructs a RecipeService that serves reads through the indexes and caches set in the options.
+     *
+     * @param recipeDAO the RecipeDao to be used by this service for data access
+     * @param options the optional indexes and caches; the ones left unset are not used
+     */
+    public RecipeService(RecipeDAO recipeDAO, Options options) {
         this.recipeDAO = recipeDAO;
+        this.ingredientIndex = options.ingredientIndex;
+        this.recipeCache = options.recipeCache;
+        this.flights = options.flights;
+        this.searchCache = options.searchCache;
+        this.missingRecipes = options.missingRecipes;
     }
 
     /**
      * TODO: Finds a Recipe by its unique identifier.
      *
      * @param id the unique identifier of the recipe to be found
+     * When a cache is configured the returned Recipe may be shared with other callers, so it must not be modified.
+     *
      * @return an Optional containing the found Recipe if present;
      *         an empty Optional if not found
      */
     public Optional<Recipe> findRecipe(int id) {
-        return Optional.ofNullable(recipeDAO.getRecipeById(id));
+        if (recipeCache != null) {
+            return Optional.ofNullable(recipeCache.get(id, this::loadRecipe));
+        }
+        return Optional.ofNullable(loadRecipe(id));
+    }
+
+    /**
+     * Finds several Recipes by their unique identifiers. When a cache is configured the cached recipes are used and
+     * only the misses are read, all with a single query; otherwise every recipe is read with that one query.
+     *
+     * @param ids the unique identifiers of the recipes
+     * @return the Recipes found, in the order of the ids; ids with no recipe are skipped
+     */
+    public List<Recipe> findRecipes(int[] ids) {
+        Map<Integer, Recipe> byId;
+        if (recipeCache != null) {
+            byId = recipeCache.getAll(Arrays.stream(ids).boxed().toList(),
+                    missing -> byId(recipeDAO.getRecipesByIds(missing.stream().mapToInt(Integer::intValue).toArray())));
+        } else {
+            byId = byId(recipeDAO.getRecipesByIds(ids));
+        }
+        return Arrays.stream(ids).mapToObj(byId::get).filter(recipe -> recipe != null).toList();
+    }
+
+    /**
+     * Finds a Recipe by its unique identifier, reading only the selected properties from the database.
+     * When a cache is configured the cached Recipe is narrowed to the selected properties instead, since that costs no query at all.
+     *
+     * @param id the unique identifier of the recipe to be found
+     * @param fields the recipe properties the caller needs
+     * @return an Optional containing the found Recipe, with the unselected properties left empty, if present; an empty Optional if not found
+     */
+    public Optional<Recipe> findRecipe(int id, FieldSelection fields) {
+        if (recipeCache != null || fields.isAll()) {
+            return findRecipe(id).map(fields::narrow);
+        }
+        if (missingRecipes != null) {
+            return Optional.ofNullable(missingRecipes.find(id, key -> recipeDAO.getRecipeById(key, fields)));
+        }
+        return Optional.ofNullable(recipeDAO.getRecipeById(id, fields));
     }
 
     /**
@@ -53,8 +136,14 @@ public class RecipeService {
         if (recipe.getId() == 0) {
             int newId = recipeDAO.createRecipe(recipe);
             recipe.setId(newId);
+            if (missingRecipes != null) {
+                missingRecipes.forget(newId);
+            }
         } else {
             recipeDAO.updateRecipe(recipe);
+            if (recipeCache != null) {
+                recipeCache.invalidate(recipe.getId());
+            }
         }
     }
 
@@ -70,10 +159,70 @@ public class RecipeService {
      */
     public Page<Recipe> searchRecipes(String term, int page, int pageSize, String sortBy, String sortDirection) {
         PageOptions options = new PageOptions(page, pageSize, sortBy, sortDirection);
-        if (term == null) {
-            return recipeDAO.getAllRecipes(options);
-        }
-        return recipeDAO.searchRecipesByTerm(term, options);
+        return search(QueryCache.key("searchRecipes", term, options), () -> {
+            if (term == null) {
+                return recipeDAO.getAllRecipes(options);
+            }
+            return recipeDAO.searchRecipesByTerm(term, options);
+        });
+    }
+
+    /**
+     * Searches for recipes with pagination and sorting options, reading only the selected properties.
+     *
+     * @param term          the search term used to find recipes
+     * @param page          the page number to retrieve
+     * @param pageSize      the number of recipes per page
+     * @param sortBy        the field by which to sort the results
+     * @param sortDirection the direction of sorting (ascending or descending)
+     * @param fields        the recipe properties to read
+     * @return a Page containing the results of the search
+     */
+    public Page<Recipe> searchRecipes(String term, int page, int pageSize, String sortBy, String sortDirection,
+            FieldSelection fields) {
+        PageOptions options = new PageOptions(page, pageSize, sortBy, sortDirection);
+        return search(QueryCache.key("searchRecipes", term, options, fields), () -> {
+            if (term == null) {
+                return recipeDAO.getAllRecipes(options, fields);
+            }
+            return recipeDAO.searchRecipesByTerm(term, options, fields);
+        });
+    }
+
+    /**
+     * Searches for recipes with keyset pagination, returning the page that follows a cursor.
+     *
+     * @param term          the search term used to find recipes, or null for all recipes
+     * @param after         the cursor token returned with the previous page, or null/empty for the first page
+     * @param pageSize      the number of recipes per page
+     * @param sortBy        the field by which to sort the results, or null to use the cursor's
+     * @param sortDirection the direction of sorting, or null to use the cursor's
+     * @return a CursorPage containing the results and the cursor of the next page
+     */
+    public CursorPage<Recipe> searchRecipesAfter(String term, String after, int pageSize, String sortBy, String sortDirection) {
+        Cursor cursor = Cursor.decode(after);
+        PageOptions options = Cursor.resolveOptions(cursor, pageSize, sortBy, sortDirection);
+        return search(QueryCache.key("searchRecipesAfter", term, after, options, FieldSelection.ALL),
+                () -> recipeDAO.getRecipesAfter(term, cursor, options));
+    }
+
+    /**
+     * Searches for recipes with keyset pagination, reading only the selected properties.
+     *
+     * @param term          the search term used to find recipes, or null for all recipes
+     * @param after         the cursor token returned with the previous page, or null/empty for the first page
+     * @param pageSize      the number of recipes per page
+     * @param sortBy        the field by which to sort the results, or null to use the cursor's
+     * @param sortDirection the direction of sorting, or null to use the cursor's
+     * @param fields        the recipe properties to read
+     * @return a CursorPage containing the results and the cursor of the next page
+     */
+    public CursorPage<Recipe> searchRecipesAfter(String term, String after, int pageSize, String sortBy, String sortDirection,
+            FieldSelection fields) {
+        Cursor cursor = Cursor.decode(after);
+        PageOptions options = Cursor.resolveOptions(cursor, pageSize, sortBy, sortDirection);
+        return search(QueryCache.key("searchRecipesAfter", term, after, options, fields),
+                () -> recipeDAO.getRecipesAfter(term, cursor, options, fields));
     }
 
     /**
@@ -83,10 +232,61 @@ public class RecipeService {
      * @return a list of Recipe objects that match the search term
      */
     public List<Recipe> searchRecipes(String term) {
-        if (term == null) {
-            return recipeDAO.getAllRecipes();
+        return search(QueryCache.key("searchRecipes", term), () -> {
+            if (term == null) {
+                return recipeDAO.getAllRecipes();
+            }
+            return recipeDAO.searchRecipesByTerm(term);
+        });
+    }
+
+    /**
+     * Searches for recipes based on a search term, reading only the selected properties.
+     *
+     * @param term the search term used to find recipes
+     * @param fields the recipe properties to read
+     * @return a list of Recipe objects that match the search term
+     */
+    public List<Recipe> searchRecipes(String term, FieldSelection fields) {
+        return search(QueryCache.key("searchRecipes", term, fields), () -> {
+            if (term == null) {
+                return recipeDAO.getAllRecipes(fields);
+            }
+            return recipeDAO.searchRecipesByTerm(term, fields);
+        });
+    }
+
+    /**
+     * Finds the recipes made with the given ingredients, optionally narrowed down by a search term in the name.
+     * The candidate recipes come from the ingredient index when one is configured, and from the database otherwise.
+     *
+     * @param ingredientNames the ingredient names, matched case-insensitively
+     * @param matchAll true to require every ingredient, false to accept any of them
+     * @param term the search term the recipe name must contain, or null
+     * @return a list of matching Recipe objects, ordered by id
+     */
+    public List<Recipe> searchRecipesByIngredients(List<String> ingredientNames, boolean matchAll, String term) {
+        return searchRecipesByIngredients(ingredientNames, matchAll, term, FieldSelection.ALL);
+    }
+
+    /**
+     * Finds the recipes made with the given ingredients, optionally narrowed down by a search term in the name,
+     * reading only the selected properties. The term is matched by the database like in {@link #searchRecipes(String)}.
+     *
+     * @param ingredientNames the ingredient names, matched case-insensitively
+     * @param matchAll true to require every ingredient, false to accept any of them
+     * @param term the search term the recipe name must contain, or null
+     * @param fields the recipe properties to read
+     * @return a list of matching Recipe objects, ordered by id
+     */
+    public List<Recipe> searchRecipesByIngredients(List<String> ingredientNames, boolean matchAll, String term,
+            FieldSelection fields) {
+        if (ingredientIndex != null) {
+            int[] ids = matchAll ? ingredientIndex.recipesWithAll(ingredientNames)
+                    : ingredientIndex.recipesWithAny(ingredientNames);
+            return recipeDAO.getRecipesByIds(ids, term, fields);
         }
-        return recipeDAO.searchRecipesByTerm(term);
+        return recipeDAO.searchRecipesByIngredients(ingredientNames, matchAll, term, fields);
     }
 
     /**
@@ -95,9 +295,148 @@ public class RecipeService {
      * @param id the unique identifier of the recipe to be deleted
      */
     public void deleteRecipe(int id) {
-        Recipe recipe = recipeDAO.getRecipeById(id);
+        Recipe recipe = findRecipe(id).orElse(null);
         if (recipe != null) {
             recipeDAO.deleteRecipe(recipe);
+            if (recipeCache != null) {
+                recipeCache.invalidate(id);
+            }
+        }
+    }
+
+    /**
+     * Indexes recipes by their id.
+     *
+     * @param recipes the recipes
+     * @return the recipes by id
+     */
+    private static Map<Integer, Recipe> byId(List<Recipe> recipes) {
+        Map<Integer, Recipe> byId = new HashMap<>();
+        for (Recipe recipe : recipes) {
+            byId.put(recipe.getId(), recipe);
+        }
+        return byId;
+    }
+
+    /**
+     * Reads a recipe from the database, sharing the query with concurrent reads of the same recipe, unless the id is known to have no recipe.
+     *
+     * @param id the unique identifier of the recipe
+     * @return the recipe, or null if there is none
+     */
+    private Recipe loadRecipe(int id) {
+        if (missingRecipes != null) {
+            return missingRecipes.find(id, this::queryRecipe);
+        }
+        return queryRecipe(id);
+    }
+
+    /**
+     * Reads a recipe from the database, sharing the query with concurrent reads of the same recipe.
+     *
+     * @param id the unique identifier of the recipe
+     * @return the recipe, or null if there is none
+     */
+    private Recipe queryRecipe(int id) {
+        return coalesce(Arrays.asList("findRecipe", id), () -> recipeDAO.getRecipeById(id));
+    }
+
+    /**
+     * Runs a search, answering it from the cache when one is configured and coalescing it with concurrent runs of the same search on a miss.
+     *
+     * @param <T> the result type
+     * @param key the search and its arguments
+     * @param search runs the search
+     * @return the result of the search
+     */
+    private <T> T search(List<Object> key, Supplier<T> search) {
+        Supplier<T> coalesced = () -> coalesce(key, search);
+        return searchCache != null ? searchCache.get(key, coalesced) : coalesced.get();
+    }
+
+    /**
+     * Runs a read, or joins a concurrent run of the same read when reads are coalesced.
+     *
+     * @param <T> the result type
+     * @param key the read and its arguments
+     * @param read runs the read
+     * @return the result of the read
+     */
+    private <T> T coalesce(List<Object> key, Supplier<T> read) {
+        return flights != null ? flights.execute(key, read) : read.get();
+    }
+    /**
+     * The optional collaborators of a RecipeService. Each one left unset makes the service fall back to querying the database for the reads it would serve.
+     */
+    public static class Options {
+
+        private IngredientIndex ingredientIndex;
+        private LruCache<Integer, Recipe> recipeCache;
+        private SingleFlight flights;
+        private QueryCache searchCache;
+        private NegativeCache<Integer> missingRecipes;
+
+        /**
+         * Answers ingredient searches from an inverted index.
+         *
+         * @param ingredientIndex the index of recipes by ingredient
+         * @return these options
+         */
+        public Options ingredientIndex(IngredientIndex ingredientIndex) {
+            this.ingredientIndex = ingredientIndex;
+            return this;
+        }
+
+        /**
+         * Serves recipes by id from a cache.
+         *
+         * The cache must be stamped with the versions of the CHEF and INGREDIENT tables, since cached recipes include their author and ingredient names; writes to the recipes themselves are invalidated by the service.
+         *
+         * @param recipeCache the cache of recipes by id
+         * @return these options
+         */
+        public Options recipeCache(LruCache<Integer, Recipe> recipeCache) {
+            this.recipeCache = recipeCache;
+            return this;
+        }
+
+        /**
+         * Coalesces concurrent identical reads, so that a burst of requests for the same recipe or search runs one query.
+         *
+         * The SingleFlight must be stamped with the versions of every table a recipe is read from, so that a read starting after a write is never answered by a query that started before it.
+         *
+         * @param flights the coalescing of concurrent reads
+         * @return these options
+         */
+        public Options flights(SingleFlight flights) {
+            this.flights = flights;
+            return this;
+        }
+
+        /**
+         * Answers repeated term searches from a cache.
+         *
+         * The search cache must be stamped with the versions of every table a recipe is read from, as the SingleFlight is.
+         *
+         * @param searchCache the cache of search results
+         * @return these options
+         */
+        public Options searchCache(QueryCache searchCache) {
+            this.searchCache = searchCache;
+            return this;
+        }
+
+        /**
+         * Answers lookups of recently missing ids without a query.
+         *
+         * Recipes created through the service are forgotten by the negative cache, so they are never reported missing; a recipe created elsewhere may be until its entry expires.
+         *
+         * @param missingRecipes the cache of ids that have no recipe
+         * @return these options
+         */
+        public Options missingRecipes(NegativeCache<Integer> missingRecipes) {
+            this.missingRecipes = missingRecipes;
+            return this;
         }
     }
 }
@@ -1,10 +1,9 @@
 package com.revature.util;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
 
-import com.revature.dao.ChefDAO;
-import com.revature.model.Chef;
 import com.revature.service.AuthenticationService;
-import com.revature.service.ChefService;
 
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
@@ -13,37 +12,51 @@ import io.javalin.http.UnauthorizedResponse;
  * The AdminMiddleware class is responsible for enforcing access control 
  * within the application by protecting specific routes from non-admin users. 
  * 
- * This class utilizes a list of protected methods to determine which HTTP 
- * methods require admin access and leverages the ChefService to validate 
- * user permissions. The middleware intercepts requests and ensures that 
- * only users with admin privileges can access protected resources.
+ * This class utilizes a set of protected methods to determine which HTTP 
+ * methods require admin access and resolves the caller's own session token 
+ * from the Authorization header to validate user permissions. The middleware 
+ * intercepts requests and ensures that only users with admin privileges can 
+ * access protected resources.
  */
 
 public class AdminMiddleware implements Handler {
 
     /**
-     * An array of protected HTTP methods that require admin access.
+     * The protected HTTP methods that require admin access, in upper case.
      */
 
-    private String[] protectedMethods;
+    private final Set<String> protectedMethods = new HashSet<>();
 
     /**
      * The AuthenticationService instance used for handling authentication-related operations and validation.
      */
-    @SuppressWarnings("unused")
     private AuthenticationService authService;
     
 
     /**
-     * Constructs an AdminMiddleware instance with the specified AuthenticationService and an array of protected methods.
+     * Constructs an AdminMiddleware instance that checks sessions in the shared session store, with an array of protected methods.
      *
-     * @param AuthenticationService - the AuthenticationService instance for handling authentication operations
      * @param protectedMethods - the array of protected HTTP methods
      */
 
     public AdminMiddleware(String... protectedMethods) {
-        this.protectedMethods = protectedMethods;
-        this.authService = new AuthenticationService(new ChefService(new ChefDAO(new ConnectionUtil())));
+        this(new AuthenticationService(null), protectedMethods);
+    }
+
+    /**
+     * Constructs an AdminMiddleware instance with the specified AuthenticationService and an array of protected methods.
+     *
+     * @param authService - the AuthenticationService instance that logs chefs in and resolves their sessions
+     * @param protectedMethods - the array of protected HTTP methods
+     */
+
+    public AdminMiddleware(AuthenticationService authService, String... protectedMethods) {
+        this.authService = authService;
+        if (protectedMethods != null) {
+            for (String protectedMethod : protectedMethods) {
+                this.protectedMethods.add(protectedMethod.toUpperCase(Locale.ROOT));
+            }
+        }
     }
 
     /**
@@ -54,14 +67,11 @@ public class AdminMiddleware implements Handler {
     @Override
     public void handle(Context ctx) {
         if (isProtectedMethod(ctx.method().name())) {
-            // Get the token of the current logged in user
-            String token = AuthenticationService.loggedInUsers.keySet().stream().collect(Collectors.joining());
+            // Get the token of the chef making this request
+            String token = AuthenticationService.tokenFromHeader(ctx.header("Authorization"));
 
-            // Check the corresponding chef and check if they are admin
-            boolean isAdmin = isAdmin(authService.getChefFromSessionToken(token));
-            
             // If they are not admin, throw an exception
-            if (!isAdmin) {
+            if (!authService.isAdmin(token)) {
                 throw new UnauthorizedResponse("Access denied");
             } 
         }
@@ -74,25 +84,7 @@ public class AdminMiddleware implements Handler {
      * @return true if the method is protected; false otherwise.
      */
     private boolean isProtectedMethod(String method) {
-        for (String protectedMethod : protectedMethods) {
-            if (protectedMethod.toString().equalsIgnoreCase(method)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Determines if the chef with the specified ID has admin privileges.
-     *
-     * @param chefId the unique identifier of the chef.
-     * @return true if the chef is an admin; false otherwise.
-     */
-    private boolean isAdmin(Chef chef) {
-        if (chef != null) {
-            return chef.isAdmin();
-        }
-        return false;
+        return protectedMethods.contains(method.toUpperCase(Locale.ROOT));
     }
 }
 
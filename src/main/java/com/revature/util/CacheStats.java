@@ -0,0 +1,92 @@
+package com.revature.util;
+
+/**
+ * The CacheStats class is an immutable snapshot of an LruCache's counters. The size describes the cache at the moment the snapshot was taken; the remaining values are cumulative since the cache was created.
+ */
+public class CacheStats {
+
+    /** The number of values currently cached. */
+    private final int size;
+    /** The maximum number of values the cache may hold. */
+    private final int maxSize;
+    /** The number of lookups served from the cache. */
+    private final long hits;
+    /** The number of lookups that had to call the loader. */
+    private final long misses;
+    /** The number of values evicted to make room for newer ones. */
+    private final long evictions;
+    /** The number of values dropped because they outlived the time-to-live. */
+    private final long expirations;
+    /** The estimated memory taken by the cached values, in bytes; 0 if the cache does not weigh its values. */
+    private final long estimatedBytes;
+
+    public CacheStats(int size, int maxSize, long hits, long misses, long evictions, long expirations) {
+        this(size, maxSize, hits, misses, evictions, expirations, 0);
+    }
+
+    public CacheStats(int size, int maxSize, long hits, long misses, long evictions, long expirations,
+            long estimatedBytes) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    // getters
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the share of lookups served from the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if nothing was looked up yet
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : hits / (double) lookups;
+    }
+
+    /**
+     * Returns a string representation of the CacheStats object.
+     *
+     * @return a string representation of the cache counters
+     */
+    @Override
+    public String toString() {
+        return "CacheStats{size=" + size + "/" + maxSize +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", hitRate=" + getHitRate() +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                ", estimatedBytes=" + estimatedBytes + '}';
+    }
+}
@@ -0,0 +1,69 @@
+package com.revature.util;
+
+/**
+ * The CompressionStats class is an immutable snapshot of a ResponseCompression's counters, cumulative since it was created.
+ */
+public class CompressionStats {
+
+    /** The number of responses sent gzipped, compressed on the fly or served pre-compressed. */
+    private final long compressedResponses;
+    /** The number of those responses served from pre-compressed bytes. */
+    private final long precompressedResponses;
+    /** The total size of the gzipped responses before compression, in bytes. */
+    private final long bytesIn;
+    /** The total size of the gzipped responses as sent, in bytes. */
+    private final long bytesOut;
+    /** The time spent compressing, in nanoseconds. */
+    private final long compressionNanos;
+
+    public CompressionStats(long compressedResponses, long precompressedResponses, long bytesIn, long bytesOut,
+            long compressionNanos) {
+        this.compressedResponses = compressedResponses;
+        this.precompressedResponses = precompressedResponses;
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.compressionNanos = compressionNanos;
+    }
+
+    // getters
+    public long getCompressedResponses() {
+        return compressedResponses;
+    }
+
+    public long getPrecompressedResponses() {
+        return precompressedResponses;
+    }
+
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    public long getCompressionNanos() {
+        return compressionNanos;
+    }
+
+    /**
+     * @return the number of bytes compression kept off the network
+     */
+    public long getBytesSaved() {
+        return bytesIn - bytesOut;
+    }
+
+    /**
+     * Returns a string representation of the CompressionStats object.
+     *
+     * @return a string representation of the compression counters
+     */
+    @Override
+    public String toString() {
+        return "CompressionStats{compressedResponses=" + compressedResponses +
+                ", precompressedResponses=" + precompressedResponses +
+                ", bytesIn=" + bytesIn +
+                ", bytesOut=" + bytesOut +
+                ", compressionNanos=" + compressionNanos + '}';
+    }
+}
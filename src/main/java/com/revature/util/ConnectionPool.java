@@ -0,0 +1,367 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.PooledConnection;
+
+/**
+ * The ConnectionPool class keeps a bounded set of physical database connections open and lends them out to callers. Connections handed out by {@link #getConnection()} are logical handles: closing them returns the underlying physical connection to the pool instead of closing it.
+ *
+ * The pool keeps at least {@code minIdle} connections warm, never opens more than {@code maxSize}, makes callers wait at most {@code acquireTimeoutMillis} for a free connection, closes connections that have been idle longer than {@code idleTimeoutMillis}, and validates a connection before lending it out if it has been idle for more than {@code validateAfterMillis}.
+ */
+public class ConnectionPool {
+
+    /** The source of physical connections. */
+    private final ConnectionPoolDataSource dataSource;
+    /** The number of idle connections the pool tries to keep open. */
+    private final int minIdle;
+    /** The maximum number of physical connections the pool may open. */
+    private final int maxSize;
+    /** How long a caller waits for a free connection before giving up, in milliseconds. */
+    private final long acquireTimeoutMillis;
+    /** How long a connection may sit idle before it is evicted, in milliseconds. */
+    private final long idleTimeoutMillis;
+    /** How long a connection may sit idle before it is validated on borrow, in milliseconds. */
+    private final long validateAfterMillis;
+
+    /** Guards the idle deque and the connection counters. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled whenever a connection is returned or a slot frees up. */
+    private final Condition available = lock.newCondition();
+    /** Idle connections, most recently returned first. */
+    private final Deque<Entry> idle = new ArrayDeque<>();
+    /** The number of physical connections currently open or being opened. */
+    private int total;
+    /** The number of callers currently waiting for a connection. */
+    private int waiting;
+
+    /** The number of successful acquisitions. */
+    private final AtomicLong acquired = new AtomicLong();
+    /** The total time spent acquiring connections, in nanoseconds. */
+    private final AtomicLong acquireNanos = new AtomicLong();
+    /** The longest single acquisition, in nanoseconds. */
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    /** The number of acquisitions that timed out. */
+    private final AtomicLong timeouts = new AtomicLong();
+    /** The number of physical connections opened. */
+    private final AtomicLong created = new AtomicLong();
+    /** The number of physical connections closed by eviction or failed validation. */
+    private final AtomicLong destroyed = new AtomicLong();
+
+    /** Runs idle eviction and keeps the pool topped up to {@code minIdle}. */
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Constructs a ConnectionPool and schedules its housekeeping task.
+     *
+     * @param dataSource the source of physical connections
+     * @param minIdle the number of idle connections to keep open
+     * @param maxSize the maximum number of open connections
+     * @param acquireTimeoutMillis how long callers wait for a connection
+     * @param idleTimeoutMillis how long a connection may stay idle before eviction
+     * @param validateAfterMillis how long a connection may stay idle before it is validated on borrow
+     */
+    public ConnectionPool(ConnectionPoolDataSource dataSource, int minIdle, int maxSize, long acquireTimeoutMillis,
+            long idleTimeoutMillis, long validateAfterMillis) {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool bounds: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.dataSource = dataSource;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validateAfterMillis = validateAfterMillis;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if the pool is below its maximum size and waiting for a returned one otherwise.
+     *
+     * @return a logical connection that returns itself to the pool when closed
+     * @throws SQLException if no connection became available within the acquire timeout, or a new connection could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        while (true) {
+            Entry entry = null;
+            boolean open = false;
+            lock.lock();
+            try {
+                while (idle.isEmpty() && total >= maxSize) {
+                    if (remaining <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new SQLException("Timed out after " + acquireTimeoutMillis
+                                + " ms waiting for a database connection (maxSize=" + maxSize + ")");
+                    }
+                    waiting++;
+                    try {
+                        remaining = available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+                if (!idle.isEmpty()) {
+                    entry = idle.pollFirst();
+                } else {
+                    total++;
+                    open = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (open) {
+                entry = openEntry();
+            }
+
+            Connection connection;
+            try {
+                connection = entry.pooled.getConnection();
+            } catch (SQLException e) {
+                discard(entry);
+                if (open) {
+                    throw e;
+                }
+                continue;
+            }
+            if (!open && !isUsable(entry, connection)) {
+                discard(entry);
+                continue;
+            }
+            recordAcquire(System.nanoTime() - start);
+            return connection;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's counters.
+     *
+     * @return the current pool statistics
+     */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            int idleCount = idle.size();
+            return new PoolStats(total - idleCount, idleCount, waiting, total, maxSize, acquired.get(),
+                    acquireNanos.get(), maxAcquireNanos.get(), timeouts.get(), created.get(), destroyed.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops housekeeping and closes every idle connection. Connections that are currently borrowed are closed when they are returned.
+     */
+    public void shutdown() {
+        housekeeper.shutdownNow();
+        Deque<Entry> toClose;
+        lock.lock();
+        try {
+            toClose = new ArrayDeque<>(idle);
+            total -= idle.size();
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(this::closeQuietly);
+    }
+
+    // below are helper methods
+
+    /**
+     * Opens a new physical connection for a slot that has already been reserved in {@code total}.
+     *
+     * @return the new pool entry
+     * @throws SQLException if the connection could not be opened
+     */
+    private Entry openEntry() throws SQLException {
+        try {
+            PooledConnection pooled = dataSource.getPooledConnection();
+            Entry entry = new Entry(pooled);
+            pooled.addConnectionEventListener(entry);
+            created.incrementAndGet();
+            return entry;
+        } catch (SQLException | RuntimeException e) {
+            releaseSlot();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether a connection taken from the idle deque can still be used, validating it if it has been idle for a while.
+     *
+     * @param entry the entry taken from the idle deque
+     * @param connection the logical handle just obtained from the entry
+     * @return true if the connection is usable; false otherwise
+     */
+    private boolean isUsable(Entry entry, Connection connection) {
+        if (System.currentTimeMillis() - entry.lastReturned < validateAfterMillis) {
+            return true;
+        }
+        try {
+            return connection.isValid((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(acquireTimeoutMillis)));
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Puts a connection back on the idle deque after its logical handle was closed.
+     *
+     * @param entry the returned entry
+     */
+    private void release(Entry entry) {
+        if (entry.discarded) {
+            return;
+        }
+        if (housekeeper.isShutdown()) {
+            discard(entry);
+            return;
+        }
+        entry.lastReturned = System.currentTimeMillis();
+        lock.lock();
+        try {
+            idle.addFirst(entry);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes a physical connection and frees its slot.
+     *
+     * @param entry the entry to close
+     */
+    private void discard(Entry entry) {
+        closeQuietly(entry);
+        releaseSlot();
+    }
+
+    /**
+     * Frees a connection slot and wakes up one waiting caller.
+     */
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes a physical connection, ignoring any error.
+     *
+     * @param entry the entry to close
+     */
+    private void closeQuietly(Entry entry) {
+        entry.discarded = true;
+        destroyed.incrementAndGet();
+        try {
+            entry.pooled.close();
+        } catch (SQLException | RuntimeException e) {
+            // the connection is being thrown away anyway
+        }
+    }
+
+    /**
+     * Updates the acquire-time counters.
+     *
+     * @param nanos the time the acquisition took
+     */
+    private void recordAcquire(long nanos) {
+        acquired.incrementAndGet();
+        acquireNanos.addAndGet(nanos);
+        maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Evicts connections that have been idle longer than the idle timeout, oldest first, and then opens connections until {@code minIdle} are idle again.
+     */
+    private void housekeep() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        Deque<Entry> evicted = new ArrayDeque<>();
+        lock.lock();
+        try {
+            while (idle.size() > minIdle && idle.peekLast().lastReturned < cutoff) {
+                evicted.add(idle.pollLast());
+                total--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::closeQuietly);
+
+        while (true) {
+            lock.lock();
+            try {
+                if (idle.size() >= minIdle || total >= maxSize) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                release(openEntry());
+            } catch (SQLException | RuntimeException e) {
+                // an exception escaping a scheduled task would cancel all later runs; retry on the next one
+                return;
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool, together with the time it was last returned.
+     */
+    private class Entry implements ConnectionEventListener {
+
+        /** The physical connection. */
+        private final PooledConnection pooled;
+        /** When the connection was last returned to the pool, in epoch milliseconds. */
+        private volatile long lastReturned = System.currentTimeMillis();
+        /** Set once the physical connection has been closed, so a late handle close does not return it to the pool. */
+        private volatile boolean discarded;
+
+        private Entry(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            release(this);
+        }
+
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            if (!discarded) {
+                discard(this);
+            }
+        }
+    }
+}
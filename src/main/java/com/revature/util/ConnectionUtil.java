@@ -5,7 +5,9 @@ import java.sql.SQLException;
 import org.h2.jdbcx.JdbcDataSource;
 
 /**
-This class provides autility methods and configuration for managing database connections for an H2 database. It uses a JdbcDataSource connection pool to manage connections efficiently.
+This class provides autility methods and configuration for managing database connections for an H2 database. Connections are lent out by a bounded ConnectionPool shared by every ConnectionUtil instance, so closing a connection returns it to the pool instead of tearing it down.
+
+The pool can be sized per node with the system properties `reva.db.pool.minIdle`, `reva.db.pool.maxSize`, `reva.db.pool.acquireTimeoutMillis`, `reva.db.pool.idleTimeoutMillis` and `reva.db.pool.validateAfterMillis`.
 
 You do not need to edit this class.
 
@@ -16,27 +18,40 @@ public class ConnectionUtil {
 	private static String url = "jdbc:h2:./h2/db;";
 	private static String username = "sa";
 	private static String password = "";
-	private static JdbcDataSource pool = new JdbcDataSource();
+	private static JdbcDataSource dataSource = new JdbcDataSource();
+	private static ConnectionPool pool;
 
 	/**
 	 * static initialization block to establish credentials for DataSoure Pool
 	 */
 	static {
-		pool.setURL(url);
-		pool.setUser(username);
-		pool.setPassword(password);
+		dataSource.setURL(url);
+		dataSource.setUser(username);
+		dataSource.setPassword(password);
+		pool = new ConnectionPool(dataSource,
+				Integer.getInteger("reva.db.pool.minIdle", 2),
+				Integer.getInteger("reva.db.pool.maxSize", 10),
+				Long.getLong("reva.db.pool.acquireTimeoutMillis", 5000),
+				Long.getLong("reva.db.pool.idleTimeoutMillis", 60000),
+				Long.getLong("reva.db.pool.validateAfterMillis", 5000));
 	}
 
 	/**
 	 * @return an active connection to the database
+	 * @throws DatabaseUnavailableException if no connection became available within the pool's acquire timeout, or one could not be opened
 	 */
 	public Connection getConnection() {
 		try {
 			return pool.getConnection();
 		} catch (SQLException e) {
-			e.printStackTrace();
+			throw new DatabaseUnavailableException("No database connection available", e);
 		}
+	}
 
-		return null;
+	/**
+	 * @return a snapshot of the connection pool counters (active, idle, waiting and acquire time)
+	 */
+	public static PoolStats getPoolStats() {
+		return pool.getStats();
 	}
 }
@@ -0,0 +1,64 @@
+package com.revature.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The CountCache class remembers row counts computed for paginated queries, so that fetching another page of the same query does not have to count the table again. Every count is stamped with the version of the table it was computed against (see {@link TableVersions}); a count is only returned while that version is still current.
+ *
+ * The cache holds at most {@code maxEntries} counts and is simply cleared when it fills up.
+ */
+public class CountCache {
+
+    /** The maximum number of counts kept. */
+    private final int maxEntries;
+    /** The cached counts, indexed by query key. */
+    private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a CountCache holding at most the given number of counts.
+     *
+     * @param maxEntries the maximum number of counts kept
+     */
+    public CountCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Looks up a count.
+     *
+     * @param key the query key, for example the search term
+     * @param version the current version of the table the count was taken from
+     * @return the cached count, or -1 if there is none for this version
+     */
+    public int get(String key, long version) {
+        Entry entry = counts.get(key);
+        return entry != null && entry.version == version ? entry.count : -1;
+    }
+
+    /**
+     * Stores a count.
+     *
+     * @param key the query key, for example the search term
+     * @param version the version of the table read before the count was taken
+     * @param count the number of matching rows
+     */
+    public void put(String key, long version, int count) {
+        if (counts.size() >= maxEntries && !counts.containsKey(key)) {
+            counts.clear();
+        }
+        counts.put(key, new Entry(version, count));
+    }
+
+    /** A count together with the table version it was computed at. */
+    private static class Entry {
+
+        private final long version;
+        private final int count;
+
+        private Entry(long version, int count) {
+            this.version = version;
+            this.count = count;
+        }
+    }
+}
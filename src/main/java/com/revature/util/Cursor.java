@@ -0,0 +1,104 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The Cursor class is the position of a keyset (seek) paginated query: the sort column and direction the results are ordered by, and the sort key and id of the last item the client received. The next page starts right after that item, so the database can seek to it through an index instead of skipping over every earlier row.
+ *
+ * Cursors travel to the client as opaque, URL-safe tokens produced by {@link #encode()} and read back with {@link #decode(String)}.
+ */
+public class Cursor {
+
+    /** The version prefix of the token format. */
+    private static final String VERSION = "1";
+
+    /** The sortBy value the results are ordered by. */
+    private final String sortBy;
+    /** The sort direction, either "asc" or "desc". */
+    private final String sortDirection;
+    /** The sort key of the last item returned, as text. */
+    private final String key;
+    /** The id of the last item returned, used as a tie-breaker. */
+    private final int id;
+
+    public Cursor(String sortBy, String sortDirection, String key, int id) {
+        this.sortBy = sortBy.toLowerCase();
+        this.sortDirection = sortDirection.toLowerCase();
+        this.key = key;
+        this.id = id;
+    }
+
+    // getters
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public String getSortDirection() {
+        return sortDirection;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Encodes this cursor as an opaque token.
+     *
+     * @return a URL-safe token for the client to send back as the {@code after} parameter
+     */
+    public String encode() {
+        String raw = VERSION + "|" + sortBy + "|" + sortDirection + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token sent by the client; null or empty means the first page
+     * @return the decoded cursor, or null if the token is null or empty
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // the key comes last and may itself contain the separator
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !parts[0].equals(VERSION)) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new Cursor(parts[1], parts[2], parts[4], Integer.parseInt(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Resolves the page options for a keyset query. Without a cursor the requested sort (defaulting to ascending id) is used; with a cursor the cursor's sort is used, and a conflicting explicit sort is rejected.
+     *
+     * @param cursor the decoded cursor, or null for the first page
+     * @param pageSize the number of items per page
+     * @param sortBy the requested sort column, or null
+     * @param sortDirection the requested sort direction, or null
+     * @return the page options to run the query with
+     * @throws IllegalArgumentException if the requested sort differs from the cursor's
+     */
+    public static PageOptions resolveOptions(Cursor cursor, int pageSize, String sortBy, String sortDirection) {
+        if (cursor == null) {
+            return new PageOptions(1, pageSize, sortBy == null ? "id" : sortBy,
+                    sortDirection == null ? "asc" : sortDirection);
+        }
+        if ((sortBy != null && !sortBy.equalsIgnoreCase(cursor.sortBy))
+                || (sortDirection != null && !sortDirection.equalsIgnoreCase(cursor.sortDirection))) {
+            throw new IllegalArgumentException("The sort options do not match the cursor");
+        }
+        return new PageOptions(1, pageSize, cursor.sortBy, cursor.sortDirection);
+    }
+}
@@ -0,0 +1,88 @@
+package com.revature.util;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The CursorPage class is the keyset paginated counterpart of {@link Page}. Instead of page numbers and totals it carries an opaque {@code nextCursor} token: passing it back as the {@code after} parameter returns the page that follows. A null {@code nextCursor} means this is the last page.
+ *
+ * @param <E> the type of elements in the page
+ */
+public class CursorPage<E> {
+
+    // fields
+
+    /** The maximum number of items per page. */
+    private int pageSize;
+    /** The items on this page. */
+    private List<E> items;
+    /** The token for the next page, or null if there is none. */
+    private String nextCursor;
+
+    // constructors
+    public CursorPage() {
+
+    }
+
+    public CursorPage(int pageSize, List<E> items, String nextCursor) {
+        this.pageSize = pageSize;
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // getters and setters
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public List<E> getItems() {
+        return items;
+    }
+
+    public void setItems(List<E> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns a hash code value for the CursorPage object.
+     *
+     * @return the hash code value for this CursorPage
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageSize, items, nextCursor);
+    }
+
+    /**
+     * Compares this CursorPage object to another object for equality.
+     *
+     * @param obj the object to be compared for equality with this CursorPage
+     * @return true if the specified object is equal to this CursorPage;
+     *         false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        CursorPage<?> page = (CursorPage<?>) obj;
+        return pageSize == page.pageSize &&
+               Objects.equals(items, page.items) &&
+               Objects.equals(nextCursor, page.nextCursor);
+    }
+}
@@ -0,0 +1,19 @@
+package com.revature.util;
+
+/**
+ * The DatabaseUnavailableException is thrown when no database connection could be obtained, typically because every pooled connection stayed busy for the whole acquire timeout. It is a normal event under load rather than a bug, so the server answers it with 503 Service Unavailable instead of failing deeper in a DAO.
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a DatabaseUnavailableException.
+     *
+     * @param message the detail message
+     * @param cause the failure to obtain a connection
+     */
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
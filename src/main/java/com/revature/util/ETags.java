@@ -0,0 +1,96 @@
+package com.revature.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+
+/**
+ * The ETags class implements conditional GETs for read endpoints whose responses depend only on the request and the contents of some tables. The entity tag is derived from the {@link TableVersions} of those tables, so it changes with every write to them and can be computed without querying the database; {@link #forResource(String, String)} narrows it to one URL. A client polling unchanged data gets an empty 304 response; since a tag says nothing about whether the requested resource exists, it is only attached to a representation that does. A client naming the current tag of a resource therefore got a representation of it at the same table versions, and is answered before the data is read; {@code *} is only matched once the representation is known to exist (see {@link ResponseCache#json(Context, String, java.util.function.Supplier)}).
+ *
+ * The table versions restart at zero with the process, so every tag also carries a random per-process epoch; a tag handed out before a restart never matches afterwards. The tags are weak, since the same version may be rendered with different formatting, for example by a later release.
+ */
+public class ETags {
+
+    /** Distinguishes the tags of this process from those of earlier ones. */
+    private static final String EPOCH = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private ETags() {
+    }
+
+    /**
+     * Returns the tag of the current contents of the given tables.
+     *
+     * @param tables the tables the response is built from, in a fixed order
+     * @return a weak entity tag, including the quotes
+     */
+    public static String forTables(String... tables) {
+        StringBuilder tag = new StringBuilder("W/\"").append(EPOCH);
+        for (String table : tables) {
+            tag.append('-').append(TableVersions.get(table));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Narrows a tag to one resource, so that a tag handed out for one URL never matches a request for another, such as a missing resource read from the same tables.
+     *
+     * @param etag the tag of the current data, as returned by {@link #forTables(String...)}
+     * @param resource the normalized path and query of the request
+     * @return a weak entity tag, including the quotes
+     */
+    public static String forResource(String etag, String resource) {
+        return etag.substring(0, etag.length() - 1) + '-' + Integer.toString(resource.hashCode() & Integer.MAX_VALUE, 36) + '"';
+    }
+
+    /**
+     * Tags the response and answers with 304 Not Modified if the client already holds that version. Call it only once the representation is known to exist, so a missing resource is never tagged and never matched, not even by {@code *}. Compute the tag before reading the data: a write racing the read then leaves the response with an older tag, which only costs the client a full response on its next request.
+     *
+     * @param ctx the Javalin context of the request
+     * @param etag the tag of the current data, as returned by {@link #forTables(String...)}
+     * @return true if a 304 response was sent and the handler should return without responding
+     */
+    public static boolean notModified(Context ctx, String etag) {
+        return respondIfMatched(ctx, etag, true);
+    }
+
+    /**
+     * Answers with 304 Not Modified if the client names the current tag, before the data is read. Tags narrowed by {@link #forResource(String, String)} are only handed out with existing representations, so a client holding the current one got it for this resource while it existed, and nothing has changed since; {@code *} carries no such proof and is not matched.
+     *
+     * @param ctx the Javalin context of the request
+     * @param etag the tag of the current data, as returned by {@link #forTables(String...)}
+     * @return true if a 304 response was sent and the handler should return without reading the data
+     */
+    public static boolean heldByClient(Context ctx, String etag) {
+        return respondIfMatched(ctx, etag, false);
+    }
+
+    private static boolean respondIfMatched(Context ctx, String etag, boolean anyMatches) {
+        if (matches(ctx.header("If-None-Match"), etag, anyMatches)) {
+            ctx.header("ETag", etag);
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return true;
+        }
+        if (anyMatches) {
+            ctx.header("ETag", etag);
+        }
+        return false;
+    }
+
+    /**
+     * Applies the weak comparison of RFC 9110 to an If-None-Match header: any listed tag, with or without the weak prefix, or {@code *} if it is accepted.
+     */
+    private static boolean matches(String ifNoneMatch, String etag, boolean anyMatches) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if ((anyMatches && candidate.equals("*")) || candidate.equals(etag) || candidate.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
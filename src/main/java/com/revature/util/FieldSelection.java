@@ -0,0 +1,220 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.revature.model.Chef;
+import com.revature.model.ChefSummary;
+import com.revature.model.Recipe;
+
+/**
+ * The FieldSelection class is the set of recipe properties a client asked for with a {@code fields} query parameter, such as {@code fields=id,name,author.username}. The RecipeDAO reads only the columns behind the selected properties, skipping the CHEF join and the ingredient query when no author details or ingredients are selected, and {@link #project(Recipe)} turns the partially read recipes into maps holding exactly the selected properties, so that nothing else is serialized.
+ *
+ * The recipe id is always read, since ingredients, cursors and caches are keyed by it, but it is only written when selected. Selecting {@code author} selects the whole author summary, its id and username; the other chef properties are never read with a recipe.
+ */
+public class FieldSelection {
+
+    /** The selection of every property, used when no fields are requested. */
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+
+    /** The selectable recipe properties, in the order they are written. */
+    private static final List<String> RECIPE_FIELDS = List.of("id", "name", "instructions", "author", "ingredients");
+    /** The selectable author properties, in the order they are written. */
+    private static final List<String> AUTHOR_FIELDS = List.of("id", "username");
+
+    /** The selected recipe properties, or null for all of them. */
+    private final Set<String> recipeFields;
+    /** The selected author properties, or null for all of them when the author is selected. */
+    private final Set<String> authorFields;
+
+    private FieldSelection(Set<String> recipeFields, Set<String> authorFields) {
+        this.recipeFields = recipeFields;
+        this.authorFields = authorFields;
+    }
+
+    /**
+     * Parses a {@code fields} query parameter.
+     *
+     * @param fields a comma separated list of property names, with author properties written as {@code author.name}; null or blank for all properties
+     * @return the selection
+     * @throws IllegalArgumentException if a property does not exist
+     */
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> recipeFields = new LinkedHashSet<>();
+        Set<String> authorFields = new LinkedHashSet<>();
+        boolean wholeAuthor = false;
+        for (String field : fields.split(",")) {
+            field = field.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (field.startsWith("author.")) {
+                String authorField = field.substring("author.".length());
+                if (!AUTHOR_FIELDS.contains(authorField)) {
+                    throw new IllegalArgumentException("Unknown field: " + field);
+                }
+                recipeFields.add("author");
+                authorFields.add(authorField);
+            } else if (RECIPE_FIELDS.contains(field)) {
+                recipeFields.add(field);
+                wholeAuthor |= field.equals("author");
+            } else {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        if (recipeFields.isEmpty()) {
+            return ALL;
+        }
+        return new FieldSelection(recipeFields, wholeAuthor ? null : authorFields);
+    }
+
+    /**
+     * @return true if every property is selected
+     */
+    public boolean isAll() {
+        return recipeFields == null;
+    }
+
+    /**
+     * Tells whether a recipe property is selected.
+     *
+     * @param field a recipe property, such as {@code name} or {@code ingredients}
+     * @return true if the property is selected
+     */
+    public boolean includes(String field) {
+        return recipeFields == null || recipeFields.contains(field);
+    }
+
+    /**
+     * Tells whether an author property is selected.
+     *
+     * @param field an author property, such as {@code username}
+     * @return true if the property is selected
+     */
+    public boolean includesAuthor(String field) {
+        return includes("author") && (authorFields == null || authorFields.contains(field));
+    }
+
+    /**
+     * Tells whether the author's username, the one author property not stored on the recipe, is selected.
+     *
+     * @return true if the CHEF table has to be read
+     */
+    public boolean needsChef() {
+        return includesAuthor("username");
+    }
+
+    /**
+     * Returns a copy of a recipe holding only the selected properties, like a recipe read with this selection.
+     *
+     * @param recipe the recipe, which is left unchanged
+     * @return the narrowed copy, the recipe itself if every property is selected, or null if the recipe is null
+     */
+    public Recipe narrow(Recipe recipe) {
+        if (recipe == null || isAll()) {
+            return recipe;
+        }
+        Recipe narrowed = new Recipe();
+        narrowed.setId(recipe.getId());
+        if (includes("name")) {
+            narrowed.setName(recipe.getName());
+        }
+        if (includes("instructions")) {
+            narrowed.setInstructions(recipe.getInstructions());
+        }
+        if (includes("author") && recipe.getAuthor() != null) {
+            Chef author = recipe.getAuthor();
+            narrowed.setAuthor(new ChefSummary(author.getId(), includesAuthor("username") ? author.getUsername() : null));
+        }
+        if (includes("ingredients")) {
+            narrowed.setIngredients(recipe.getIngredients());
+        }
+        return narrowed;
+    }
+
+    /**
+     * Returns the selected properties of a recipe.
+     *
+     * @param recipe the recipe
+     * @return a map from property name to value in the usual property order, or null if the recipe is null
+     */
+    public Map<String, Object> project(Recipe recipe) {
+        if (recipe == null) {
+            return null;
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        if (includes("id")) {
+            projected.put("id", recipe.getId());
+        }
+        if (includes("name")) {
+            projected.put("name", recipe.getName());
+        }
+        if (includes("instructions")) {
+            projected.put("instructions", recipe.getInstructions());
+        }
+        if (includes("author")) {
+            projected.put("author", projectAuthor(recipe.getAuthor()));
+        }
+        if (includes("ingredients")) {
+            projected.put("ingredients", recipe.getIngredients());
+        }
+        return projected;
+    }
+
+    /**
+     * Returns the selected properties of each recipe.
+     *
+     * @param recipes the recipes
+     * @return the projected recipes in the same order
+     */
+    public List<Map<String, Object>> project(List<Recipe> recipes) {
+        if (recipes == null) {
+            return Collections.emptyList();
+        }
+        List<Map<String, Object>> projected = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            projected.add(project(recipe));
+        }
+        return projected;
+    }
+
+    private Map<String, Object> projectAuthor(Chef author) {
+        if (author == null) {
+            return null;
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        if (includesAuthor("id")) {
+            projected.put("id", author.getId());
+        }
+        if (includesAuthor("username")) {
+            projected.put("username", author.getUsername());
+        }
+        return projected;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipeFields, authorFields);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FieldSelection)) {
+            return false;
+        }
+        FieldSelection other = (FieldSelection) obj;
+        return Objects.equals(recipeFields, other.recipeFields) && Objects.equals(authorFields, other.authorFields);
+    }
+}
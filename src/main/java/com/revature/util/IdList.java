@@ -0,0 +1,41 @@
+package com.revature.util;
+
+import java.util.Arrays;
+
+/**
+ * The IdList class parses the {@code ids} query parameter of the batch read endpoints, such as {@code ids=4,1,7}, which lets a client fetch a board of records in one request instead of one request per record.
+ */
+public final class IdList {
+
+    /** The most ids one request may ask for, which keeps a batch to one bounded query and response. */
+    public static final int MAX_IDS = 100;
+
+    private IdList() {
+    }
+
+    /**
+     * Parses a comma separated list of ids.
+     *
+     * @param ids the ids, separated by commas
+     * @return the distinct ids in the order they were given
+     * @throws IllegalArgumentException if the list is empty, holds something other than an integer, or holds more than {@link #MAX_IDS} ids
+     */
+    public static int[] parse(String ids) {
+        String[] parts = ids.split(",");
+        if (parts.length > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids may be requested at once");
+        }
+        int[] parsed = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                parsed[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid id: " + parts[i].trim());
+            }
+        }
+        if (parsed.length == 0) {
+            throw new IllegalArgumentException("No ids requested");
+        }
+        return Arrays.stream(parsed).distinct().toArray();
+    }
+}
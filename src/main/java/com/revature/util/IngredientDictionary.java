@@ -0,0 +1,312 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.revature.model.Ingredient;
+
+/**
+ * The IngredientDictionary class keeps the whole INGREDIENT table in memory as an immutable snapshot, so that ingredient lookups, searches and pages, sorted or not, are answered without touching the database. The table is small, read on nearly every request and rarely written.
+ *
+ * Reads take the current snapshot without locking. A write made through {@link #put(Ingredient, Runnable)} or {@link #remove(int, Runnable)} runs against the database first and then publishes a copy of the snapshot with the change applied, replacing the old one atomically; readers see either the old or the new table, never a mix. The snapshot is stamped with the version of the INGREDIENT table (see {@link TableVersions}), so a write that did not go through the dictionary, or that raced another write, makes the next read reload the table instead.
+ *
+ * Searches follow the DAO's SQL semantics: the term is matched like {@code name LIKE '%term%'}, case-sensitively, and results are ordered by the same whitelisted columns with the id as tie-breaker. The returned ingredients are shared and must not be modified.
+ */
+public class IngredientDictionary {
+
+    /** The comparators ingredients may be sorted by, indexed by the accepted sortBy value; each breaks ties by id. */
+    private static final Map<String, Comparator<Ingredient>> SORT_ORDERS = Map.of(
+            "id", Comparator.comparingInt(Ingredient::getId),
+            "name", Comparator.comparing(Ingredient::getName).thenComparingInt(Ingredient::getId));
+
+    /** A utility class for establishing connections to the database. */
+    private final ConnectionUtil connectionUtil;
+    /** The current contents of the table; replaced as a whole on every reload or write. */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs an empty IngredientDictionary; the table is loaded on first use or by {@link #refresh()}.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     */
+    public IngredientDictionary(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Loads the table now if it is missing or stale, so that the first read does not pay for it.
+     */
+    public void refresh() {
+        current();
+    }
+
+    /**
+     * Finds an ingredient by its id.
+     *
+     * @param id the unique identifier of the ingredient
+     * @return the ingredient, or null if there is none
+     */
+    public Ingredient find(int id) {
+        return current().byId.get(id);
+    }
+
+    /**
+     * Finds the ingredients whose name contains a term.
+     *
+     * @param term the search term, or null for all ingredients
+     * @return the matching ingredients, ordered by id
+     */
+    public List<Ingredient> search(String term) {
+        return matches(current().byIdOrder, term);
+    }
+
+    /**
+     * Returns one page of the ingredients whose name contains a term.
+     *
+     * @param term the search term, or null for all ingredients
+     * @param pageOptions options for pagination and sorting
+     * @return the requested page together with the total number of matching ingredients
+     * @throws IllegalArgumentException if the sort column or direction is not supported
+     */
+    public Page<Ingredient> search(String term, PageOptions pageOptions) {
+        List<Ingredient> matches = sorted(term, pageOptions);
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        int pageNumber = Math.max(1, pageOptions.getPageNumber());
+        long offset = (long) (pageNumber - 1) * pageSize;
+        int from = (int) Math.min(offset, matches.size());
+        int to = (int) Math.min(offset + pageSize, matches.size());
+        return new Page<>(pageNumber, pageSize, (int) Math.ceil(matches.size() / (double) pageSize), matches.size(),
+                new ArrayList<>(matches.subList(from, to)));
+    }
+
+    /**
+     * Returns the page of ingredients that follows a cursor, optionally filtered by a term in the name.
+     *
+     * @param term the search term, or null for all ingredients
+     * @param after the position the page starts after, or null for the first page
+     * @param pageOptions the page size and sort options; the page number is ignored
+     * @return the page, carrying the cursor of the following page
+     * @throws IllegalArgumentException if the sort column or direction is not supported
+     */
+    public CursorPage<Ingredient> searchAfter(String term, Cursor after, PageOptions pageOptions) {
+        List<Ingredient> matches = sorted(term, pageOptions);
+        String sortBy = pageOptions.getSortBy() == null ? "id" : pageOptions.getSortBy().toLowerCase();
+        boolean descending = isDescending(pageOptions);
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+
+        int from = 0;
+        if (after != null) {
+            // the position of the first ingredient past the cursor, found by binary search on the sort order
+            Comparator<Ingredient> order = order(sortBy, descending);
+            Ingredient position = new Ingredient(after.getId(), sortBy.equals("id") ? null : after.getKey());
+            int index = Collections.binarySearch(matches, position, order);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        int to = Math.min(from + pageSize, matches.size());
+        List<Ingredient> items = new ArrayList<>(matches.subList(from, to));
+        String nextCursor = null;
+        if (to < matches.size()) {
+            Ingredient last = items.get(items.size() - 1);
+            String key = sortBy.equals("id") ? String.valueOf(last.getId()) : last.getName();
+            nextCursor = new Cursor(sortBy, descending ? "DESC" : "ASC", key, last.getId()).encode();
+        }
+        return new CursorPage<>(pageSize, items, nextCursor);
+    }
+
+    /**
+     * Creates or updates an ingredient and publishes a snapshot containing it.
+     *
+     * @param ingredient the ingredient being saved; its id is read after the write, so a create may assign it
+     * @param write writes the ingredient to the database
+     */
+    public void put(Ingredient ingredient, Runnable write) {
+        long before = TableVersions.get(TableVersions.INGREDIENT);
+        write.run();
+        if (ingredient.getId() == 0) {
+            // the create failed; nothing to publish
+            return;
+        }
+        // a private copy, so later changes to the caller's object do not leak into the snapshot
+        Ingredient saved = new Ingredient(ingredient.getId(), ingredient.getName());
+        publish(before, byId -> byId.put(saved.getId(), saved));
+    }
+
+    /**
+     * Deletes an ingredient and publishes a snapshot without it.
+     *
+     * @param id the unique identifier of the ingredient being deleted
+     * @param write deletes the ingredient from the database
+     */
+    public void remove(int id, Runnable write) {
+        long before = TableVersions.get(TableVersions.INGREDIENT);
+        write.run();
+        publish(before, byId -> byId.remove(id));
+    }
+
+    /**
+     * Publishes a copy of the current snapshot with a change applied, if the write that made the change is the only one since the snapshot was taken. Otherwise the snapshot is already stale and the next read reloads the table.
+     */
+    private synchronized void publish(long before, Consumer<Map<Integer, Ingredient>> change) {
+        Snapshot current = snapshot;
+        long now = TableVersions.get(TableVersions.INGREDIENT);
+        if (current == null || current.version != before || now != before + 1) {
+            return;
+        }
+        Map<Integer, Ingredient> byId = new HashMap<>(current.byId);
+        change.accept(byId);
+        snapshot = new Snapshot(byId, now);
+    }
+
+    /**
+     * Returns the matching ingredients in the requested order.
+     */
+    private List<Ingredient> sorted(String term, PageOptions pageOptions) {
+        String sortBy = pageOptions.getSortBy() == null ? "id" : pageOptions.getSortBy().toLowerCase();
+        if (!SORT_ORDERS.containsKey(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort column: " + pageOptions.getSortBy());
+        }
+        boolean descending = isDescending(pageOptions);
+        Snapshot current = current();
+        List<Ingredient> ordered = sortBy.equals("id") ? current.byIdOrder : current.byNameOrder;
+        if (descending) {
+            ordered = reversed(ordered);
+        }
+        return matches(ordered, term);
+    }
+
+    private static Comparator<Ingredient> order(String sortBy, boolean descending) {
+        Comparator<Ingredient> order = SORT_ORDERS.get(sortBy);
+        return descending ? order.reversed() : order;
+    }
+
+    /**
+     * Normalizes the requested sort direction, defaulting to ascending.
+     *
+     * @throws IllegalArgumentException if the direction is neither asc nor desc
+     */
+    private static boolean isDescending(PageOptions pageOptions) {
+        String sortDirection = pageOptions.getSortDirection();
+        if (sortDirection == null || sortDirection.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (sortDirection.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported sort direction: " + sortDirection);
+    }
+
+    private static List<Ingredient> reversed(List<Ingredient> ingredients) {
+        List<Ingredient> reversed = new ArrayList<>(ingredients);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+
+    private static List<Ingredient> matches(List<Ingredient> ingredients, String term) {
+        if (term == null) {
+            return ingredients;
+        }
+        Predicate<String> matcher = nameMatcher(term);
+        List<Ingredient> matches = new ArrayList<>();
+        for (Ingredient ingredient : ingredients) {
+            if (matcher.test(ingredient.getName())) {
+                matches.add(ingredient);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Builds the test matching a name like {@code LIKE '%term%'}, where {@code %} and {@code _} in the term are wildcards and a backslash escapes the next character.
+     */
+    private static Predicate<String> nameMatcher(String term) {
+        if (term.indexOf('%') < 0 && term.indexOf('_') < 0 && term.indexOf('\\') < 0) {
+            return name -> name.contains(term);
+        }
+        StringBuilder regex = new StringBuilder(".*");
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '\\' && i + 1 < term.length()) {
+                regex.append(Pattern.quote(String.valueOf(term.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        Pattern pattern = Pattern.compile(regex.append(".*").toString(), Pattern.DOTALL);
+        return name -> pattern.matcher(name).matches();
+    }
+
+    /**
+     * Returns the current snapshot, reloading the table first if it changed since the snapshot was taken.
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == TableVersions.get(TableVersions.INGREDIENT)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.version != TableVersions.get(TableVersions.INGREDIENT)) {
+                current = load();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Reads every row of the INGREDIENT table.
+     */
+    private Snapshot load() {
+        // read the version first: a write racing the scan leaves the snapshot stale rather than wrongly current
+        long version = TableVersions.get(TableVersions.INGREDIENT);
+        Map<Integer, Ingredient> byId = new HashMap<>();
+        try (Connection conn = connectionUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM INGREDIENT")) {
+            while (rs.next()) {
+                Ingredient ingredient = new Ingredient(rs.getInt("id"), rs.getString("name"));
+                byId.put(ingredient.getId(), ingredient);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load the ingredient dictionary", e);
+        }
+        return new Snapshot(byId, version);
+    }
+
+    /** The ingredients by id and in each sort order, together with the table version they were read at. */
+    private static class Snapshot {
+
+        private final Map<Integer, Ingredient> byId;
+        private final List<Ingredient> byIdOrder;
+        private final List<Ingredient> byNameOrder;
+        private final long version;
+
+        private Snapshot(Map<Integer, Ingredient> byId, long version) {
+            this.byId = Collections.unmodifiableMap(byId);
+            this.byIdOrder = sort(byId, SORT_ORDERS.get("id"));
+            this.byNameOrder = sort(byId, SORT_ORDERS.get("name"));
+            this.version = version;
+        }
+
+        private static List<Ingredient> sort(Map<Integer, Ingredient> byId, Comparator<Ingredient> order) {
+            List<Ingredient> sorted = new ArrayList<>(byId.values());
+            sorted.sort(order);
+            return Collections.unmodifiableList(sorted);
+        }
+    }
+}
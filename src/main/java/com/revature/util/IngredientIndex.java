@@ -0,0 +1,191 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The IngredientIndex class is an in-memory inverted index from ingredient names to the ids of the recipes using them, built from the RECIPE_INGREDIENT table. Recipes containing all (or any) of several ingredients are found by intersecting (or merging) the sorted posting lists, without touching the database.
+ *
+ * The index is stamped with the versions of the INGREDIENT and RECIPE_INGREDIENT tables it was built from (see {@link TableVersions}). Any write to either table, such as deleting a recipe or renaming or deleting an ingredient, makes the next lookup rebuild it, so lookups always reflect the current data. Ingredient names are matched case-insensitively.
+ */
+public class IngredientIndex {
+
+    /** A utility class for establishing connections to the database. */
+    private final ConnectionUtil connectionUtil;
+    /** The current contents of the index; replaced as a whole on every rebuild. */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs an empty IngredientIndex; it is built on first use or by {@link #refresh()}.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     */
+    public IngredientIndex(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Builds the index now if it is missing or stale, so that the first lookup does not pay for it.
+     */
+    public void refresh() {
+        current();
+    }
+
+    /**
+     * Finds the recipes that use every one of the given ingredients.
+     *
+     * @param ingredientNames the ingredient names, matched case-insensitively
+     * @return the matching recipe ids in ascending order
+     */
+    public int[] recipesWithAll(Collection<String> ingredientNames) {
+        List<int[]> postings = postings(ingredientNames);
+        if (postings.isEmpty()) {
+            return new int[0];
+        }
+        // intersect starting from the shortest list, so the intermediate result never grows
+        postings.sort(Comparator.comparingInt(posting -> posting.length));
+        int[] result = postings.get(0);
+        for (int i = 1; i < postings.size() && result.length > 0; i++) {
+            result = intersect(result, postings.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the recipes that use at least one of the given ingredients.
+     *
+     * @param ingredientNames the ingredient names, matched case-insensitively
+     * @return the matching recipe ids in ascending order
+     */
+    public int[] recipesWithAny(Collection<String> ingredientNames) {
+        int[] result = new int[0];
+        for (int[] posting : postings(ingredientNames)) {
+            result = union(result, posting);
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the posting list of every requested ingredient. An unknown ingredient contributes an empty list.
+     */
+    private List<int[]> postings(Collection<String> ingredientNames) {
+        Map<String, int[]> postings = current().postings;
+        Set<String> keys = new LinkedHashSet<>();
+        for (String name : ingredientNames) {
+            keys.add(name.toLowerCase());
+        }
+        List<int[]> result = new ArrayList<>();
+        for (String key : keys) {
+            result.add(postings.getOrDefault(key, new int[0]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current snapshot, rebuilding it first if the underlying tables changed since it was built.
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.isCurrent()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || !current.isCurrent()) {
+                current = build();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Reads RECIPE_INGREDIENT joined to INGREDIENT and groups the recipe ids by ingredient name.
+     */
+    private Snapshot build() {
+        // read the versions first: a write racing the scan leaves the snapshot stale rather than wrongly current
+        long ingredientVersion = TableVersions.get(TableVersions.INGREDIENT);
+        long linkVersion = TableVersions.get(TableVersions.RECIPE_INGREDIENT);
+        Map<String, List<Integer>> recipeIds = new HashMap<>();
+        try (Connection conn = connectionUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT i.name, ri.recipe_id FROM RECIPE_INGREDIENT ri"
+                     + " JOIN INGREDIENT i ON i.id = ri.ingredient_id")) {
+            while (rs.next()) {
+                recipeIds.computeIfAbsent(rs.getString("name").toLowerCase(), key -> new ArrayList<>())
+                        .add(rs.getInt("recipe_id"));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to build the ingredient index", e);
+        }
+
+        Map<String, int[]> postings = new HashMap<>();
+        recipeIds.forEach((name, ids) -> postings.put(name,
+                ids.stream().mapToInt(Integer::intValue).distinct().sorted().toArray()));
+        return new Snapshot(postings, ingredientVersion, linkVersion);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /** The posting lists together with the table versions they were built from. */
+    private static class Snapshot {
+
+        private final Map<String, int[]> postings;
+        private final long ingredientVersion;
+        private final long linkVersion;
+
+        private Snapshot(Map<String, int[]> postings, long ingredientVersion, long linkVersion) {
+            this.postings = postings;
+            this.ingredientVersion = ingredientVersion;
+            this.linkVersion = linkVersion;
+        }
+
+        private boolean isCurrent() {
+            return ingredientVersion == TableVersions.get(TableVersions.INGREDIENT)
+                    && linkVersion == TableVersions.get(TableVersions.RECIPE_INGREDIENT);
+        }
+    }
+}
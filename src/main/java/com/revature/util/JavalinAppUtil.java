@@ -1,10 +1,24 @@
 package com.revature.util;
 import com.revature.controller.RecipeController;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
 import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.util.ConcurrencyUtil;
+import io.javalin.util.LoomUtil;
+
+import org.eclipse.jetty.server.LowResourceMonitor;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.StatisticsHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
 
 import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
+import com.revature.service.AuthenticationService;
 
 
 /**
@@ -15,6 +29,17 @@ import com.revature.controller.IngredientController;
  * to create and configure the Javalin app instance, including defining 
  * the routes for each controller and applying any necessary middleware, 
  * such as admin middleware.
+ * 
+ * Handlers run on a bounded pool of platform threads (Javalin's default of 
+ * at most 250) by default, which caps the requests doing database work by 
+ * itself. Setting the reva.server.threads system property to "virtual" runs 
+ * them on virtual threads instead, where available, with RequestPermits 
+ * capping the requests doing database work at the connection pool size.
+ * 
+ * Responses are compressed by a ResponseCompression rather than by Javalin, 
+ * and GET /metrics reports its counters along with the request permits and 
+ * any other counters registered with {@link #addMetrics(String, Supplier)}. 
+ * Like the other admin-only routes, it requires an admin's session token.
  */
 
 public class JavalinAppUtil {
@@ -37,6 +62,24 @@ public class JavalinAppUtil {
 
     private IngredientController ingredientController;
 
+    /**
+     * The name of the app attribute holding the cap on concurrent database work of an app running on virtual threads.
+     */
+
+    private static final String REQUEST_PERMITS = "requestPermits";
+
+    /**
+     * The compression applied to the responses of the apps created.
+     */
+
+    private ResponseCompression compression;
+
+    /**
+     * The other counters GET /metrics reports, by name.
+     */
+
+    private final Map<String, Supplier<?>> metricSources = new LinkedHashMap<>();
+
     /**
      * Constructs a JavalinAppUtil with the specified controllers.
      *
@@ -46,9 +89,24 @@ public class JavalinAppUtil {
      */
 
     public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController) {
+        this(recipeController, authController, ingredientController, ResponseCompression.fromProperties());
+    }
+
+    /**
+     * Constructs a JavalinAppUtil with the specified controllers and response compression.
+     *
+     * @param recipeController the controller for handling recipe operations
+     * @param authController the controller for handling authentication operations
+     * @param ingredientController the controller for handling ingredient operations
+     * @param compression the compression applied to responses, shared with any ResponseCache of the controllers
+     */
+
+    public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController,
+            ResponseCompression compression) {
         this.recipeController = recipeController;
         this.authenticationController = authController;
         this.ingredientController = ingredientController;
+        this.compression = compression;
     }
 
     /**
@@ -59,27 +117,121 @@ public class JavalinAppUtil {
      */
 	
     public Javalin getApp() {
+        boolean virtualThreads = "virtual".equalsIgnoreCase(System.getProperty("reva.server.threads", "platform"))
+                && ConcurrencyUtil.isLoomAvailable();
         Javalin app = Javalin.create(config -> {
+            // this app's own Jetty server, so that apps built in one JVM do not share Javalin's global thread switch
+            config.jetty.server(() -> jettyServer(virtualThreads));
             config.plugins.enableCors(cors -> {
                 cors.add(it -> {
                     it.anyHost();
                 });
 
             });
-
-            
+            // replaced by the ResponseCompression after-handler below
+            config.compression.none();
         });
+        // Javalin falls back to port 8080 only for its own server; keep that default for start() without a port
+        app.jettyServer().setServerPort(8080);
+
+        if (virtualThreads) {
+            // registered before the routes' own middleware, so that every request reaching a handler holds a permit
+            RequestPermits requestPermits = new RequestPermits(
+                    Integer.getInteger("reva.server.dbPermits", Integer.getInteger("reva.db.pool.maxSize", 10)),
+                    Long.getLong("reva.server.dbPermitTimeoutMillis", 30000));
+            for (String path : new String[] { "/recipes", "/recipes/*", "/ingredients", "/ingredients/*", "/login", "/register" }) {
+                app.before(path, requestPermits::acquire);
+            }
+            app.after(requestPermits::release);
+            // kept with the app, so that every app reports and releases its own permits
+            app.attribute(REQUEST_PERMITS, requestPermits);
+        }
 
         // Configure routes for each controller
         recipeController.configureRoutes(app);
         authenticationController.configureRoutes(app);
         ingredientController.configureRoutes(app);
-
-        app.before("/recipes/*", new AdminMiddleware("DELETE"));
-        app.before("/ingredients/*", new AdminMiddleware("UPDATE", "CREATE", "DELETE"));
+        app.get("/metrics", this::respondWithMetrics);
+        app.after(compression::compress);
+
+        // the middleware resolves sessions through the same service that logs chefs in
+        AuthenticationService authService = authenticationController.getAuthService();
+        app.before("/recipes/*", new AdminMiddleware(authService, "DELETE"));
+        app.before("/ingredients/*", new AdminMiddleware(authService, "UPDATE", "CREATE", "DELETE"));
+        // the counters describe the server's load and caches, which only admins may see
+        app.before("/metrics", new AdminMiddleware(authService, "GET"));
+
+        // Unsupported sort options and malformed parameters are client errors
+        app.exception(IllegalArgumentException.class, (e, ctx) -> ctx.status(400).result(e.getMessage()));
+        // the connection pool stayed exhausted for its whole acquire timeout: the server is overloaded, not broken
+        app.exception(DatabaseUnavailableException.class,
+                (e, ctx) -> ctx.status(503).result("Database busy, try again later"));
 
         return app;
     }
 
+    /**
+     * Builds a Jetty server like Javalin's default one, running handlers on virtual threads or on a bounded pool of platform threads.
+     *
+     * @param virtualThreads true to run every request on a virtual thread
+     * @return the server, without connectors; Javalin adds one for the configured port
+     */
+    private static Server jettyServer(boolean virtualThreads) {
+        ThreadPool threadPool;
+        if (virtualThreads) {
+            threadPool = LoomUtil.INSTANCE.getThreadPool("JettyServerThreadPool");
+        } else {
+            QueuedThreadPool platformThreads = new QueuedThreadPool(250, 8, 60000);
+            platformThreads.setName("JettyServerThreadPool");
+            threadPool = platformThreads;
+        }
+        Server server = new Server(threadPool);
+        server.addBean(new LowResourceMonitor(server));
+        server.setHandler(new StatisticsHandler());
+        return server;
+    }
+
+    /**
+     * Adds counters to the GET /metrics response, such as the stats of a cache. Register them before creating the app.
+     *
+     * @param name the name the counters are reported under
+     * @param source supplies a snapshot of the counters, serialized as JSON
+     */
+    public void addMetrics(String name, Supplier<?> source) {
+        metricSources.put(name, source);
+    }
+
+    /**
+     * Responds with the compression counters, in virtual thread mode the state of the request permits, and the registered counters.
+     *
+     * @param ctx the Javalin context of the request
+     */
+    private void respondWithMetrics(Context ctx) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("compression", compression.getStats());
+        RequestPermits permits = ctx.appAttribute(REQUEST_PERMITS);
+        if (permits != null) {
+            metrics.put("requestPermits", Map.of("permits", permits.getPermits(),
+                    "available", permits.getAvailablePermits(), "waiting", permits.getQueueLength()));
+        }
+        metricSources.forEach((name, source) -> metrics.put(name, source.get()));
+        ctx.json(metrics);
+    }
+
+    /**
+     * @param app an app created by {@link #getApp()}
+     * @return the cap on concurrent database work of the app, or null if it runs on platform threads
+     */
+    public static RequestPermits getRequestPermits(Javalin app) {
+        return app.attribute(REQUEST_PERMITS);
+    }
+
+    /**
+     * @return the compression applied to the responses of the apps created
+     */
+    public ResponseCompression getCompression() {
+        return compression;
+    }
+
 
 }
@@ -0,0 +1,274 @@
+package com.revature.util;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The LruCache class is a bounded, thread-safe read-through cache. A lookup that misses calls the loader and keeps its result; once the cache holds {@code maxEntries} values the least recently used one is evicted, and every value expires {@code ttlMillis} after it was loaded.
+ *
+ * A cache can be given a weigher estimating the memory each value takes, in which case its stats report the estimated total.
+ *
+ * Each value is also stamped with a version read before it was loaded, typically derived from {@link TableVersions}, and is treated as a miss once the version moves on. Callers that write through to the database remove the affected keys with {@link #invalidate(Object)}; a load that was in flight during an invalidation is returned to its caller but not kept, so a value read before a write can never be cached after it.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruCache<K, V> {
+
+    /** The maximum number of values kept. */
+    private final int maxEntries;
+    /** How long a value may be served after it was loaded, in nanoseconds. */
+    private final long ttlNanos;
+    /** The version the values are stamped with. */
+    private final LongSupplier version;
+    /** Estimates the memory taken by a value, in bytes. */
+    private final ToLongFunction<? super V> weigher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** The cached values in access order, least recently used first. */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Incremented by every invalidation; loads started before it are not kept. */
+    private long invalidations;
+    /** The estimated memory taken by the cached values, in bytes. */
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Constructs an empty LruCache.
+     *
+     * @param maxEntries the maximum number of values kept
+     * @param ttlMillis how long a value may be served after it was loaded, in milliseconds
+     * @param version supplies the current version of the data the values are derived from
+     */
+    public LruCache(int maxEntries, long ttlMillis, LongSupplier version) {
+        this(maxEntries, ttlMillis, version, value -> 0);
+    }
+
+    /**
+     * Constructs an empty LruCache that estimates the memory taken by its values.
+     *
+     * @param maxEntries the maximum number of values kept
+     * @param ttlMillis how long a value may be served after it was loaded, in milliseconds
+     * @param version supplies the current version of the data the values are derived from
+     * @param weigher estimates the memory taken by a value, in bytes
+     */
+    public LruCache(int maxEntries, long ttlMillis, LongSupplier version, ToLongFunction<? super V> weigher) {
+        if (maxEntries < 1 || ttlMillis < 1) {
+            throw new IllegalArgumentException("maxEntries and ttlMillis must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.version = version;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached value for a key, loading it on a miss. Null results are returned but not cached.
+     *
+     * @param key the key
+     * @param loader computes the value from the key, usually by querying the database
+     * @return the cached or loaded value, or null if the loader found none
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long currentVersion = version.getAsLong();
+        long generation;
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.version == currentVersion && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.value;
+                }
+                discard(key);
+                if (entry.version == currentVersion) {
+                    expirations.increment();
+                }
+            }
+            generation = invalidations;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        if (value == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            if (generation == invalidations) {
+                store(key, value, currentVersion, System.nanoTime());
+                evictOverflow();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached values for several keys, loading all the misses with a single call to the loader, such as one
+     * query for a batch of ids. Keys the loader finds no value for are left out of the result and are not cached.
+     *
+     * @param keys the keys
+     * @param loader computes the values of the missing keys, usually by querying the database; keys with no value may be left out of its result
+     * @return the cached or loaded values by key, in the order of the keys
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<? super Set<K>, ? extends Map<K, ? extends V>> loader) {
+        long currentVersion = version.getAsLong();
+        long generation;
+        Map<K, V> found = new LinkedHashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (K key : keys) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null) {
+                    if (entry.version == currentVersion && now - entry.loadedAt < ttlNanos) {
+                        hits.increment();
+                        found.put(key, entry.value);
+                        continue;
+                    }
+                    discard(key);
+                    if (entry.version == currentVersion) {
+                        expirations.increment();
+                    }
+                }
+                missing.add(key);
+            }
+            generation = invalidations;
+        } finally {
+            lock.unlock();
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        misses.add(missing.size());
+        Map<K, ? extends V> loaded = loader.apply(missing);
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (Map.Entry<K, ? extends V> value : loaded.entrySet()) {
+                if (value.getValue() != null && generation == invalidations) {
+                    store(value.getKey(), value.getValue(), currentVersion, now);
+                }
+            }
+            evictOverflow();
+        } finally {
+            lock.unlock();
+        }
+
+        // rebuild in key order, since hits and loaded values were collected separately
+        Map<K, V> values = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = found.containsKey(key) ? found.get(key) : loaded.get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Removes the value for a key, typically right after the row behind it was written.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            invalidations++;
+            discard(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            invalidations++;
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a snapshot of the cache counters
+     */
+    public CacheStats getStats() {
+        int size;
+        long estimatedBytes;
+        lock.lock();
+        try {
+            size = entries.size();
+            estimatedBytes = weight;
+        } finally {
+            lock.unlock();
+        }
+        return new CacheStats(size, maxEntries, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                estimatedBytes);
+    }
+
+    /** Caches a value, replacing any value of the key. Call while holding the lock. */
+    private void store(K key, V value, long valueVersion, long loadedAt) {
+        Entry<V> entry = new Entry<>(value, valueVersion, loadedAt, weigher.applyAsLong(value));
+        Entry<V> replaced = entries.put(key, entry);
+        weight += entry.weight - (replaced != null ? replaced.weight : 0);
+    }
+
+    /** Removes the value of a key. Call while holding the lock. */
+    private void discard(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /** A value together with the version it was loaded at, the time it was loaded and its estimated size. */
+    private static class Entry<V> {
+
+        private final V value;
+        private final long version;
+        private final long loadedAt;
+        private final long weight;
+
+        private Entry(V value, long version, long loadedAt, long weight) {
+            this.value = value;
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.revature.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * The NegativeCache class remembers, for a short time, the keys a lookup found nothing for, so that repeated requests for ids that do not exist, such as those of scrapers and stale clients, are answered without a database round trip. Found values are not kept; that is the job of caches such as {@link LruCache}.
+ *
+ * Only a create can give a missing key a value, so the owner calls {@link #forget(Object)} with the key of every row it creates, and updates and deletes leave the cache alone. Entries also expire after a short time-to-live, which bounds how long a row created elsewhere is hidden. A cache may instead be stamped with the version of the table (see {@link TableVersions}), forgetting every missing key on any write; that also covers creates made elsewhere, but on a table that is updated often it keeps almost nothing.
+ *
+ * @param <K> the key type
+ */
+public class NegativeCache<K> {
+
+    /** The default time a missing key is remembered, in milliseconds. */
+    public static final long DEFAULT_TTL_MILLIS = 30000;
+
+    /** The keys known to have no value. */
+    private final LruCache<K, Boolean> missing;
+
+    /**
+     * Constructs an empty NegativeCache whose keys are dropped only by {@link #forget(Object)} or when they expire.
+     *
+     * @param maxEntries the maximum number of missing keys kept
+     * @param ttlMillis how long a missing key is remembered, in milliseconds
+     */
+    public NegativeCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, () -> 0);
+    }
+
+    /**
+     * Constructs an empty NegativeCache that forgets every missing key whenever the version changes.
+     *
+     * @param maxEntries the maximum number of missing keys kept
+     * @param ttlMillis how long a missing key is remembered, in milliseconds
+     * @param version supplies the current version of the table the lookups read
+     */
+    public NegativeCache(int maxEntries, long ttlMillis, LongSupplier version) {
+        this.missing = new LruCache<>(maxEntries, ttlMillis, version);
+    }
+
+    /**
+     * Looks up a key, unless it is known to have no value. A lookup that finds nothing is remembered.
+     *
+     * @param <V> the value type
+     * @param key the key
+     * @param lookup finds the value of the key, usually by querying the database
+     * @return the value, or null if the key is known or found to have none
+     */
+    public <V> V find(K key, Function<? super K, ? extends V> lookup) {
+        AtomicReference<V> found = new AtomicReference<>();
+        // a key the lookup finds nothing for is cached as missing; a found value is passed back but not cached
+        missing.get(key, k -> {
+            found.set(lookup.apply(k));
+            return found.get() == null ? Boolean.TRUE : null;
+        });
+        return found.get();
+    }
+
+    /**
+     * Forgets that a key has no value, typically right after a row with that key was created.
+     *
+     * @param key the key
+     */
+    public void forget(K key) {
+        missing.invalidate(key);
+    }
+
+    /**
+     * @return a snapshot of the cache counters, where the hits are the lookups answered without a query
+     */
+    public CacheStats getStats() {
+        return missing.getStats();
+    }
+}
@@ -0,0 +1,35 @@
+package com.revature.util;
+
+/**
+ * The PasswordHasher interface is implemented by the password hashing engines. An engine turns a password into a self-describing hash string that records the algorithm and work factor it was made with, so that stored hashes stay verifiable after the configuration changes and can be upgraded by {@link #needsRehash(String)} at the next successful login.
+ */
+public interface PasswordHasher {
+
+    /** The prefix marking a legacy password stored in plain text; only values carrying it are compared as plain text. */
+    String PLAIN_TEXT_PREFIX = "plain$";
+
+    /**
+     * Hashes a password with a fresh random salt and the configured work factor.
+     *
+     * @param password the plain text password
+     * @return the hash string to store
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against a stored hash. A legacy plain text password is only recognized when it carries the {@link #PLAIN_TEXT_PREFIX} mark; any other value this engine does not recognize never verifies, so it cannot be matched by submitting the stored value itself.
+     *
+     * @param password the plain text password
+     * @param stored the stored hash string
+     * @return true if the password matches
+     */
+    boolean verify(String password, String stored);
+
+    /**
+     * Tells whether a stored value should be replaced by a new hash, because it is marked plain text or was made with a different algorithm or work factor.
+     *
+     * @param stored the stored hash string
+     * @return true if the password should be rehashed after it was verified
+     */
+    boolean needsRehash(String stored);
+}
@@ -0,0 +1,98 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.spec.KeySpec;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * The Pbkdf2PasswordHasher class hashes passwords with PBKDF2-HMAC-SHA256, which ships with the JDK. The work factor is the iteration count; hashes are stored as
+ *
+ * {@code pbkdf2-sha256$iterations$base64(salt)$base64(hash)}
+ *
+ * Each hash costs time proportional to the iteration count on the calling thread, so callers should hash on a dedicated executor rather than on request threads (see {@code AuthenticationService#loginAsync}).
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** The number of iterations new hashes are made with. */
+    private final int iterations;
+
+    /**
+     * Constructs a Pbkdf2PasswordHasher.
+     *
+     * @param iterations the number of iterations new hashes are made with
+     */
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Creates a Pbkdf2PasswordHasher with the iteration count from the reva.auth.pbkdf2.iterations system property, 600000 by default.
+     *
+     * @return the configured hasher
+     */
+    public static Pbkdf2PasswordHasher fromProperties() {
+        return new Pbkdf2PasswordHasher(Integer.getInteger("reva.auth.pbkdf2.iterations", 600000));
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (stored.startsWith(PLAIN_TEXT_PREFIX)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.substring(PLAIN_TEXT_PREFIX.length()).getBytes(StandardCharsets.UTF_8));
+        }
+        if (!stored.startsWith(PREFIX)) {
+            return false; // not a format this engine made, and not marked plain text
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1])));
+        } catch (IllegalArgumentException e) {
+            return false; // corrupt hash
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        return stored == null || !stored.startsWith(PREFIX + iterations + "$");
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.revature.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PoolStats class is an immutable snapshot of a ConnectionPool's counters. The gauges (active, idle, waiting, total) describe the pool at the moment the snapshot was taken; the remaining values are cumulative since the pool was created.
+ */
+public class PoolStats {
+
+    /** The number of connections currently lent out. */
+    private final int active;
+    /** The number of connections currently idle in the pool. */
+    private final int idle;
+    /** The number of callers currently waiting for a connection. */
+    private final int waiting;
+    /** The number of physical connections currently open. */
+    private final int total;
+    /** The maximum number of physical connections the pool may open. */
+    private final int maxSize;
+    /** The number of successful acquisitions. */
+    private final long acquired;
+    /** The total time spent acquiring connections, in nanoseconds. */
+    private final long acquireNanos;
+    /** The longest single acquisition, in nanoseconds. */
+    private final long maxAcquireNanos;
+    /** The number of acquisitions that timed out. */
+    private final long timeouts;
+    /** The number of physical connections opened. */
+    private final long created;
+    /** The number of physical connections closed by the pool. */
+    private final long destroyed;
+
+    public PoolStats(int active, int idle, int waiting, int total, int maxSize, long acquired, long acquireNanos,
+            long maxAcquireNanos, long timeouts, long created, long destroyed) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.acquired = acquired;
+        this.acquireNanos = acquireNanos;
+        this.maxAcquireNanos = maxAcquireNanos;
+        this.timeouts = timeouts;
+        this.created = created;
+        this.destroyed = destroyed;
+    }
+
+    // getters
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getAcquired() {
+        return acquired;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Returns the mean time a caller spent acquiring a connection.
+     *
+     * @return the mean acquire time in microseconds, or 0 if nothing was acquired yet
+     */
+    public double getMeanAcquireMicros() {
+        return acquired == 0 ? 0 : acquireNanos / (double) acquired / 1000.0;
+    }
+
+    /**
+     * Returns the longest time a caller spent acquiring a connection.
+     *
+     * @return the maximum acquire time in microseconds
+     */
+    public long getMaxAcquireMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos);
+    }
+
+    /**
+     * Returns a string representation of the PoolStats object.
+     *
+     * @return a string representation of the pool counters
+     */
+    @Override
+    public String toString() {
+        return "PoolStats{active=" + active +
+                ", idle=" + idle +
+                ", waiting=" + waiting +
+                ", total=" + total + "/" + maxSize +
+                ", acquired=" + acquired +
+                ", meanAcquireMicros=" + getMeanAcquireMicros() +
+                ", maxAcquireMicros=" + getMaxAcquireMicros() +
+                ", timeouts=" + timeouts +
+                ", created=" + created +
+                ", destroyed=" + destroyed + '}';
+    }
+}
@@ -0,0 +1,189 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+
+/**
+ * The QueryCache class keeps the results of search queries, such as the recipes whose name contains a term, so that a popular search is answered from memory instead of running the same LIKE query all day. Results are keyed by the query and its arguments, with the sort column and direction normalized to lower case.
+ *
+ * The cache is stamped with the versions of the tables the results are read from, bumped by the DAO methods that write to them (see {@link TableVersions}), so a write drops exactly the caches reading that table: the cached recipe searches embed their authors and ingredients, so a chef or ingredient write invalidates them as well as a recipe write. Its stats report the hit rate and an estimate of the memory taken by the cached results.
+ */
+public class QueryCache {
+
+    /** The cached results by query and arguments. */
+    private final LruCache<List<Object>, Object> results;
+
+    /**
+     * Constructs an empty QueryCache.
+     *
+     * @param maxEntries the maximum number of results kept
+     * @param ttlMillis how long a result may be served after it was read, in milliseconds
+     * @param version supplies the current version of the tables the results are read from
+     */
+    public QueryCache(int maxEntries, long ttlMillis, LongSupplier version) {
+        this.results = new LruCache<>(maxEntries, ttlMillis, version, QueryCache::estimateBytes);
+    }
+
+    /**
+     * Returns the key of a search.
+     *
+     * @param query the name of the query, such as the service method running it
+     * @param term the search term, or null
+     * @return the key
+     */
+    public static List<Object> key(String query, String term) {
+        return Arrays.asList(query, term);
+    }
+
+    /**
+     * Returns the key of a paginated search.
+     *
+     * @param query the name of the query, such as the service method running it
+     * @param term the search term, or null
+     * @param options the page and sort of the search
+     * @return the key
+     */
+    public static List<Object> key(String query, String term, PageOptions options) {
+        return Arrays.asList(query, term, options.getPageNumber(), options.getPageSize(), lowerCase(options.getSortBy()),
+                lowerCase(options.getSortDirection()));
+    }
+
+    /**
+     * Returns the key of a search reading only some recipe properties.
+     *
+     * @param query the name of the query, such as the service method running it
+     * @param term the search term, or null
+     * @param fields the recipe properties read
+     * @return the key
+     */
+    public static List<Object> key(String query, String term, FieldSelection fields) {
+        return Arrays.asList(query, term, fields);
+    }
+
+    /**
+     * Returns the key of a paginated search reading only some recipe properties.
+     *
+     * @param query the name of the query, such as the service method running it
+     * @param term the search term, or null
+     * @param options the page and sort of the search
+     * @param fields the recipe properties read
+     * @return the key
+     */
+    public static List<Object> key(String query, String term, PageOptions options, FieldSelection fields) {
+        List<Object> key = new ArrayList<>(key(query, term, options));
+        key.add(fields);
+        return key;
+    }
+
+    /**
+     * Returns the key of a search with keyset pagination.
+     *
+     * @param query the name of the query, such as the service method running it
+     * @param term the search term, or null
+     * @param after the cursor token of the page the search follows, or null
+     * @param options the page size and sort of the search, resolved against the cursor
+     * @param fields the recipe properties read
+     * @return the key
+     */
+    public static List<Object> key(String query, String term, String after, PageOptions options, FieldSelection fields) {
+        List<Object> key = new ArrayList<>(key(query, term, options, fields));
+        key.add(after);
+        return key;
+    }
+
+    /**
+     * Returns the cached result of a query, running it on a miss. The result may be shared with other callers, so it must not be modified.
+     *
+     * @param <T> the result type; queries sharing a key must use the same one
+     * @param key the key of the query, from one of the {@code key} methods
+     * @param query runs the query
+     * @return the cached or queried result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(List<Object> key, Supplier<T> query) {
+        return (T) results.get(key, ignored -> query.get());
+    }
+
+    /**
+     * Removes every result.
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    /**
+     * @return a snapshot of the cache counters, including the hit rate and the estimated memory used
+     */
+    public CacheStats getStats() {
+        return results.getStats();
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase() : null;
+    }
+
+    /**
+     * Estimates the memory taken by a result: object headers, fields and string contents, counting objects shared within the result once.
+     *
+     * @param result the result
+     * @return the estimated size in bytes
+     */
+    static long estimateBytes(Object result) {
+        return estimateBytes(result, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static long estimateBytes(Object value, Set<Object> counted) {
+        if (value == null || !counted.add(value)) {
+            return 0;
+        }
+        if (value instanceof String) {
+            // the String and its byte array, one byte per character for Latin-1 text
+            return 40 + ((String) value).length();
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            long bytes = 40 + 4L * collection.size();
+            for (Object element : collection) {
+                bytes += estimateBytes(element, counted);
+            }
+            return bytes;
+        }
+        if (value instanceof Page) {
+            return 32 + estimateBytes(((Page<?>) value).getItems(), counted);
+        }
+        if (value instanceof CursorPage) {
+            CursorPage<?> page = (CursorPage<?>) value;
+            return 24 + estimateBytes(page.getItems(), counted) + estimateBytes(page.getNextCursor(), counted);
+        }
+        if (value instanceof Recipe) {
+            Recipe recipe = (Recipe) value;
+            return 32 + estimateBytes(recipe.getName(), counted) + estimateBytes(recipe.getInstructions(), counted)
+                    + estimateBytes(recipe.getAuthor(), counted) + estimateBytes(recipe.getIngredients(), counted);
+        }
+        if (value instanceof Chef) {
+            Chef chef = (Chef) value;
+            return 32 + estimateBytes(chef.getUsername(), counted) + estimateBytes(chef.getEmail(), counted)
+                    + estimateBytes(chef.getPassword(), counted);
+        }
+        if (value instanceof RecipeIngredient) {
+            RecipeIngredient ingredient = (RecipeIngredient) value;
+            return 32 + estimateBytes(ingredient.getName(), counted) + estimateBytes(ingredient.getUnit(), counted);
+        }
+        if (value instanceof Ingredient) {
+            return 24 + estimateBytes(((Ingredient) value).getName(), counted);
+        }
+        return 16;
+    }
+}
@@ -0,0 +1,89 @@
+package com.revature.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.javalin.http.Context;
+import io.javalin.http.ServiceUnavailableResponse;
+
+/**
+ * The RequestPermits class caps the number of requests doing database work at the same time. With handlers running on virtual threads nothing else limits concurrency, and thousands of requests contending for a handful of pooled connections would mostly time out in the pool; instead, requests past the cap wait for a permit in arrival order and are turned away with a 503 status once they have waited {@code timeoutMillis}.
+ *
+ * {@link #acquire(Context)} is registered as a before-handler on the routes that query the database and {@link #release(Context)} as an after-handler on every route; the permit is recorded on the request, so it is released exactly once, even when a later before-handler rejects the request.
+ */
+public class RequestPermits {
+
+    /** The request attribute marking a request that holds a permit. */
+    private static final String PERMIT_ATTRIBUTE = "reva.requestPermit";
+
+    /** The permits, handed out in arrival order. */
+    private final Semaphore semaphore;
+    /** The number of permits. */
+    private final int permits;
+    /** How long a request waits for a permit, in milliseconds. */
+    private final long timeoutMillis;
+
+    /**
+     * Constructs a RequestPermits instance.
+     *
+     * @param permits the maximum number of requests doing database work at the same time, usually the connection pool size
+     * @param timeoutMillis how long a request waits for a permit before it is rejected, in milliseconds
+     */
+    public RequestPermits(int permits, long timeoutMillis) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        this.semaphore = new Semaphore(permits, true);
+        this.permits = permits;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Waits for a permit for the request.
+     *
+     * @param ctx the Javalin context of the request
+     * @throws ServiceUnavailableResponse if no permit became free in time
+     */
+    public void acquire(Context ctx) throws InterruptedException {
+        if (ctx.attribute(PERMIT_ATTRIBUTE) != null) {
+            return; // matched by more than one before-handler
+        }
+        if (!semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new ServiceUnavailableResponse("Server busy, try again later");
+        }
+        ctx.attribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    /**
+     * Returns the request's permit, if it holds one.
+     *
+     * @param ctx the Javalin context of the request
+     */
+    public void release(Context ctx) {
+        if (ctx.attribute(PERMIT_ATTRIBUTE) != null) {
+            ctx.attribute(PERMIT_ATTRIBUTE, null);
+            semaphore.release();
+        }
+    }
+
+    /**
+     * @return the maximum number of requests doing database work at the same time
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * @return the number of permits currently free
+     */
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * @return an estimate of the number of requests waiting for a permit
+     */
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+}
@@ -0,0 +1,159 @@
+package com.revature.util;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+import io.javalin.json.JsonMapperKt;
+
+/**
+ * The ResponseCache class keeps serialized JSON response bodies of read endpoints, so that a repeated request is answered by writing stored bytes instead of querying and serializing again. Bodies large enough to be compressed by the {@link ResponseCompression} are also stored gzipped and sent as such to clients that accept gzip, which spares the server compressing them on every request.
+ *
+ * Bodies are keyed by the request path, the query parameters in a normalized order and the response's entity tag, which is the tag of the tables narrowed to that path and query (see {@link ETags}). The tag moves with every write to the tables the response is read from, so a write through any service makes the stored bodies unreachable at once; they are then dropped as the least recently used entries.
+ */
+public class ResponseCache {
+
+    /** The stored bodies, or null to serialize every response. */
+    private final LruCache<String, Body> cache;
+    /** Compresses the stored bodies and counts the bytes the compressed ones save. */
+    private final ResponseCompression compression;
+
+    /**
+     * Constructs a ResponseCache that stores nothing and lets Javalin serialize every response.
+     */
+    public ResponseCache() {
+        this.cache = null;
+        this.compression = null;
+    }
+
+    /**
+     * Constructs an empty ResponseCache.
+     *
+     * @param maxEntries the maximum number of bodies kept
+     * @param ttlMillis how long a body may be served after it was serialized, in milliseconds
+     */
+    public ResponseCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, new ResponseCompression());
+    }
+
+    /**
+     * Constructs an empty ResponseCache that stores bodies compressed with the server's compression settings.
+     *
+     * @param maxEntries the maximum number of bodies kept
+     * @param ttlMillis how long a body may be served after it was serialized, in milliseconds
+     * @param compression the compression the server applies to responses
+     */
+    public ResponseCache(int maxEntries, long ttlMillis, ResponseCompression compression) {
+        // the version is part of every key, so the entries need no version stamp of their own
+        this.cache = new LruCache<>(maxEntries, ttlMillis, () -> 0,
+                body -> body.plain.length + (body.gzipped != null ? body.gzipped.length : 0));
+        this.compression = compression;
+    }
+
+    /**
+     * Responds with a 200 status and the JSON body for the request, serializing and storing it on a miss. A client naming the current entity tag is answered with 304 Not Modified before anything is looked up or serialized. Otherwise a found body is tagged, and answered with 304 if If-None-Match is {@code *}; a missing one is neither tagged nor matched, so a conditional request for it still gets the caller's 404.
+     *
+     * @param ctx the Javalin context of the request
+     * @param etag the entity tag of the current data, as returned by {@link ETags#forTables(String...)}; the response carries it narrowed to the request
+     * @param value computes the object to serialize, usually by querying the database; null if there is none
+     * @return true if a response was sent, false if the value was null and the caller should respond itself
+     */
+    public boolean json(Context ctx, String etag, Supplier<?> value) {
+        String resource = resource(ctx);
+        String tag = ETags.forResource(etag, resource);
+        if (ETags.heldByClient(ctx, tag)) {
+            return true;
+        }
+        if (cache == null) {
+            Object object = value.get();
+            if (object == null) {
+                return false;
+            }
+            if (ETags.notModified(ctx, tag)) {
+                return true;
+            }
+            ctx.status(200);
+            ctx.json(object);
+            return true;
+        }
+        Body body = cache.get(tag + ' ' + resource, key -> serialize(ctx, value));
+        if (body == null) {
+            return false;
+        }
+        if (ETags.notModified(ctx, tag)) {
+            return true;
+        }
+        ctx.status(200);
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        if (body.gzipped != null) {
+            ctx.header("Vary", "Accept-Encoding");
+            if (compression.allows(ctx)) {
+                // the compression after-handler leaves responses that already have a Content-Encoding alone
+                ctx.header("Content-Encoding", "gzip");
+                ctx.result(body.gzipped);
+                compression.recordPrecompressed(body.plain.length, body.gzipped.length);
+                return true;
+            }
+        }
+        ctx.result(body.plain);
+        return true;
+    }
+
+    /**
+     * Removes every stored body.
+     */
+    public void clear() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return a snapshot of the cache counters, or null if nothing is stored
+     */
+    public CacheStats getStats() {
+        return cache == null ? null : cache.getStats();
+    }
+
+    private Body serialize(Context ctx, Supplier<?> value) {
+        Object object = value.get();
+        if (object == null) {
+            return null;
+        }
+        byte[] plain = JsonMapperKt.jsonMapper(ctx).toJsonString(object, object.getClass()).getBytes(StandardCharsets.UTF_8);
+        return new Body(plain, compression != null ? compression.gzip(plain) : null);
+    }
+
+    /**
+     * Builds the normalized resource from the path and the query parameters sorted by name and re-encoded; the values of a repeated parameter keep their order.
+     */
+    private static String resource(Context ctx) {
+        StringBuilder resource = new StringBuilder().append(ctx.path());
+        char separator = '?';
+        for (Map.Entry<String, List<String>> param : new TreeMap<>(ctx.queryParamMap()).entrySet()) {
+            for (String value : param.getValue()) {
+                resource.append(separator).append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                        .append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return resource.toString();
+    }
+
+    /** A serialized body, plain and, if it is large enough, gzipped. */
+    private static class Body {
+
+        private final byte[] plain;
+        private final byte[] gzipped;
+
+        private Body(byte[] plain, byte[] gzipped) {
+            this.plain = plain;
+            this.gzipped = gzipped;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.revature.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import io.javalin.http.Context;
+
+/**
+ * The ResponseCompression class gzips JSON and text responses for clients that accept gzip. It replaces Javalin's built-in compression, which cannot be tuned per route or measured, and runs as an after-handler: once a handler has set an in-memory result of at least {@code minSize} bytes, the result is compressed at the configured level and replaced. Responses that already carry a Content-Encoding, such as the pre-compressed bodies of a {@link ResponseCache}, are left alone, and routes can opt out by their path pattern (for example {@code /recipes/{id}}).
+ *
+ * Only gzip is offered: the JDK has no brotli codec, and the available Java brotli libraries wrap native code.
+ */
+public class ResponseCompression {
+
+    /** The default minimum size of a compressed response, the same as Javalin's. */
+    public static final int DEFAULT_MIN_SIZE = 1500;
+    /** The default gzip level, trading a slightly larger result for much less CPU than level 9. */
+    public static final int DEFAULT_LEVEL = 6;
+
+    /** The smallest response that is compressed, in bytes. */
+    private final int minSize;
+    /** The gzip compression level, from 1 (fastest) to 9 (smallest). */
+    private final int level;
+    /** The path patterns of the routes whose responses are never compressed. */
+    private final Set<String> excludedRoutes;
+
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder precompressedResponses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+
+    /**
+     * Constructs a ResponseCompression with the default size threshold and level that compresses every route.
+     */
+    public ResponseCompression() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_LEVEL, Set.of());
+    }
+
+    /**
+     * Constructs a ResponseCompression.
+     *
+     * @param minSize the smallest response that is compressed, in bytes
+     * @param level the gzip compression level, from 1 (fastest) to 9 (smallest)
+     * @param excludedRoutes the path patterns of the routes whose responses are never compressed
+     */
+    public ResponseCompression(int minSize, int level, Collection<String> excludedRoutes) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("level must be between 1 and 9");
+        }
+        this.minSize = Math.max(minSize, 0);
+        this.level = level;
+        this.excludedRoutes = Set.copyOf(excludedRoutes);
+    }
+
+    /**
+     * Creates a ResponseCompression from the reva.compression.minSize, reva.compression.level and reva.compression.excludedRoutes (a comma separated list of path patterns) system properties.
+     *
+     * @return the configured ResponseCompression
+     */
+    public static ResponseCompression fromProperties() {
+        Set<String> excludedRoutes = Arrays.stream(System.getProperty("reva.compression.excludedRoutes", "").split(","))
+                .map(String::trim).filter(route -> !route.isEmpty()).collect(Collectors.toSet());
+        return new ResponseCompression(Integer.getInteger("reva.compression.minSize", DEFAULT_MIN_SIZE),
+                Integer.getInteger("reva.compression.level", DEFAULT_LEVEL), excludedRoutes);
+    }
+
+    /**
+     * Compresses the response of the request if it is eligible. Register as an after-handler.
+     *
+     * @param ctx the Javalin context of the request
+     */
+    public void compress(Context ctx) {
+        if (ctx.res().containsHeader("Content-Encoding") || !isCompressible(ctx.res().getContentType())
+                || !allows(ctx)) {
+            return;
+        }
+        InputStream result = ctx.resultInputStream();
+        // streamed results are left alone; reading them here would buffer the whole stream
+        if (!(result instanceof ByteArrayInputStream)) {
+            return;
+        }
+        byte[] plain = ((ByteArrayInputStream) result).readAllBytes();
+        if (plain.length < minSize) {
+            ctx.result(plain);
+            return;
+        }
+        ctx.header("Vary", "Accept-Encoding");
+        byte[] compressed = gzip(plain);
+        if (compressed != null) {
+            ctx.header("Content-Encoding", "gzip");
+            ctx.result(compressed);
+            record(plain.length, compressed.length, false);
+        } else {
+            ctx.result(plain);
+        }
+    }
+
+    /**
+     * Tells whether the response of the request may be sent gzipped: the client accepts gzip and the route has not opted out.
+     *
+     * @param ctx the Javalin context of the request
+     * @return true if the response may be gzipped
+     */
+    public boolean allows(Context ctx) {
+        return acceptsGzip(ctx.header("Accept-Encoding")) && !excludedRoutes.contains(ctx.endpointHandlerPath());
+    }
+
+    /**
+     * Gzips a response body, for example one about to be cached.
+     *
+     * @param plain the body
+     * @return the gzipped body, or null if the body is below the size threshold or does not get smaller
+     */
+    public byte[] gzip(byte[] plain) {
+        if (plain.length < minSize) {
+            return null;
+        }
+        long start = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // gzip never blocks, so the elapsed time is CPU time; thread CPU time is not measurable on virtual threads
+        compressionNanos.add(System.nanoTime() - start);
+        return out.size() < plain.length ? out.toByteArray() : null;
+    }
+
+    /**
+     * Records a response sent from bytes compressed earlier by {@link #gzip(byte[])}.
+     *
+     * @param plainLength the size of the body before compression, in bytes
+     * @param compressedLength the size of the body as sent, in bytes
+     */
+    public void recordPrecompressed(int plainLength, int compressedLength) {
+        record(plainLength, compressedLength, true);
+    }
+
+    /**
+     * @return a snapshot of the compression counters
+     */
+    public CompressionStats getStats() {
+        return new CompressionStats(compressedResponses.sum(), precompressedResponses.sum(), bytesIn.sum(),
+                bytesOut.sum(), compressionNanos.sum());
+    }
+
+    private void record(int plainLength, int compressedLength, boolean precompressed) {
+        compressedResponses.increment();
+        if (precompressed) {
+            precompressedResponses.increment();
+        }
+        bytesIn.add(plainLength);
+        bytesOut.add(compressedLength);
+    }
+
+    private static boolean isCompressible(String contentType) {
+        return contentType != null && (contentType.startsWith("application/json") || contentType.startsWith("text/"));
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header allows gzip, that is lists gzip or * without a zero quality.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.revature.util;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * The SchemaMigrations class brings the database schema up to date by applying versioned SQL scripts in order. The version of every applied script is recorded in the SCHEMA_VERSION table, so each script runs once per database and a restart only applies the scripts added since the last one, leaving the data in place.
+ *
+ * Version 1 is the original `sqlScript.sql`, which creates the tables and seeds them. A database created before this class existed (tables present, no SCHEMA_VERSION) is recorded at version 1 without running it again. Later scripts live in `db/migration` and are listed in {@link #MIGRATIONS}; add new ones at the end and never edit one that has shipped.
+ */
+public class SchemaMigrations {
+
+    /** The migration scripts on the classpath; the script at index i is version i + 1. */
+    private static final List<String> MIGRATIONS = List.of(
+            "/sqlScript.sql",
+            "/db/migration/V2__secondary_indexes.sql",
+            "/db/migration/V3__mark_plain_text_passwords.sql");
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Applies every migration newer than the recorded schema version.
+     *
+     * @return the number of migrations applied
+     * @throws IllegalStateException if a migration fails; the schema is left at the last version that succeeded
+     */
+    public static int migrate() {
+        int applied = 0;
+        try (Connection conn = new ConnectionUtil().getConnection()) {
+            execute(conn, "CREATE TABLE IF NOT EXISTS SCHEMA_VERSION (version INTEGER PRIMARY KEY,"
+                    + " script VARCHAR(255) NOT NULL, installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            int current = currentVersion(conn);
+            if (current == 0 && tableExists(conn, "CHEF")) {
+                // created by an earlier build that replayed the seed script on every start
+                record(conn, 1, MIGRATIONS.get(0));
+                current = 1;
+            }
+            for (int version = current + 1; version <= MIGRATIONS.size(); version++) {
+                String script = MIGRATIONS.get(version - 1);
+                try {
+                    execute(conn, readScript(script));
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Migration " + version + " (" + script + ") failed", e);
+                }
+                record(conn, version, script);
+                applied++;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to migrate the database schema", e);
+        }
+        if (applied > 0) {
+            TableVersions.bumpAll();
+        }
+        return applied;
+    }
+
+    /**
+     * Returns the latest applied schema version.
+     *
+     * @return the schema version, or 0 if no migration has been applied
+     */
+    public static int currentVersion() {
+        try (Connection conn = new ConnectionUtil().getConnection()) {
+            return tableExists(conn, "SCHEMA_VERSION") ? currentVersion(conn) : 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read the schema version", e);
+        }
+    }
+
+    /**
+     * @return the number of the newest migration shipped with the application
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.size();
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM SCHEMA_VERSION")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (var ps = conn.prepareStatement("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES"
+                + " WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static void record(Connection conn, int version, String script) throws SQLException {
+        try (var ps = conn.prepareStatement("INSERT INTO SCHEMA_VERSION (version, script) VALUES (?, ?)")) {
+            ps.setInt(1, version);
+            ps.setString(2, script);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads a script from the classpath. Any lines starting with comment syntax are ignored.
+     */
+    private static String readScript(String script) {
+        InputStream inputStream = SchemaMigrations.class.getResourceAsStream(script);
+        if (inputStream == null) {
+            throw new IllegalStateException("Migration script not found: " + script);
+        }
+        StringBuilder sql = new StringBuilder();
+        try (Scanner sc = new Scanner(inputStream)) {
+            while (sc.hasNextLine()) {
+                String nextLine = sc.nextLine();
+                if (!nextLine.startsWith("--")) {
+                    sql.append(nextLine).append(' ');
+                }
+            }
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package com.revature.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.revature.model.Chef;
+
+/**
+ * The SessionStore class keeps track of logged in chefs, indexed by session token. It is safe to use from any number of request threads: lookups, logins and logouts are single operations on a ConcurrentHashMap and never block each other.
+ *
+ * A session ends when it has not been used for {@code idleTimeoutMillis}, or {@code absoluteTimeoutMillis} after login, whichever comes first. Expired sessions are never returned; they are removed when looked up and by a background sweep (see {@link #startSweeper(long)}). The store holds at most {@code maxSessions} sessions: a login into a full store first sweeps it and, if it is still full, ends the least recently used session.
+ */
+public class SessionStore implements AutoCloseable {
+
+    /** How often the last-used time of a session is written, in nanoseconds; skipping the write on most lookups keeps hot sessions from contending on it. */
+    private static final long TOUCH_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** The maximum number of sessions kept. */
+    private final int maxSessions;
+    /** How long a session may go unused, in nanoseconds. */
+    private final long idleTimeoutNanos;
+    /** How long a session may last after login, in nanoseconds. */
+    private final long absoluteTimeoutNanos;
+    /** The sessions, indexed by token. */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    /** The background sweeper, or null if it was not started. */
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Constructs an empty SessionStore.
+     *
+     * @param maxSessions the maximum number of sessions kept
+     * @param idleTimeoutMillis how long a session may go unused, in milliseconds
+     * @param absoluteTimeoutMillis how long a session may last after login, in milliseconds
+     */
+    public SessionStore(int maxSessions, long idleTimeoutMillis, long absoluteTimeoutMillis) {
+        if (maxSessions < 1 || idleTimeoutMillis < 1 || absoluteTimeoutMillis < 1) {
+            throw new IllegalArgumentException("maxSessions and the timeouts must be positive");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.absoluteTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(absoluteTimeoutMillis);
+    }
+
+    /**
+     * Starts a daemon thread that removes expired sessions periodically, so that abandoned sessions do not pile up between logins.
+     *
+     * @param periodMillis the time between sweeps, in milliseconds
+     * @return this store
+     */
+    public synchronized SessionStore startSweeper(long periodMillis) {
+        if (sweeper == null) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweep, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Starts a session, replacing any existing session with the same token.
+     *
+     * @param token the session token
+     * @param chef the logged in chef
+     */
+    public void put(String token, Chef chef) {
+        if (sessions.size() >= maxSessions && !sessions.containsKey(token)) {
+            makeRoom();
+        }
+        sessions.put(token, new Session(chef, System.nanoTime()));
+    }
+
+    /**
+     * Looks up the chef of a session and marks the session as used.
+     *
+     * @param token the session token
+     * @return the logged in chef, or null if there is no such session or it expired
+     */
+    public Chef get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (isExpired(session, now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        if (now - session.lastUsedAt > TOUCH_GRANULARITY_NANOS) {
+            session.lastUsedAt = now;
+        }
+        return session.chef;
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token
+     * @return true if the session existed
+     */
+    public boolean remove(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Removes every expired session.
+     *
+     * @return the number of sessions removed
+     */
+    public int sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext();) {
+            if (isExpired(it.next(), now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of sessions, possibly including expired ones that were not swept yet
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Ends every session.
+     */
+    public void clear() {
+        sessions.clear();
+    }
+
+    /**
+     * Stops the background sweeper, if it was started.
+     */
+    @Override
+    public synchronized void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Sweeps the store and, if it is still full, ends the least recently used session. Logins into a full store are serialized here; everything else stays lock-free.
+     */
+    private synchronized void makeRoom() {
+        if (sessions.size() < maxSessions) {
+            return;
+        }
+        sweep();
+        while (sessions.size() >= maxSessions) {
+            Map.Entry<String, Session> eldest = null;
+            for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+                if (eldest == null || entry.getValue().lastUsedAt - eldest.getValue().lastUsedAt < 0) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            sessions.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return now - session.lastUsedAt >= idleTimeoutNanos || now - session.createdAt >= absoluteTimeoutNanos;
+    }
+
+    /** A logged in chef together with the login time and the time the session was last used. */
+    private static class Session {
+
+        private final Chef chef;
+        private final long createdAt;
+        private volatile long lastUsedAt;
+
+        private Session(Chef chef, long createdAt) {
+            this.chef = chef;
+            this.createdAt = createdAt;
+            this.lastUsedAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.revature.model.Chef;
+
+/**
+ * The SignedTokens class issues and verifies stateless session tokens. A token carries the chef's id, username and admin flag and its expiry time, signed with HMAC-SHA256, so any node holding the same key can authenticate it without shared session state:
+ *
+ * {@code base64url("1|id|admin|expiresAtMillis|tokenId|username") + "." + base64url(signature)}
+ *
+ * Logging out adds the token's id to a revocation list, which is kept only until the token would have expired anyway. The list lives in this process; with several nodes a revoked token stays valid on the others until it expires, so the token lifetime should be kept short.
+ */
+public class SignedTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** The signing key. */
+    private final SecretKeySpec key;
+    /** How long an issued token stays valid, in milliseconds. */
+    private final long ttlMillis;
+    /** A Mac per thread, since Mac instances are not thread-safe. */
+    private final ThreadLocal<Mac> macs;
+    /** The ids of revoked tokens, mapped to the time the tokens expire. */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a SignedTokens instance.
+     *
+     * @param key the signing key, at least 32 bytes
+     * @param ttlMillis how long an issued token stays valid, in milliseconds
+     */
+    public SignedTokens(byte[] key, long ttlMillis) {
+        if (key == null || key.length < 32) {
+            throw new IllegalArgumentException("The signing key must be at least 32 bytes");
+        }
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("ttlMillis must be positive");
+        }
+        this.key = new SecretKeySpec(key.clone(), ALGORITHM);
+        this.ttlMillis = ttlMillis;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Creates a SignedTokens instance from the reva.auth.signingKey (base64) and reva.auth.tokenTtlMillis system properties. Without a configured key a random one is generated, so tokens are only accepted by this process and are lost on restart.
+     *
+     * @return the configured SignedTokens instance
+     */
+    public static SignedTokens fromProperties() {
+        String configuredKey = System.getProperty("reva.auth.signingKey");
+        byte[] key;
+        if (configuredKey != null && !configuredKey.isEmpty()) {
+            key = Base64.getDecoder().decode(configuredKey);
+        } else {
+            key = new byte[32];
+            RANDOM.nextBytes(key);
+        }
+        return new SignedTokens(key, Long.getLong("reva.auth.tokenTtlMillis", 43200000));
+    }
+
+    /**
+     * Issues a token for a chef.
+     *
+     * @param chef the authenticated chef
+     * @return the signed token
+     */
+    public String issue(Chef chef) {
+        byte[] tokenId = new byte[12];
+        RANDOM.nextBytes(tokenId);
+        String payload = "1|" + chef.getId() + "|" + chef.isAdmin() + "|" + (System.currentTimeMillis() + ttlMillis)
+                + "|" + ENCODER.encodeToString(tokenId) + "|" + chef.getUsername();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Verifies a token.
+     *
+     * @param token the token
+     * @return a Chef holding the id, username and admin flag from the token, or null if the token is malformed, forged, expired or revoked
+     */
+    public Chef verify(String token) {
+        Claims claims = parse(token);
+        if (claims == null || revoked.containsKey(claims.tokenId)) {
+            return null;
+        }
+        return new Chef(claims.chefId, claims.username, null, null, claims.admin);
+    }
+
+    /**
+     * Revokes a token, so that it is rejected from now on. Invalid tokens are ignored.
+     *
+     * @param token the token
+     */
+    public void revoke(String token) {
+        Claims claims = parse(token);
+        if (claims == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // tokens past their expiry are rejected anyway, so their ids can be forgotten
+        for (Iterator<Long> it = revoked.values().iterator(); it.hasNext();) {
+            if (it.next() <= now) {
+                it.remove();
+            }
+        }
+        revoked.put(claims.tokenId, claims.expiresAt);
+    }
+
+    /**
+     * @return the number of revoked tokens that have not expired yet
+     */
+    public int revokedCount() {
+        return revoked.size();
+    }
+
+    /**
+     * Checks the signature and expiry of a token and extracts its claims.
+     */
+    private Claims parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payloadBytes))) {
+                return null;
+            }
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 6);
+            if (parts.length != 6 || !parts[0].equals("1")) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(parts[3]);
+            if (expiresAt <= System.currentTimeMillis()) {
+                return null;
+            }
+            return new Claims(Integer.parseInt(parts[1]), Boolean.parseBoolean(parts[2]), expiresAt, parts[4], parts[5]);
+        } catch (IllegalArgumentException e) {
+            return null; // not base64 or not a number
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /** The verified contents of a token. */
+    private static class Claims {
+
+        private final int chefId;
+        private final boolean admin;
+        private final long expiresAt;
+        private final String tokenId;
+        private final String username;
+
+        private Claims(int chefId, boolean admin, long expiresAt, String tokenId, String username) {
+            this.chefId = chefId;
+            this.admin = admin;
+            this.expiresAt = expiresAt;
+            this.tokenId = tokenId;
+            this.username = username;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.revature.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The SingleFlight class coalesces concurrent identical reads: while a load for a key is in flight, other callers asking for the same key wait for its result instead of running the same query again. Nothing is kept once the load completes; this only collapses a burst of simultaneous requests, such as a stampede on one popular recipe, into a single database round trip.
+ *
+ * Like {@link LruCache}, a flight is tied to the version of the data read before it started, typically derived from {@link TableVersions}, so a caller arriving after a write never joins a load that may have read the data before it. A caller waits at most {@code waitMillis} for a flight and then loads the value itself, and a load that fails fails every caller that joined it.
+ */
+public class SingleFlight {
+
+    /** The default longest wait for another caller's load, in milliseconds. */
+    public static final long DEFAULT_WAIT_MILLIS = 5000;
+
+    /** The longest wait for another caller's load, in nanoseconds. */
+    private final long waitNanos;
+    /** The version the flights are tied to. */
+    private final LongSupplier version;
+
+    /** The loads in flight by key and version. */
+    private final ConcurrentHashMap<List<Object>, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waiting = new LongAdder();
+
+    /**
+     * Constructs a SingleFlight.
+     *
+     * @param waitMillis the longest a caller waits for another caller's load before loading the value itself, in milliseconds
+     * @param version supplies the current version of the data the values are derived from
+     */
+    public SingleFlight(long waitMillis, LongSupplier version) {
+        if (waitMillis < 1) {
+            throw new IllegalArgumentException("waitMillis must be positive");
+        }
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        this.version = version;
+    }
+
+    /**
+     * Returns the result of the load in flight for a key, or runs the loader if there is none. The result may be shared with other callers, so it must not be modified.
+     *
+     * @param <T> the value type; callers sharing a key must use the same one
+     * @param key the key, such as a list of the method name and its arguments
+     * @param loader computes the value, usually by querying the database
+     * @return the loaded value, possibly null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        List<Object> flightKey = List.of(key, version.getAsLong());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(flightKey, flight);
+        if (inFlight != null) {
+            return (T) join(inFlight, loader);
+        }
+
+        loads.increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * @return a snapshot of the coalescing counters
+     */
+    public SingleFlightStats getStats() {
+        return new SingleFlightStats(loads.sum(), coalesced.sum(), timeouts.sum(), flights.size(), waiting.intValue());
+    }
+
+    /**
+     * Waits for another caller's load, falling back to running the loader once the wait is over.
+     */
+    private Object join(CompletableFuture<Object> inFlight, Supplier<?> loader) {
+        waiting.increment();
+        try {
+            Object value = inFlight.get(waitNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return value;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced read", e);
+        } finally {
+            waiting.decrement();
+        }
+        loads.increment();
+        return loader.get();
+    }
+}
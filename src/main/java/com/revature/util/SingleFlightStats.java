@@ -0,0 +1,61 @@
+package com.revature.util;
+
+/**
+ * The SingleFlightStats class is an immutable snapshot of a SingleFlight's counters, cumulative since it was created.
+ */
+public class SingleFlightStats {
+
+    /** The number of loads run, each answering one or more callers. */
+    private final long loads;
+    /** The number of calls answered by another caller's load instead of one of their own. */
+    private final long coalesced;
+    /** The number of calls that stopped waiting for another caller's load and ran their own. */
+    private final long timeouts;
+    /** The number of loads in flight when the snapshot was taken. */
+    private final int inFlight;
+    /** The number of calls waiting for another caller's load when the snapshot was taken. */
+    private final int waiting;
+
+    public SingleFlightStats(long loads, long coalesced, long timeouts, int inFlight, int waiting) {
+        this.loads = loads;
+        this.coalesced = coalesced;
+        this.timeouts = timeouts;
+        this.inFlight = inFlight;
+        this.waiting = waiting;
+    }
+
+    // getters
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Returns a string representation of the SingleFlightStats object.
+     *
+     * @return a string representation of the coalescing counters
+     */
+    @Override
+    public String toString() {
+        return "SingleFlightStats{loads=" + loads +
+                ", coalesced=" + coalesced +
+                ", timeouts=" + timeouts +
+                ", inFlight=" + inFlight +
+                ", waiting=" + waiting + '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.revature.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The TableVersions class keeps a change counter for each database table. DAO write methods bump the counter of every table they modify, so anything derived from a table's contents (cached counts, cached results) can be stamped with the version it was computed at and discarded once the version moves on.
+ *
+ * Counters are process-wide and start at zero when the application starts.
+ */
+public class TableVersions {
+
+    /** Table name for chefs. */
+    public static final String CHEF = "CHEF";
+    /** Table name for recipes. */
+    public static final String RECIPE = "RECIPE";
+    /** Table name for ingredients. */
+    public static final String INGREDIENT = "INGREDIENT";
+    /** Table name for the recipe/ingredient join table. */
+    public static final String RECIPE_INGREDIENT = "RECIPE_INGREDIENT";
+
+    /** The change counter of each table, indexed by table name. */
+    private static final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private TableVersions() {
+    }
+
+    /**
+     * Returns the current version of a table.
+     *
+     * @param table the table name
+     * @return the number of writes recorded against the table
+     */
+    public static long get(String table) {
+        return counter(table).get();
+    }
+
+    /**
+     * Records a write against one or more tables.
+     *
+     * @param tables the names of the modified tables
+     */
+    public static void bump(String... tables) {
+        for (String table : tables) {
+            counter(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a write against every table, for operations such as a schema reset that replace all data at once.
+     */
+    public static void bumpAll() {
+        bump(CHEF, RECIPE, INGREDIENT, RECIPE_INGREDIENT);
+    }
+
+    private static AtomicLong counter(String table) {
+        return versions.computeIfAbsent(table, key -> new AtomicLong());
+    }
+}
@@ -0,0 +1,301 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The TrigramIndex class answers substring searches on one text column of a table (for example INGREDIENT.name) from memory, as a replacement for {@code column LIKE '%term%'} queries, which no B-tree index can serve. Every value is split into its three-character substrings (trigrams); a search intersects the id lists of the term's trigrams and then verifies each candidate with {@link String#contains}, so the result is exactly the set of rows the LIKE query would return. Terms shorter than three characters are answered by checking every value.
+ *
+ * An unselective term, one matching a large share of the table, is not answered from the index: binding thousands of ids into {@code id = ANY(?)} and paging them in SQL costs more than the LIKE scan it replaces, so such searches return null and the DAO runs the LIKE query.
+ *
+ * The owning DAO keeps the index current by calling {@link #put(int, String)} and {@link #remove(int)} from its create, update and delete methods, right after bumping the table's version (see {@link TableVersions}) for that write. An incremental update is only applied when the index was current up to that bump; writes the DAO does not report, such as cascading deletes or a schema reset, leave the index behind the table version and make the next search reload it from the database.
+ */
+public class TrigramIndex {
+
+    /** The default number of matches below which the index always answers, since binding that few ids is cheap. */
+    public static final int DEFAULT_MIN_FALLBACK_MATCHES = 1000;
+    /** The default share of the table a term may match before the search falls back to the LIKE query. */
+    public static final double DEFAULT_MAX_MATCH_FRACTION = 0.25;
+
+    /** A utility class for establishing connections to the database. */
+    private final ConnectionUtil connectionUtil;
+    /** The indexed table. */
+    private final String table;
+    /** The indexed column. */
+    private final String column;
+    /** The number of matches below which the index always answers. */
+    private final int minFallbackMatches;
+    /** The share of the table a term may match before the search falls back to the LIKE query. */
+    private final double maxMatchFraction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** The indexed value of each row, indexed by id. */
+    private final Map<Integer, String> values = new HashMap<>();
+    /** The ids of the rows containing each trigram, in ascending order. */
+    private final Map<String, IdList> postings = new HashMap<>();
+    /** The number of entries in all posting lists. */
+    private int entries;
+    /** The number of posting entries left behind by updates and deletes; they are filtered out by verification. */
+    private int staleEntries;
+    /** The table version the index reflects, or -1 before it is first loaded. */
+    private volatile long version = -1;
+
+    /**
+     * Constructs a TrigramIndex over a column; it is loaded on first use.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     * @param table the table name, one of the {@link TableVersions} constants
+     * @param column the text column to index
+     */
+    public TrigramIndex(ConnectionUtil connectionUtil, String table, String column) {
+        this(connectionUtil, table, column, DEFAULT_MIN_FALLBACK_MATCHES, DEFAULT_MAX_MATCH_FRACTION);
+    }
+
+    /**
+     * Constructs a TrigramIndex over a column with the given selectivity limits; it is loaded on first use. A search falls back to the LIKE query when it matches at least {@code minFallbackMatches} rows and more than {@code maxMatchFraction} of the table.
+     *
+     * @param connectionUtil the utility used to connect to the database
+     * @param table the table name, one of the {@link TableVersions} constants
+     * @param column the text column to index
+     * @param minFallbackMatches the number of matches below which the index always answers
+     * @param maxMatchFraction the share of the table a term may match before the search falls back
+     */
+    public TrigramIndex(ConnectionUtil connectionUtil, String table, String column, int minFallbackMatches,
+            double maxMatchFraction) {
+        this.connectionUtil = connectionUtil;
+        this.table = table;
+        this.column = column;
+        this.minFallbackMatches = minFallbackMatches;
+        this.maxMatchFraction = maxMatchFraction;
+    }
+
+    /**
+     * Finds the rows whose value contains the term.
+     *
+     * @param term the substring to look for, matched case-sensitively like LIKE
+     * @return the ids of the matching rows in ascending order, or null if the term holds a LIKE wildcard or escape character or matches too much of the table, and the caller should run the LIKE query instead
+     */
+    public int[] search(String term) {
+        if (term.indexOf('%') >= 0 || term.indexOf('_') >= 0 || term.indexOf('\\') >= 0) {
+            return null;
+        }
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            if (term.length() < 3) {
+                int[] matches = values.entrySet().stream().filter(entry -> entry.getValue().contains(term))
+                        .mapToInt(Map.Entry::getKey).sorted().toArray();
+                return isSelective(matches.length) ? matches : null;
+            }
+            List<IdList> lists = new ArrayList<>();
+            for (String trigram : trigrams(term)) {
+                IdList list = postings.get(trigram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            // walk the shortest list and probe the others, then verify against the current values
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            IdList shortest = lists.get(0);
+            int[] result = new int[shortest.size];
+            int n = 0;
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int id = shortest.ids[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(id)) {
+                        continue candidates;
+                    }
+                }
+                String value = values.get(id);
+                if (value != null && value.contains(term)) {
+                    result[n++] = id;
+                }
+            }
+            return isSelective(n) ? Arrays.copyOf(result, n) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether a search matching the given number of rows is cheaper to answer from the index than with the LIKE query. Call with the read lock held.
+     */
+    private boolean isSelective(int matches) {
+        return matches < minFallbackMatches || matches <= values.size() * maxMatchFraction;
+    }
+
+    /**
+     * Records the value of a created or updated row. Call after bumping the table version for the write.
+     *
+     * @param id the row id
+     * @param value the new value of the indexed column
+     */
+    public void put(int id, String value) {
+        lock.writeLock().lock();
+        try {
+            if (!coversAllButLatestWrite()) {
+                return; // the next search reloads the index, this row included
+            }
+            String previous = values.put(id, value);
+            if (previous != null) {
+                staleEntries += trigrams(previous).size();
+            }
+            addPostings(id, value);
+            compactIfNeeded();
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets a deleted row. Call after bumping the table version for the write.
+     *
+     * @param id the row id
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (!coversAllButLatestWrite()) {
+                return;
+            }
+            String previous = values.remove(id);
+            if (previous != null) {
+                staleEntries += trigrams(previous).size();
+            }
+            compactIfNeeded();
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a write to the table that left the indexed column unchanged. Call after bumping the table version for the write.
+     */
+    public void recordUnchanged() {
+        lock.writeLock().lock();
+        try {
+            if (coversAllButLatestWrite()) {
+                version++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether the index reflects every write to the table except the one being reported, which is the only case in which applying that write brings it up to date.
+     */
+    private boolean coversAllButLatestWrite() {
+        return version >= 0 && version == TableVersions.get(table) - 1;
+    }
+
+    /**
+     * Reloads the index from the database if the table changed behind the DAO's back.
+     */
+    private void ensureCurrent() {
+        if (version == TableVersions.get(table)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long current = TableVersions.get(table);
+            if (version == current) {
+                return;
+            }
+            Map<Integer, String> loaded = new HashMap<>();
+            try (Connection conn = connectionUtil.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT id, " + column + " FROM " + table + " ORDER BY id")) {
+                while (rs.next()) {
+                    loaded.put(rs.getInt(1), rs.getString(2));
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to load the " + table + "." + column + " trigram index", e);
+            }
+            values.clear();
+            values.putAll(loaded);
+            rebuildPostings();
+            version = current;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the posting entries left behind by updates and deletes once they make up a quarter of the index.
+     */
+    private void compactIfNeeded() {
+        if (staleEntries > 1024 && staleEntries > entries / 4) {
+            rebuildPostings();
+        }
+    }
+
+    private void rebuildPostings() {
+        postings.clear();
+        entries = 0;
+        staleEntries = 0;
+        values.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> addPostings(entry.getKey(), entry.getValue()));
+    }
+
+    private void addPostings(int id, String value) {
+        for (String trigram : trigrams(value)) {
+            if (postings.computeIfAbsent(trigram, key -> new IdList()).add(id)) {
+                entries++;
+            }
+        }
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (value != null) {
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                trigrams.add(value.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /** A growable, sorted list of ids without duplicates. Ids arrive mostly in ascending order, so adding is usually an append. */
+    private static class IdList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        private boolean add(int id) {
+            int position = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0 && position < size) {
+                return false; // already present
+            }
+            if (position < 0) {
+                position = -position - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+            return true;
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Secondary indexes for the lookups the DAOs run on every request.
+--
+-- H2 already backs every foreign key constraint with an index on its column, so RECIPE.chef_id,
+-- RECIPE_INGREDIENT.recipe_id and RECIPE_INGREDIENT.ingredient_id are indexed by fk_recipe_chef,
+-- fk_ri_recipe and fk_ri_ingredient. Repeating those single-column indexes would only slow writes down.
+-- Likewise the UNIQUE constraint on CHEF.username indexes the exact username lookup of login and
+-- registration.
+--
+-- 1. RECIPE_INGREDIENT(recipe_id, ingredient_id): ingredient lines are loaded by recipe and joined to
+--    INGREDIENT; with both columns in the key the join is answered from the index.
+-- 2. RECIPE_INGREDIENT(ingredient_id, recipe_id): recipes are searched and indexed by ingredient.
+CREATE INDEX IF NOT EXISTS idx_ri_recipe_ingredient ON RECIPE_INGREDIENT(recipe_id, ingredient_id);
+CREATE INDEX IF NOT EXISTS idx_ri_ingredient_recipe ON RECIPE_INGREDIENT(ingredient_id, recipe_id);
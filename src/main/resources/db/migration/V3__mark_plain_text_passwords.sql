@@ -0,0 +1,8 @@
+-- Marks the passwords still stored in plain text, such as the seeded ones, with a plain$ prefix.
+--
+-- Password verification only falls back to comparing plain text for values carrying this mark, so a
+-- stored value in any other format, for example a hash made by another system, can never be matched
+-- by submitting that value itself as the password. Marked passwords are rehashed at the chef's next
+-- login. Values that are already hashed or marked are left alone, so running this again changes nothing.
+UPDATE CHEF SET password = CONCAT('plain$', password)
+	WHERE password NOT LIKE 'pbkdf2-sha256$%' AND password NOT LIKE 'plain$%';
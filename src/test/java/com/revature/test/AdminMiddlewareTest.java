@@ -0,0 +1,72 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.util.AdminMiddleware;
+import com.revature.util.SessionStore;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.UnauthorizedResponse;
+
+class AdminMiddlewareTest {
+
+	private SessionStore sessions;
+	private AdminMiddleware middleware;
+
+	@BeforeEach
+	void setUp() {
+		sessions = new SessionStore(10, 60000, 60000);
+		sessions.put("admin-token", new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true));
+		sessions.put("chef-token", new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false));
+		middleware = new AdminMiddleware(new AuthenticationService(null, sessions), "DELETE");
+	}
+
+	private Context request(HandlerType method, String authorization) {
+		Context ctx = mock(Context.class);
+		when(ctx.method()).thenReturn(method);
+		when(ctx.header("Authorization")).thenReturn(authorization);
+		return ctx;
+	}
+
+	@Test
+	void adminIsAllowedWhileOtherChefsAreLoggedIn() {
+		assertDoesNotThrow(() -> middleware.handle(request(HandlerType.DELETE, "Bearer admin-token")));
+	}
+
+	@Test
+	void nonAdminIsDenied() {
+		assertThrows(UnauthorizedResponse.class, () -> middleware.handle(request(HandlerType.DELETE, "Bearer chef-token")));
+	}
+
+	@Test
+	void missingOrUnknownTokenIsDenied() {
+		assertThrows(UnauthorizedResponse.class, () -> middleware.handle(request(HandlerType.DELETE, null)));
+		assertThrows(UnauthorizedResponse.class, () -> middleware.handle(request(HandlerType.DELETE, "Bearer nobody")));
+	}
+
+	@Test
+	void unprotectedMethodNeedsNoToken() {
+		assertDoesNotThrow(() -> middleware.handle(request(HandlerType.GET, null)));
+	}
+
+	@Test
+	void tokenIsReadWithOrWithoutTheBearerScheme() {
+		assertEquals("abc", AuthenticationService.tokenFromHeader("Bearer abc"));
+		assertEquals("abc", AuthenticationService.tokenFromHeader("bearer   abc "));
+		assertEquals("abc", AuthenticationService.tokenFromHeader("Bearerabc"));
+		assertEquals("abc", AuthenticationService.tokenFromHeader("abc"));
+		assertNull(AuthenticationService.tokenFromHeader("Bearer "));
+		assertNull(AuthenticationService.tokenFromHeader(null));
+	}
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.*;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Statement;
 
 import org.mockito.InjectMocks;
@@ -118,6 +119,36 @@ public class ChefDaoTest {
         verify(preparedStatement).setInt(1, 1);
     }
 
+    @Test
+    public void testGetChefByUsername() throws Exception {
+        // Arrange
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getInt("id")).thenReturn(1);
+        when(resultSet.getString("username")).thenReturn("testChef");
+        when(resultSet.getString("email")).thenReturn("test@chef.com");
+        when(resultSet.getString("password")).thenReturn("password123");
+
+        // Act
+        Chef chef = chefDAO.getChefByUsername("testChef");
+
+        // Assert
+        assertEquals(testChef, chef);
+        verify(connection).prepareStatement("SELECT * FROM CHEF WHERE username = ?");
+        verify(preparedStatement).setString(1, "testChef");
+    }
+
+    @Test
+    public void testCreateDuplicateChefReturnsZero() throws Exception {
+        // Arrange
+        when(preparedStatement.executeUpdate()).thenThrow(new SQLIntegrityConstraintViolationException("duplicate"));
+
+        // Act
+        int newId = chefDAO.createChef(testChef);
+
+        // Assert
+        assertEquals(0, newId);
+    }
+
     @Test
     public void testCreateChef() throws Exception {
         // Arrange
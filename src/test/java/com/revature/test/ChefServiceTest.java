@@ -7,6 +7,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -22,6 +24,7 @@ import org.mockito.ArgumentCaptor;
 import com.revature.model.Chef;
 import com.revature.dao.ChefDAO;
 import com.revature.service.ChefService;
+import com.revature.util.LruCache;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -51,6 +54,18 @@ class ChefServiceTest {
         assertEquals(MOCKS.get(0), chef.get(), () -> "Chef should match");
     }
 
+    @Test
+    void fetchChefByUsernameFromCache() {
+        ChefService cachedService = new ChefService(chefDao, new LruCache<>(10, 60000, () -> 0));
+        when(chefDao.getChefByUsername("JoeCool")).thenReturn(MOCKS.get(0));
+
+        assertEquals(MOCKS.get(0), cachedService.findChefByUsername("JoeCool").get());
+        assertEquals(MOCKS.get(0), cachedService.findChefByUsername("JoeCool").get());
+        assertTrue(cachedService.findChefByUsername("nobody").isEmpty());
+        verify(chefDao, times(1)).getChefByUsername("JoeCool");
+        verify(chefDao, never()).searchChefsByTerm(anyString());
+    }
+
     @Test
     void failToFetchOneChef() {
         when(chefDao.getChefById(1)).thenReturn(null);
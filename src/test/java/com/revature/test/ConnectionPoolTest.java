@@ -0,0 +1,110 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.ConnectionPoolDataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.ConnectionPool;
+import com.revature.util.PoolStats;
+
+class ConnectionPoolTest {
+
+	private ConnectionPool pool;
+
+	@BeforeEach
+	void setUp() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1");
+		pool = new ConnectionPool(dataSource, 0, 2, 200, 60000, 60000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void closedConnectionsAreReused() throws SQLException {
+		try (Connection connection = pool.getConnection()) {
+			connection.createStatement().execute("SELECT 1");
+		}
+		try (Connection connection = pool.getConnection()) {
+			connection.createStatement().execute("SELECT 1");
+		}
+		PoolStats stats = pool.getStats();
+		assertEquals(1, stats.getCreated(), () -> "The second borrow should reuse the first connection");
+		assertEquals(2, stats.getAcquired());
+		assertEquals(0, stats.getActive());
+		assertEquals(1, stats.getIdle());
+	}
+
+	@Test
+	void acquireTimesOutWhenPoolIsExhausted() throws SQLException {
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+		assertEquals(2, pool.getStats().getActive());
+
+		assertThrows(SQLException.class, pool::getConnection, () -> "A third borrow should time out");
+		assertEquals(1, pool.getStats().getTimeouts());
+
+		first.close();
+		second.close();
+		assertEquals(0, pool.getStats().getActive());
+	}
+
+	@Test
+	void waitingCallerReceivesReturnedConnection() throws Exception {
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+		Thread returner = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+				first.close();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		returner.start();
+
+		try (Connection third = pool.getConnection()) {
+			assertTrue(third.isValid(1));
+		}
+		returner.join();
+		second.close();
+		assertEquals(2, pool.getStats().getCreated(), () -> "No connection beyond maxSize should be opened");
+	}
+
+	@Test
+	void housekeepingSurvivesUncheckedFailures() throws Exception {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1");
+		ConnectionPoolDataSource flaky = mock(ConnectionPoolDataSource.class);
+		when(flaky.getPooledConnection()).thenThrow(new IllegalStateException("driver hiccup"))
+				.thenAnswer(invocation -> dataSource.getPooledConnection());
+		ConnectionPool refilling = new ConnectionPool(flaky, 1, 2, 200, 0, 60000);
+		try {
+			long deadline = System.currentTimeMillis() + 5000;
+			while (refilling.getStats().getIdle() < 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			verify(flaky, atLeast(2)).getPooledConnection();
+			assertEquals(1, refilling.getStats().getIdle(), () -> "Housekeeping should run again after a failed run");
+		} finally {
+			refilling.shutdown();
+		}
+	}
+}
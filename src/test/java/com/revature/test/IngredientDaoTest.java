@@ -11,12 +11,15 @@ import org.junit.jupiter.api.Test;
 import com.revature.model.Ingredient;
 import com.revature.dao.IngredientDAO;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.DBUtil;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 import static com.revature.test.utils.TestingUtils.assertCountDifference;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class IngredientDaoTest {
     private List<Ingredient> ingredientList = new ArrayList<>();
@@ -132,4 +135,64 @@ public class IngredientDaoTest {
                 "The returned ingredients don't match the expected ingredients.");
     }
 
+    @Test
+    void lastPartialPageReportsTotals() {
+        PageOptions pageOptions = new PageOptions(2, 4, "id", "asc");
+
+        Page<Ingredient> expectedIngredients = new Page<>(2, 4, 2, 6, ingredientList.subList(4, 6));
+
+        assertEquals(expectedIngredients, ingredientDao.getAllIngredients(pageOptions),
+                "The last page should hold the remaining ingredients and report the totals.");
+    }
+
+    @Test
+    void pageBeyondLastPageIsEmpty() {
+        PageOptions pageOptions = new PageOptions(5, 2, "name", "desc");
+
+        Page<Ingredient> ingredients = ingredientDao.getAllIngredients(pageOptions);
+
+        assertEquals(0, ingredients.getItems().size(), "A page past the end should have no items.");
+        assertEquals(6, ingredients.getTotalElements(), "The total should still be counted.");
+        assertEquals(3, ingredients.getTotalPages());
+    }
+
+    @Test
+    void countIsRefreshedAfterWrite() {
+        PageOptions pageOptions = new PageOptions(1, 2, "id", "asc");
+        assertEquals(6, ingredientDao.getAllIngredients(pageOptions).getTotalElements());
+
+        ingredientDao.createIngredient(new Ingredient("parsnip"));
+
+        assertEquals(7, ingredientDao.getAllIngredients(pageOptions).getTotalElements(),
+                "A cached count must not survive a write to the table.");
+    }
+
+    @Test
+    void cursorPagesWalkAllIngredientsInOrder() {
+        PageOptions pageOptions = new PageOptions(1, 4, "name", "asc");
+        List<Ingredient> walked = new ArrayList<>();
+
+        CursorPage<Ingredient> page = ingredientDao.getIngredientsAfter(null, null, pageOptions);
+        walked.addAll(page.getItems());
+        page = ingredientDao.getIngredientsAfter(null, Cursor.decode(page.getNextCursor()), pageOptions);
+        walked.addAll(page.getItems());
+
+        assertIterableEquals(Arrays.asList(ingredientList.get(0), ingredientList.get(3), ingredientList.get(1),
+                ingredientList.get(4), ingredientList.get(5), ingredientList.get(2)), walked,
+                () -> "Walking the cursor pages should return every ingredient once, by name. Actual: " + walked);
+        assertNull(page.getNextCursor(), "The last page should not carry a next cursor.");
+    }
+
+    @Test
+    void cursorPageSkipsRowsDeletedBeforeIt() {
+        PageOptions pageOptions = new PageOptions(1, 2, "id", "asc");
+        CursorPage<Ingredient> first = ingredientDao.getIngredientsAfter("to", null, pageOptions);
+
+        ingredientDao.deleteIngredient(ingredientList.get(1));
+
+        CursorPage<Ingredient> second = ingredientDao.getIngredientsAfter("to", Cursor.decode(first.getNextCursor()), pageOptions);
+        assertIterableEquals(Arrays.asList(ingredientList.get(5)), second.getItems(),
+                "A deletion before the cursor must not shift the next page.");
+    }
+
 }
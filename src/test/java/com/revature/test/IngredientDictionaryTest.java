@@ -0,0 +1,107 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.model.Ingredient;
+import com.revature.service.IngredientService;
+import com.revature.test.utils.QueryCountingConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
+import com.revature.util.DBUtil;
+import com.revature.util.IngredientDictionary;
+import com.revature.util.PageOptions;
+
+class IngredientDictionaryTest {
+
+	private QueryCountingConnectionUtil connectionUtil;
+	private IngredientDictionary dictionary;
+	private IngredientDAO ingredientDao;
+	private IngredientService ingredientService;
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+		connectionUtil = new QueryCountingConnectionUtil();
+		dictionary = new IngredientDictionary(connectionUtil);
+		ingredientDao = new IngredientDAO(connectionUtil);
+		ingredientService = new IngredientService(ingredientDao, dictionary);
+	}
+
+	@Test
+	void readsMatchTheDatabase() {
+		assertEquals(ingredientDao.getAllIngredients(), dictionary.search(null));
+		assertEquals(ingredientDao.searchIngredients("o"), dictionary.search("o"));
+		assertEquals(ingredientDao.searchIngredients("_o%o"), dictionary.search("_o%o"));
+		assertEquals(ingredientDao.getIngredientById(4), dictionary.find(4));
+		assertNull(dictionary.find(404));
+		for (String sortBy : new String[] { "id", "name" }) {
+			for (String direction : new String[] { "asc", "desc" }) {
+				for (int page = 1; page <= 3; page++) {
+					PageOptions options = new PageOptions(page, 2, sortBy, direction);
+					assertEquals(ingredientDao.searchIngredients("o", options), dictionary.search("o", options));
+					assertEquals(ingredientDao.getAllIngredients(options), dictionary.search(null, options));
+				}
+			}
+		}
+	}
+
+	@Test
+	void cursorPagesMatchTheDatabase() {
+		for (String direction : new String[] { "asc", "desc" }) {
+			PageOptions options = new PageOptions(1, 2, "name", direction);
+			Cursor after = null;
+			List<Ingredient> seen = new ArrayList<>();
+			do {
+				CursorPage<Ingredient> expected = ingredientDao.getIngredientsAfter(null, after, options);
+				CursorPage<Ingredient> actual = dictionary.searchAfter(null, after, options);
+				assertEquals(expected, actual);
+				seen.addAll(actual.getItems());
+				after = Cursor.decode(actual.getNextCursor());
+			} while (after != null);
+			assertEquals(6, seen.size());
+		}
+	}
+
+	@Test
+	void writesPublishANewSnapshotWithoutReloading() {
+		dictionary.refresh();
+		Ingredient saffron = new Ingredient("saffron");
+		ingredientService.saveIngredient(saffron);
+		Ingredient rice = new Ingredient(5, "basmati");
+		ingredientService.saveIngredient(rice);
+		ingredientService.deleteIngredient(6);
+		connectionUtil.reset();
+
+		assertEquals(saffron, ingredientService.findIngredient(saffron.getId()).get());
+		assertEquals(List.of(rice), ingredientService.searchIngredients("basmati"));
+		assertEquals(6, ingredientService.searchIngredients(null).size());
+		assertEquals(0, connectionUtil.getQueries(), "Reads after writes through the dictionary should not query");
+
+		rice.setName("arborio");
+		assertEquals("basmati", ingredientService.findIngredient(5).get().getName(),
+				"The snapshot should not share the saved object");
+	}
+
+	@Test
+	void writesBypassingTheDictionaryReloadIt() {
+		dictionary.refresh();
+		ingredientDao.createIngredient(new Ingredient("saffron"));
+
+		assertEquals(ingredientDao.getAllIngredients(), dictionary.search(null));
+	}
+
+	@Test
+	void unsupportedSortsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> dictionary.search(null, new PageOptions(1, 2, "color", "asc")));
+		assertThrows(IllegalArgumentException.class, () -> dictionary.search(null, new PageOptions(1, 2, "name", "up")));
+	}
+}
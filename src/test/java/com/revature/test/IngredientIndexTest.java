@@ -0,0 +1,92 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.IngredientIndex;
+
+class IngredientIndexTest {
+
+	private IngredientIndex index;
+	private IngredientDAO ingredientDao;
+	private RecipeDAO recipeDao;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		index = new IngredientIndex(connectionUtil);
+		ingredientDao = new IngredientDAO(connectionUtil);
+		recipeDao = new RecipeDAO(connectionUtil);
+	}
+
+	@Test
+	void allIntersectsPostingLists() {
+		assertArrayEquals(new int[] { 4 }, index.recipesWithAll(List.of("lemon", "Rice")));
+		assertArrayEquals(new int[0], index.recipesWithAll(List.of("lemon", "carrot")));
+		assertArrayEquals(new int[0], index.recipesWithAll(List.of("lemon", "saffron")),
+				"An unknown ingredient matches no recipe");
+	}
+
+	@Test
+	void anyMergesPostingLists() {
+		assertArrayEquals(new int[] { 1, 3, 4 }, index.recipesWithAny(List.of("tomato", "rice", "carrot", "saffron")));
+	}
+
+	@Test
+	void indexFollowsIngredientWrites() {
+		index.refresh();
+		Ingredient rice = ingredientDao.getIngredientById(5);
+		rice.setName("basmati");
+		ingredientDao.updateIngredient(rice);
+
+		assertArrayEquals(new int[0], index.recipesWithAny(List.of("rice")));
+		assertArrayEquals(new int[] { 4 }, index.recipesWithAny(List.of("basmati")));
+	}
+
+	@Test
+	void indexFollowsRecipeDeletes() {
+		index.refresh();
+		recipeDao.deleteRecipe(recipeDao.getRecipeById(1));
+
+		assertArrayEquals(new int[0], index.recipesWithAll(List.of("carrot")));
+	}
+
+	@Test
+	void databaseFallbackAgreesWithIndex() {
+		assertArrayEquals(index.recipesWithAll(List.of("lemon", "rice")),
+				recipeDao.searchRecipesByIngredients(List.of("lemon", "rice"), true).stream().mapToInt(r -> r.getId()).toArray());
+		assertArrayEquals(index.recipesWithAny(List.of("tomato", "carrot")),
+				recipeDao.searchRecipesByIngredients(List.of("tomato", "carrot"), false).stream().mapToInt(r -> r.getId()).toArray());
+	}
+
+	@Test
+	void termMatchesLikeTheNameSearch() {
+		List<String> ingredients = List.of("carrot", "tomato", "lemon");
+		RecipeService indexed = new RecipeService(recipeDao, new RecipeService.Options().ingredientIndex(index));
+		RecipeService unindexed = new RecipeService(recipeDao);
+		for (String term : new String[] { "soup", "Soup", "t_m", "on%ri" }) {
+			int[] expected = recipeDao.searchRecipesByTerm(term).stream().mapToInt(Recipe::getId)
+					.filter(id -> id != 2 && id != 5).toArray();
+			assertArrayEquals(expected, indexed.searchRecipesByIngredients(ingredients, false, term).stream()
+					.mapToInt(Recipe::getId).toArray(), "The term should match as in the name search: " + term);
+			assertArrayEquals(expected, unindexed.searchRecipesByIngredients(ingredients, false, term).stream()
+					.mapToInt(Recipe::getId).toArray(), "The term should match as in the name search: " + term);
+		}
+		assertEquals(0, indexed.searchRecipesByIngredients(ingredients, false, "Soup").size(),
+				"Names are matched case-sensitively, like the name search");
+	}
+}
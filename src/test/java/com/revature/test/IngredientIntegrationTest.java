@@ -1,6 +1,8 @@
 package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.sql.SQLException;
 
@@ -11,7 +13,9 @@ import com.revature.controller.IngredientController;
 import com.revature.dao.IngredientDAO;
 import com.revature.service.IngredientService;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
 import com.revature.util.DBUtil;
+import com.revature.util.ResponseCache;
 
 import io.javalin.Javalin;
 import io.javalin.testtools.JavalinTest;
@@ -40,6 +44,14 @@ public class IngredientIntegrationTest {
         });
     }
 
+    @Test
+    void testGetIngredientsByIds() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals("[{\"id\":3,\"name\":\"tomato\"},{\"id\":1,\"name\":\"carrot\"}]",
+                    client.get("/ingredients?ids=3,100,1,3").body().string());
+        });
+    }
+
     @Test
     void testGetIngredientNotFound() {
         JavalinTest.test(app, (server, client) -> {
@@ -108,5 +120,59 @@ public class IngredientIntegrationTest {
             assertEquals("{\"pageNumber\":1,\"pageSize\":3,\"totalPages\":1,\"totalElements\":3,\"items\":[{\"id\":3,\"name\":\"tomato\"},{\"id\":6,\"name\":\"stone\"},{\"id\":2,\"name\":\"potato\"}]}", client.get("/ingredients?term=to&sortBy=name&sortDirection=desc&page=1&pageSize=3").body().string());
         });
     }
-    
+
+    @Test
+    void testCursorPageIngredients() {
+        JavalinTest.test(app, (server, client) -> {
+            String first = client.get("/ingredients?after=&pageSize=4&sortBy=name&sortDirection=desc").body().string();
+            String cursor = new Cursor("name", "desc", "lemon", 4).encode();
+            assertEquals("{\"pageSize\":4,\"items\":[{\"id\":3,\"name\":\"tomato\"},{\"id\":6,\"name\":\"stone\"},{\"id\":5,\"name\":\"rice\"},{\"id\":2,\"name\":\"potato\"}],\"nextCursor\":\"" + new Cursor("name", "desc", "potato", 2).encode() + "\"}", first);
+            assertEquals("{\"pageSize\":4,\"items\":[{\"id\":1,\"name\":\"carrot\"}],\"nextCursor\":null}", client.get("/ingredients?pageSize=4&after=" + cursor).body().string());
+        });
+    }
+
+    @Test
+    void testConditionalGetIngredients() {
+        JavalinTest.test(app, (server, client) -> {
+            String listTag = client.get("/ingredients").header("ETag");
+            assertEquals(304, client.get("/ingredients", req -> req.header("If-None-Match", listTag)).code());
+            String etag = client.get("/ingredients/1").header("ETag");
+            assertNotEquals(listTag, etag, "Each resource should have its own tag");
+            assertEquals(304, client.get("/ingredients/1", req -> req.header("If-None-Match", etag)).code());
+
+            assertEquals(204, client.put("/ingredients/1", "{\"id\": 1, \"name\": \"parsnips\"}").code());
+            var changed = client.get("/ingredients/1", req -> req.header("If-None-Match", etag));
+            assertEquals(200, changed.code(), "A write to the table should invalidate the tag");
+            assertEquals("{\"id\":1,\"name\":\"parsnips\"}", changed.body().string());
+            assertNotEquals(etag, changed.header("ETag"));
+        });
+    }
+
+    @Test
+    void testConditionalGetMissingIngredient() {
+        JavalinTest.test(app, (server, client) -> {
+            String etag = client.get("/ingredients").header("ETag");
+            var missing = client.get("/ingredients/404", req -> req.header("If-None-Match", etag));
+            assertEquals(404, missing.code(), "A matching tag should not hide a missing ingredient");
+            assertNull(missing.header("ETag"), "A 404 should not be tagged");
+            assertEquals(404, client.get("/ingredients/404", req -> req.header("If-None-Match", "*")).code());
+            assertEquals(304, client.get("/ingredients/1", req -> req.header("If-None-Match", "*")).code());
+        });
+    }
+
+    @Test
+    void testCachedResponsesFollowWrites() {
+        ResponseCache responseCache = new ResponseCache(100, 60000);
+        Javalin cachedApp = Javalin.create();
+        new IngredientController(ingredientService, responseCache).configureRoutes(cachedApp);
+        JavalinTest.test(cachedApp, (server, client) -> {
+            assertEquals("{\"id\":1,\"name\":\"carrot\"}", client.get("/ingredients/1").body().string());
+            assertEquals("{\"id\":1,\"name\":\"carrot\"}", client.get("/ingredients/1").body().string());
+            assertEquals(1, responseCache.getStats().getHits());
+
+            assertEquals(204, client.put("/ingredients/1", "{\"id\": 1, \"name\": \"parsnips\"}").code());
+            assertEquals("{\"id\":1,\"name\":\"parsnips\"}", client.get("/ingredients/1").body().string());
+            assertEquals(404, client.get("/ingredients/100").code());
+        });
+    }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.revature.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 import java.sql.SQLException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,8 +21,12 @@ import com.revature.service.IngredientService;
 import com.revature.service.RecipeService;
 import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.DatabaseUnavailableException;
 import com.revature.util.JavalinAppUtil;
 
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
 class JavalinConfigTest {
 
 	private RecipeDAO recipeDao;
@@ -45,7 +53,7 @@ class JavalinConfigTest {
 		ingredientController = new IngredientController(ingredientService);
 		
 		
-		recipeDao = new RecipeDAO(chefDao, ingredientDao, new ConnectionUtil());
+		recipeDao = new RecipeDAO(new ConnectionUtil());
 		recipeService = new RecipeService(recipeDao);
 		recipeController = new RecipeController(recipeService, authService);
 	}
@@ -58,4 +66,43 @@ class JavalinConfigTest {
 		
 	}
 
+	@Test
+	void appsKeepTheirOwnThreadMode() {
+		String threads = System.getProperty("reva.server.threads");
+		try {
+			System.setProperty("reva.server.threads", "virtual");
+			Javalin virtualApp = new JavalinAppUtil(recipeController, authController, ingredientController).getApp();
+			System.setProperty("reva.server.threads", "platform");
+			Javalin platformApp = new JavalinAppUtil(recipeController, authController, ingredientController).getApp();
+			for (Javalin app : new Javalin[] { virtualApp, platformApp }) {
+				app.get("/thread", ctx -> ctx.result(String.valueOf(Thread.currentThread().isVirtual())));
+			}
+
+			JavalinTest.test(virtualApp, (server, client) -> {
+				assertEquals("true", client.get("/thread").body().string(), "Building another app should not change this one");
+			});
+			JavalinTest.test(platformApp, (server, client) -> {
+				assertEquals("false", client.get("/thread").body().string());
+			});
+		} finally {
+			if (threads == null) {
+				System.clearProperty("reva.server.threads");
+			} else {
+				System.setProperty("reva.server.threads", threads);
+			}
+		}
+	}
+
+	@Test
+	void exhaustedConnectionPoolIsServiceUnavailable() {
+		IngredientService unavailable = mock(IngredientService.class);
+		when(unavailable.findIngredient(1)).thenThrow(
+				new DatabaseUnavailableException("No database connection available", new SQLException("Timed out")));
+		JavalinAppUtil appUtil = new JavalinAppUtil(recipeController, authController, new IngredientController(unavailable));
+
+		JavalinTest.test(appUtil.getApp(), (server, client) -> {
+			assertEquals(503, client.get("/ingredients/1").code());
+		});
+	}
+
 }
\ No newline at end of file
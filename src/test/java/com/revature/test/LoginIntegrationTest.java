@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -16,6 +17,7 @@ import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
 import com.revature.controller.RecipeController;
 import com.revature.model.Chef;
+import com.revature.model.ChefSummary;
 import com.revature.model.Recipe;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
@@ -61,7 +63,7 @@ class LoginIntegrationTest {
 		DBUtil.RUN_SQL();
 		chefDAO = new ChefDAO(new ConnectionUtil());
 		ingredientDAO = new IngredientDAO(new ConnectionUtil());
-		recipeDAO = new RecipeDAO(chefDAO, ingredientDAO, new ConnectionUtil());
+		recipeDAO = new RecipeDAO(new ConnectionUtil());
 		recipeService = new RecipeService(recipeDAO);
 		ingredientService = new IngredientService(ingredientDAO);
 		chefService = new ChefService(chefDAO);
@@ -88,6 +90,7 @@ class LoginIntegrationTest {
 	void testSuccessfulLogin() throws IOException {
 		Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
 		Recipe newRecipe = new Recipe(6, "fried fish", "fish, oil, stove", chef);
+		newRecipe.setIngredients(new ArrayList<>());
 
 		// Prepare login request body
 		RequestBody chefBody = RequestBody.create(
@@ -134,6 +137,7 @@ class LoginIntegrationTest {
 		Response getResponse = client.newCall(getRequest).execute();
 		String rBody = getResponse.body().string();
 		assertEquals(200, getResponse.code(), "Expected: 200, Actual: " + getResponse.code());
+		newRecipe.setAuthor(ChefSummary.of(newRecipe.getAuthor()));
 		assertEquals(new JavalinJackson().toJsonString(newRecipe, Recipe.class), rBody,
 				"Newly created Recipe should be returned as JSON");
 	}
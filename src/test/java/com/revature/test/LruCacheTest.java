@@ -0,0 +1,126 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.CacheStats;
+import com.revature.util.LruCache;
+
+class LruCacheTest {
+
+	private final AtomicLong version = new AtomicLong();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private String load(int key) {
+		loads.incrementAndGet();
+		return "value" + key;
+	}
+
+	@Test
+	void secondLookupIsAHit() {
+		LruCache<Integer, String> cache = new LruCache<>(10, 60000, version::get);
+
+		assertEquals("value1", cache.get(1, this::load));
+		assertEquals("value1", cache.get(1, this::load));
+
+		assertEquals(1, loads.get());
+		CacheStats stats = cache.getStats();
+		assertEquals(1, stats.getHits());
+		assertEquals(1, stats.getMisses());
+		assertEquals(1, stats.getSize());
+	}
+
+	@Test
+	void leastRecentlyUsedValueIsEvicted() {
+		LruCache<Integer, String> cache = new LruCache<>(2, 60000, version::get);
+		cache.get(1, this::load);
+		cache.get(2, this::load);
+		cache.get(1, this::load); // 2 is now the least recently used
+		cache.get(3, this::load);
+
+		cache.get(1, this::load);
+		assertEquals(3, loads.get(), "1 should still be cached");
+		cache.get(2, this::load);
+		assertEquals(4, loads.get(), "2 should have been evicted");
+		assertEquals(2, cache.getStats().getEvictions());
+	}
+
+	@Test
+	void valuesExpire() throws InterruptedException {
+		LruCache<Integer, String> cache = new LruCache<>(10, 1, version::get);
+		cache.get(1, this::load);
+		Thread.sleep(20);
+		cache.get(1, this::load);
+
+		assertEquals(2, loads.get());
+		assertEquals(1, cache.getStats().getExpirations());
+	}
+
+	@Test
+	void newVersionMakesValuesStale() {
+		LruCache<Integer, String> cache = new LruCache<>(10, 60000, version::get);
+		cache.get(1, this::load);
+		version.incrementAndGet();
+		cache.get(1, this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void invalidatedValueIsReloaded() {
+		LruCache<Integer, String> cache = new LruCache<>(10, 60000, version::get);
+		cache.get(1, this::load);
+		cache.invalidate(1);
+		cache.get(1, this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void loadRacingAnInvalidationIsNotKept() {
+		LruCache<Integer, String> cache = new LruCache<>(10, 60000, version::get);
+		assertEquals("old", cache.get(1, key -> {
+			cache.invalidate(key); // a write lands while the old value is being read
+			return "old";
+		}));
+
+		assertEquals("value1", cache.get(1, this::load));
+	}
+
+	@Test
+	void nullIsNotCached() {
+		LruCache<Integer, String> cache = new LruCache<>(10, 60000, version::get);
+		assertNull(cache.get(1, key -> null));
+		assertEquals(0, cache.getStats().getSize());
+	}
+
+	@Test
+	void getAllLoadsOnlyTheMissesInOneCall() {
+		LruCache<Integer, String> cache = new LruCache<>(10, 60000, version::get);
+		cache.get(2, this::load);
+		List<Set<Integer>> batches = new ArrayList<>();
+
+		Map<Integer, String> values = cache.getAll(List.of(3, 2, 1, 9), missing -> {
+			batches.add(Set.copyOf(missing));
+			Map<Integer, String> loaded = new HashMap<>();
+			missing.stream().filter(key -> key != 9).forEach(key -> loaded.put(key, load(key)));
+			return loaded;
+		});
+
+		assertEquals(List.of(3, 2, 1), List.copyOf(values.keySet()), "Values should follow the key order, without unknown keys");
+		assertEquals(List.of(Set.of(3, 1, 9)), batches);
+		assertEquals(1, cache.getStats().getHits());
+		assertEquals("value3", cache.get(3, this::load));
+		assertEquals(3, loads.get(), "Loaded values should be cached");
+	}
+}
@@ -0,0 +1,73 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.NegativeCache;
+
+class NegativeCacheTest {
+
+	private final AtomicLong version = new AtomicLong();
+	private NegativeCache<Integer> missing;
+	private AtomicInteger queries;
+
+	@BeforeEach
+	void setUp() {
+		missing = new NegativeCache<>(10, 60000, version::get);
+		queries = new AtomicInteger();
+	}
+
+	private String lookup(int id) {
+		queries.incrementAndGet();
+		return id < 100 ? "recipe " + id : null;
+	}
+
+	@Test
+	void missingKeysAreQueriedOnce() {
+		assertNull(missing.find(404, this::lookup));
+		assertNull(missing.find(404, this::lookup));
+
+		assertEquals(1, queries.get());
+		assertEquals(1, missing.getStats().getHits());
+	}
+
+	@Test
+	void foundValuesAreNotCached() {
+		assertEquals("recipe 1", missing.find(1, this::lookup));
+		assertEquals("recipe 1", missing.find(1, this::lookup));
+
+		assertEquals(2, queries.get());
+	}
+
+	@Test
+	void writesForgetMissingKeys() {
+		missing.find(404, this::lookup);
+		version.incrementAndGet();
+		missing.find(404, this::lookup);
+		assertEquals(2, queries.get(), "A write to the table should forget the missing keys");
+
+		missing.forget(404);
+		missing.find(404, this::lookup);
+		assertEquals(3, queries.get(), "A forgotten key should be queried again");
+	}
+
+	@Test
+	void unversionedCacheKeepsMissingKeysAcrossWrites() {
+		NegativeCache<Integer> unversioned = new NegativeCache<>(10, 60000);
+		unversioned.find(404, this::lookup);
+		version.incrementAndGet();
+		unversioned.find(404, this::lookup);
+		assertEquals(1, queries.get(), "Writes should not forget the missing keys");
+		assertEquals(1, unversioned.getStats().getHits());
+
+		unversioned.forget(404);
+		unversioned.find(404, this::lookup);
+		assertEquals(2, queries.get(), "A forgotten key should be queried again");
+	}
+}
@@ -0,0 +1,169 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.util.PasswordHasher;
+import com.revature.util.Pbkdf2PasswordHasher;
+import com.revature.util.SessionStore;
+
+class PasswordHashingTest {
+
+	private final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1000);
+	private ChefService chefService;
+	private ExecutorService executor;
+	private AuthenticationService authService;
+
+	@BeforeEach
+	void setUp() {
+		chefService = mock(ChefService.class);
+		executor = AuthenticationService.newHashingExecutor(1, 4);
+		authService = new AuthenticationService(chefService, new SessionStore(10, 60000, 60000), null, hasher, executor);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void hashVerifiesAndIsSalted() {
+		String hash = hasher.hash("redbarron");
+
+		assertTrue(hash.startsWith("pbkdf2-sha256$1000$"), hash);
+		assertTrue(hasher.verify("redbarron", hash));
+		assertFalse(hasher.verify("redbaron", hash));
+		assertNotEquals(hash, hasher.hash("redbarron"));
+		assertFalse(hasher.needsRehash(hash));
+	}
+
+	@Test
+	void markedPlainTextAndWeakerHashesAreVerifiedAndFlaggedForRehash() {
+		assertTrue(hasher.verify("redbarron", "plain$redbarron"));
+		assertFalse(hasher.verify("plain$redbarron", "plain$redbarron"));
+		assertTrue(hasher.needsRehash("plain$redbarron"));
+
+		String weaker = new Pbkdf2PasswordHasher(500).hash("redbarron");
+		assertTrue(hasher.verify("redbarron", weaker));
+		assertTrue(hasher.needsRehash(weaker));
+	}
+
+	@Test
+	void unmarkedStoredValuesNeverVerify() {
+		String foreignHash = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+		assertFalse(hasher.verify(foreignHash, foreignHash), "A stored hash must not work as its own password");
+		assertFalse(hasher.verify("redbarron", "redbarron"), "Plain text must be marked to be compared");
+	}
+
+	@Test
+	void corruptHashDoesNotVerify() {
+		assertFalse(hasher.verify("redbarron", "pbkdf2-sha256$1000$!!$!!"));
+		assertFalse(hasher.verify("redbarron", "pbkdf2-sha256$1000"));
+	}
+
+	@Test
+	void loginRehashesAPlainTextPassword() {
+		when(chefService.findChefByUsername("JoeCool"))
+				.thenReturn(Optional.of(new Chef(1, "JoeCool", "snoopy@null.com", "plain$redbarron", false)));
+
+		assertNotNull(authService.login(new Chef("JoeCool", "redbarron")));
+
+		ArgumentCaptor<Chef> saved = ArgumentCaptor.forClass(Chef.class);
+		verify(chefService).saveChef(saved.capture());
+		assertEquals(1, saved.getValue().getId());
+		assertTrue(hasher.verify("redbarron", saved.getValue().getPassword()));
+		assertFalse(hasher.needsRehash(saved.getValue().getPassword()));
+	}
+
+	@Test
+	void loginWithCurrentHashDoesNotRehash() {
+		when(chefService.findChefByUsername("JoeCool"))
+				.thenReturn(Optional.of(new Chef(1, "JoeCool", "snoopy@null.com", hasher.hash("redbarron"), false)));
+
+		assertNotNull(authService.login(new Chef("JoeCool", "redbarron")));
+		assertNull(authService.login(new Chef("JoeCool", "wrong")));
+		verify(chefService, never()).saveChef(any(Chef.class));
+	}
+
+	@Test
+	void unknownUsernameCostsAVerification() {
+		PasswordHasher counting = mock(PasswordHasher.class);
+		when(counting.hash(any(String.class))).thenAnswer(invocation -> hasher.hash(invocation.getArgument(0)));
+		AuthenticationService countingService = new AuthenticationService(chefService,
+				new SessionStore(10, 60000, 60000), null, counting, executor);
+		when(chefService.findChefByUsername("Nobody")).thenReturn(Optional.empty());
+
+		assertNull(countingService.login(new Chef("Nobody", "redbarron")));
+		assertNull(countingService.login(new Chef("Nobody", "redbarron")));
+
+		ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+		verify(counting, times(2)).verify(eq("redbarron"), stored.capture());
+		assertTrue(stored.getValue().startsWith("pbkdf2-sha256$1000$"), "The dummy hash should use the current work factor");
+		verify(counting, times(1)).hash(any(String.class));
+	}
+
+	@Test
+	void registrationStoresAHash() {
+		Chef chef = new Chef("NewChef", "new@chef.com", "secret", false);
+		doAnswer(invocation -> {
+			invocation.<Chef>getArgument(0).setId(5);
+			return null;
+		}).when(chefService).saveChef(any(Chef.class));
+
+		Chef registered = authService.registerChef(chef);
+
+		assertEquals(5, registered.getId());
+		assertTrue(hasher.verify("secret", registered.getPassword()));
+	}
+
+	@Test
+	void asyncLoginRunsOnTheHashingExecutor() throws Exception {
+		when(chefService.findChefByUsername("JoeCool")).thenAnswer(invocation -> {
+			assertTrue(Thread.currentThread().getName().startsWith("password-hashing-"));
+			return Optional.of(new Chef(1, "JoeCool", "snoopy@null.com", hasher.hash("redbarron"), false));
+		});
+
+		assertNotNull(authService.loginAsync(new Chef("JoeCool", "redbarron")).get());
+	}
+
+	@Test
+	void asyncLoginFailsFastWhenTheExecutorIsSaturated() {
+		ExecutorService stopped = Executors.newSingleThreadExecutor();
+		stopped.shutdown();
+		AuthenticationService busy = new AuthenticationService(chefService, new SessionStore(10, 60000, 60000), null,
+				hasher, stopped);
+
+		ExecutionException e = assertThrows(ExecutionException.class,
+				() -> busy.loginAsync(new Chef("JoeCool", "redbarron")).get());
+		assertInstanceOf(RejectedExecutionException.class, e.getCause());
+	}
+}
@@ -0,0 +1,84 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Ingredient;
+import com.revature.util.CacheStats;
+import com.revature.util.PageOptions;
+import com.revature.util.QueryCache;
+import com.revature.util.TableVersions;
+
+class QueryCacheTest {
+
+	private QueryCache recipeSearches;
+	private QueryCache ingredientSearches;
+	private AtomicInteger queries;
+
+	@BeforeEach
+	void setUp() {
+		recipeSearches = new QueryCache(10, 60000,
+				() -> TableVersions.get(TableVersions.RECIPE) + TableVersions.get(TableVersions.INGREDIENT));
+		ingredientSearches = new QueryCache(10, 60000, () -> TableVersions.get(TableVersions.INGREDIENT));
+		queries = new AtomicInteger();
+	}
+
+	private List<Ingredient> search(String term) {
+		queries.incrementAndGet();
+		return List.of(new Ingredient(1, term + " 1"), new Ingredient(2, term + " 2"));
+	}
+
+	@Test
+	void repeatedSearchesAreAnsweredFromMemory() {
+		List<Ingredient> first = ingredientSearches.get(QueryCache.key("searchIngredients", "to"), () -> search("to"));
+		List<Ingredient> second = ingredientSearches.get(QueryCache.key("searchIngredients", "to"), () -> search("to"));
+
+		assertEquals(first, second);
+		assertEquals(1, queries.get());
+		CacheStats stats = ingredientSearches.getStats();
+		assertEquals(0.5, stats.getHitRate());
+		assertTrue(stats.getEstimatedBytes() > 0, "The memory of cached results should be estimated");
+	}
+
+	@Test
+	void sortIsNormalizedInTheKey() {
+		ingredientSearches.get(QueryCache.key("searchIngredients", "to", new PageOptions(1, 10, "NAME", "ASC")),
+				() -> search("to"));
+		ingredientSearches.get(QueryCache.key("searchIngredients", "to", new PageOptions(1, 10, "name", "asc")),
+				() -> search("to"));
+		ingredientSearches.get(QueryCache.key("searchIngredients", "to", new PageOptions(2, 10, "name", "asc")),
+				() -> search("to"));
+
+		assertEquals(2, queries.get());
+	}
+
+	@Test
+	void writesInvalidateOnlyTheCachesReadingTheTable() {
+		recipeSearches.get(QueryCache.key("searchRecipes", "soup"), () -> search("soup"));
+		ingredientSearches.get(QueryCache.key("searchIngredients", "to"), () -> search("to"));
+
+		TableVersions.bump(TableVersions.RECIPE);
+		recipeSearches.get(QueryCache.key("searchRecipes", "soup"), () -> search("soup"));
+		ingredientSearches.get(QueryCache.key("searchIngredients", "to"), () -> search("to"));
+		assertEquals(3, queries.get(), "A recipe write should leave ingredient searches cached");
+
+		TableVersions.bump(TableVersions.INGREDIENT);
+		recipeSearches.get(QueryCache.key("searchRecipes", "soup"), () -> search("soup"));
+		ingredientSearches.get(QueryCache.key("searchIngredients", "to"), () -> search("to"));
+		assertEquals(5, queries.get(), "An ingredient write should invalidate both");
+	}
+
+	@Test
+	void clearingReleasesTheEstimatedMemory() {
+		ingredientSearches.get(QueryCache.key("searchIngredients", "to"), () -> search("to"));
+		ingredientSearches.clear();
+
+		assertEquals(0, ingredientSearches.getStats().getEstimatedBytes());
+	}
+}
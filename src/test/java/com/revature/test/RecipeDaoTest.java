@@ -3,6 +3,7 @@ package com.revature.test;
 
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,7 +22,6 @@ import org.mockito.MockitoAnnotations;
 
 import com.revature.model.Chef;
 import com.revature.model.Recipe;
-import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
 import com.revature.util.ConnectionUtil;
@@ -43,10 +43,13 @@ class RecipeDaoTest {
     private ResultSet resultSet;
 
     @Mock
-    private ChefDAO chefDao;
+    private PreparedStatement ingredientStatement;
+
+    @Mock
+    private ResultSet ingredientResultSet;
 
     @InjectMocks
-    private RecipeDAO recipeDao = new RecipeDAO(chefDao, null, null);
+    private RecipeDAO recipeDao = new RecipeDAO(null);
 
     private List<Recipe> recipeList;
     private List<Chef> chefList;
@@ -68,6 +71,9 @@ class RecipeDaoTest {
         when(connectionUtil.getConnection()).thenReturn(connection);
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
         when(connection.prepareStatement(anyString(), anyInt())).thenReturn(preparedStatement);
+        // ingredient lines are read by a separate batched query, which finds none by default
+        when(connection.prepareStatement(startsWith("SELECT ri.recipe_id"))).thenReturn(ingredientStatement);
+        when(ingredientStatement.executeQuery()).thenReturn(ingredientResultSet);
 
     }
 
@@ -80,8 +86,7 @@ class RecipeDaoTest {
         when(resultSet.getInt("id")).thenReturn(expectedRecipe.getId());
         when(resultSet.getString("name")).thenReturn(expectedRecipe.getName());
         when(resultSet.getString("instructions")).thenReturn(expectedRecipe.getInstructions());
-        when(resultSet.getInt("chef_id")).thenReturn(expectedRecipe.getAuthor().getId());
-        when(chefDao.getChefById(anyInt())).thenReturn(expectedRecipe.getAuthor());
+        stubChefColumns(expectedRecipe.getAuthor());
 
         // Act
         Recipe actualRecipe = recipeDao.getRecipeById(1);
@@ -95,7 +100,8 @@ class RecipeDaoTest {
     @Test
     void getAllRecipes_Success() throws SQLException {
         // Arrange
-        String expectedSQL = "SELECT * FROM RECIPE ORDER BY id";
+        String expectedSQL = "SELECT r.id, r.name, r.instructions, r.chef_id, c.username AS chef_username"
+                + " FROM RECIPE r JOIN CHEF c ON c.id = r.chef_id ORDER BY r.id";
         when(connectionUtil.getConnection()).thenReturn(connection); // Mock the connection
         when(connection.createStatement()).thenReturn(preparedStatement); // Mock the statement
         when(preparedStatement.executeQuery(expectedSQL)).thenReturn(resultSet); // Mock the query execution
@@ -110,10 +116,7 @@ class RecipeDaoTest {
         when(resultSet.getString("instructions"))
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
-        when(resultSet.getInt("chef_id")).thenReturn(1, 2);
-
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        stubChefColumns(chefList.get(0), chefList.get(1));
 
         // Act
         List<Recipe> actualRecipes = recipeDao.getAllRecipes();
@@ -188,9 +191,7 @@ class RecipeDaoTest {
         when(resultSet.getString("instructions"))
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
-        when(resultSet.getInt("author_id")).thenReturn(1, 2);
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        stubChefColumns(chefList.get(0), chefList.get(1));
 
         // Act
         List<Recipe> results = recipeDao.searchRecipesByTerm(searchTerm);
@@ -214,9 +215,7 @@ class RecipeDaoTest {
         when(resultSet.getString("instructions"))
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
-        when(resultSet.getInt("chef_id")).thenReturn(1, 2);
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        stubChefColumns(chefList.get(0), chefList.get(1));
 
         // Act
         Page<Recipe> recipePage = recipeDao.getAllRecipes(pageable);
@@ -225,4 +224,42 @@ class RecipeDaoTest {
         assertEquals(2, recipePage.getItems().size());
         assertEquals(2, recipePage.getPageSize());
     }
+
+    @Test
+    void getAllRecipes_LoadsIngredientsInOneQuery() throws SQLException {
+        // Arrange
+        when(connection.createStatement()).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getInt("id")).thenReturn(1, 2);
+        when(resultSet.getString("name")).thenReturn("carrot soup", "potato soup");
+        stubChefColumns(chefList.get(0), chefList.get(1));
+
+        when(ingredientResultSet.next()).thenReturn(true, true, true, false);
+        when(ingredientResultSet.getInt("recipe_id")).thenReturn(1, 2, 2);
+        when(ingredientResultSet.getInt("id")).thenReturn(1, 2, 5);
+        when(ingredientResultSet.getString("name")).thenReturn("carrot", "potato", "rice");
+        when(ingredientResultSet.getDouble("vol")).thenReturn(1.0, 2.0, 0.5);
+        when(ingredientResultSet.getString("unit")).thenReturn("cups", "cups", "Tbs");
+
+        // Act
+        List<Recipe> actualRecipes = recipeDao.getAllRecipes();
+
+        // Assert
+        assertEquals(1, actualRecipes.get(0).getIngredients().size());
+        assertEquals("carrot", actualRecipes.get(0).getIngredients().get(0).getName());
+        assertEquals(2, actualRecipes.get(1).getIngredients().size());
+        assertEquals("Tbs", actualRecipes.get(1).getIngredients().get(1).getUnit());
+        verify(connection, times(1)).prepareStatement(startsWith("SELECT ri.recipe_id"));
+        verify(ingredientStatement).setInt(1, 1);
+        verify(ingredientStatement).setInt(2, 2);
+    }
+
+    /**
+     * Stubs the joined author id and username of consecutive result set rows with the given authors.
+     */
+    private void stubChefColumns(Chef first, Chef... rest) throws SQLException {
+        when(resultSet.getInt("chef_id")).thenReturn(first.getId(), Arrays.stream(rest).map(Chef::getId).toArray(Integer[]::new));
+        when(resultSet.getString("chef_username")).thenReturn(first.getUsername(), Arrays.stream(rest).map(Chef::getUsername).toArray(String[]::new));
+    }
 }
\ No newline at end of file
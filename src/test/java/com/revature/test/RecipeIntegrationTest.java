@@ -1,6 +1,9 @@
 package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -17,7 +20,9 @@ import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
 import com.revature.controller.RecipeController;
 import com.revature.model.Chef;
+import com.revature.model.ChefSummary;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
@@ -27,12 +32,16 @@ import com.revature.service.IngredientService;
 import com.revature.service.RecipeService;
 import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.DBUtil;
 import com.revature.util.JavalinAppUtil;
 import com.revature.util.Page;
+import com.revature.util.RequestPermits;
 
 import io.javalin.Javalin;
 import io.javalin.json.JavalinJackson;
+import io.javalin.util.ConcurrencyUtil;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -72,17 +81,23 @@ class RecipeIntegrationTest {
 				new Chef(3, "RevaBuddy", "revature@revature.com", "codelikeaboss", false),
 				new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true)));
 		recipeList.addAll(
-				Arrays.asList(new Recipe(1, "carrot soup", "Put carrot in water.  Boil.  Maybe salt.", chefList.get(0)),
-						new Recipe(2, "potato soup", "Put potato in water.  Boil.  Maybe salt.", chefList.get(1)),
-						new Recipe(3, "tomato soup", "Put tomato in water.  Boil.  Maybe salt.", chefList.get(1)),
+				Arrays.asList(new Recipe(1, "carrot soup", "Put carrot in water.  Boil.  Maybe salt.", ChefSummary.of(chefList.get(0))),
+						new Recipe(2, "potato soup", "Put potato in water.  Boil.  Maybe salt.", ChefSummary.of(chefList.get(1))),
+						new Recipe(3, "tomato soup", "Put tomato in water.  Boil.  Maybe salt.", ChefSummary.of(chefList.get(1))),
 						new Recipe(4, "lemon rice soup", "Put lemon and rice in water.  Boil.  Maybe salt.",
-								chefList.get(3)),
-						new Recipe(5, "stone soup", "Put stone in water.  Boil.  Maybe salt.", chefList.get(3))));
+								ChefSummary.of(chefList.get(3))),
+						new Recipe(5, "stone soup", "Put stone in water.  Boil.  Maybe salt.", ChefSummary.of(chefList.get(3)))));
+		recipeList.get(0).setIngredients(List.of(new RecipeIngredient(1, "carrot", 1, "cups")));
+		recipeList.get(1).setIngredients(List.of(new RecipeIngredient(2, "potato", 2, "cups")));
+		recipeList.get(2).setIngredients(List.of(new RecipeIngredient(3, "tomato", 2, "cups")));
+		recipeList.get(3).setIngredients(List.of(new RecipeIngredient(4, "lemon", 1, "Tbs"),
+				new RecipeIngredient(5, "rice", 2, "cups")));
+		recipeList.get(4).setIngredients(List.of());
 
 		jsonRecipeList = new JavalinJackson().toJsonString(recipeList.toArray(), Recipe[].class);
 
 		chefDao = new ChefDAO(new ConnectionUtil());
-		recipeDao = new RecipeDAO(chefDao, ingredientDao, new ConnectionUtil());
+		recipeDao = new RecipeDAO(new ConnectionUtil());
 		recipeService = new RecipeService(recipeDao);
 		chefService = new ChefService(chefDao);
 		authService = new AuthenticationService(chefService);
@@ -135,6 +150,7 @@ class RecipeIntegrationTest {
 	void testPostRecipe() throws Exception {
 
 		Recipe newRecipe = new Recipe(6, "fried fish", "fish, oil, stove", chefList.get(3));
+		newRecipe.setIngredients(List.of());
 		RequestBody recipeBody = RequestBody.create(new JavalinJackson().toJsonString(newRecipe, Recipe.class),
 				MediaType.get("application/json; charset=utf-8"));
 		Request recipeRequest = new Request.Builder().url(BASE_URL + "/recipes").addHeader("Authorization", "Bearer " + token)
@@ -145,6 +161,8 @@ class RecipeIntegrationTest {
 				.build();
 		Response getResponse = client.newCall(getRequest).execute();
 		assertEquals(200, getResponse.code());
+		// recipes are read back with the summary of their author
+		newRecipe.setAuthor(ChefSummary.of(newRecipe.getAuthor()));
 		assertEquals(new JavalinJackson().toJsonString(newRecipe, Recipe.class), getResponse.body().string(),
 				"Newly created Recipe should be returned a json");
 
@@ -191,4 +209,170 @@ class RecipeIntegrationTest {
 				"The single result should be returned");
 	}
 
+	@Test
+	void testFilteredCursorPagesOfRecipes() throws IOException {
+		CursorPage<Recipe> firstPage = new CursorPage<Recipe>(1, List.of(recipeList.get(1)),
+				new Cursor("name", "asc", "potato soup", 2).encode());
+		Request request = new Request.Builder()
+				.url(BASE_URL + "/recipes?term=ato&after=&pageSize=1&sortBy=name&sortDirection=asc").get()
+				.addHeader("Authorization", token).build();
+		Response response = client.newCall(request).execute();
+		assertEquals(new JavalinJackson().toJsonString(firstPage, CursorPage.class), response.body().string(),
+				"The first page should carry the cursor of the second");
+
+		CursorPage<Recipe> secondPage = new CursorPage<Recipe>(1, List.of(recipeList.get(2)), null);
+		request = new Request.Builder()
+				.url(BASE_URL + "/recipes?term=ato&pageSize=1&after=" + firstPage.getNextCursor()).get()
+				.addHeader("Authorization", token).build();
+		response = client.newCall(request).execute();
+		assertEquals(new JavalinJackson().toJsonString(secondPage, CursorPage.class), response.body().string(),
+				"The second page should follow the cursor and be the last");
+	}
+
+	@Test
+	void testCursorRejectsConflictingSort() throws IOException {
+		String cursor = new Cursor("name", "asc", "potato soup", 2).encode();
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?sortBy=id&after=" + cursor).get()
+				.addHeader("Authorization", token).build();
+		assertEquals(400, client.newCall(request).execute().code(),
+				"A sort that differs from the cursor's should be rejected");
+		request = new Request.Builder().url(BASE_URL + "/recipes?after=not-a-cursor").get()
+				.addHeader("Authorization", token).build();
+		assertEquals(400, client.newCall(request).execute().code(), "A malformed cursor should be rejected");
+	}
+
+	@Test
+	void testRecipesByIngredients() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?ingredient=lemon&ingredient=rice").get()
+				.addHeader("Authorization", token).build();
+		assertEquals(new JavalinJackson().toJsonString(List.of(recipeList.get(3)).toArray(), Recipe[].class),
+				client.newCall(request).execute().body().string(), "Only the recipe with both ingredients should match");
+
+		request = new Request.Builder().url(BASE_URL + "/recipes?ingredient=tomato&ingredient=carrot&match=any").get()
+				.addHeader("Authorization", token).build();
+		assertEquals(new JavalinJackson().toJsonString(List.of(recipeList.get(0), recipeList.get(2)).toArray(),
+				Recipe[].class), client.newCall(request).execute().body().string(),
+				"Recipes with either ingredient should match");
+
+		request = new Request.Builder().url(BASE_URL + "/recipes?ingredient=lemon&ingredient=carrot").get()
+				.addHeader("Authorization", token).build();
+		assertEquals(404, client.newCall(request).execute().code());
+	}
+
+	@Test
+	void testRequestPermitsAreReturned() throws IOException {
+		assumeTrue(ConcurrencyUtil.isLoomAvailable(), "Request permits are only used on virtual threads");
+		app.close();
+		String threads = System.getProperty("reva.server.threads");
+		System.setProperty("reva.server.threads", "virtual");
+		try {
+			app = appUtil.getApp();
+		} finally {
+			if (threads == null) {
+				System.clearProperty("reva.server.threads");
+			} else {
+				System.setProperty("reva.server.threads", threads);
+			}
+		}
+		app.start(PORT);
+		RequestPermits permits = JavalinAppUtil.getRequestPermits(app);
+		client.newCall(new Request.Builder().url(BASE_URL + "/login")
+				.post(RequestBody.create("{\"username\":\"nobody\",\"password\":\"nothing\"}",
+						MediaType.get("application/json; charset=utf-8")))
+				.build()).execute().close();
+		client.newCall(new Request.Builder().url(BASE_URL + "/recipes?term=soup").get()
+				.addHeader("Authorization", token).build()).execute().close();
+		client.newCall(new Request.Builder().url(BASE_URL + "/recipes/99").get()
+				.addHeader("Authorization", token).build()).execute().close();
+		Response denied = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/2").delete().build()).execute();
+		denied.close();
+
+		assertEquals(401, denied.code());
+		assertEquals(permits.getPermits(), permits.getAvailablePermits(),
+				"Every request should give its permit back, including those rejected by the middleware");
+	}
+
+	@Test
+	void testConditionalGetRecipes() throws IOException {
+		Response first = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/2").get()
+				.addHeader("Authorization", token).build()).execute();
+		String etag = first.header("ETag");
+		first.close();
+		Response unchanged = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/2").get()
+				.addHeader("Authorization", token).addHeader("If-None-Match", etag).build()).execute();
+		assertEquals(304, unchanged.code(), "An unchanged recipe should not be sent again");
+		assertEquals("", unchanged.body().string());
+
+		// renaming an ingredient changes the recipes using it
+		client.newCall(new Request.Builder().url(BASE_URL + "/ingredients/2")
+				.put(RequestBody.create("{\"id\": 2, \"name\": \"yam\"}", MediaType.get("application/json; charset=utf-8")))
+				.build()).execute().close();
+		Response changed = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/2").get()
+				.addHeader("Authorization", token).addHeader("If-None-Match", etag).build()).execute();
+		assertEquals(200, changed.code());
+		assertTrue(changed.body().string().contains("yam"), "The response should reflect the renamed ingredient");
+	}
+
+	@Test
+	void testConditionalGetMissingRecipe() throws IOException {
+		Response first = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/2").get()
+				.addHeader("Authorization", token).build()).execute();
+		String etag = first.header("ETag");
+		first.close();
+		for (String ifNoneMatch : new String[] { etag, "*" }) {
+			Response missing = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/404").get()
+					.addHeader("Authorization", token).addHeader("If-None-Match", ifNoneMatch).build()).execute();
+			assertEquals(404, missing.code(), "A matching tag should not hide a missing recipe");
+			assertNull(missing.header("ETag"), "A 404 should not be tagged");
+			missing.close();
+		}
+	}
+
+	@Test
+	void testFieldSelection() throws IOException {
+		Response response = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/2?fields=id,name,author.username")
+				.get().addHeader("Authorization", token).build()).execute();
+		assertEquals(200, response.code());
+		assertEquals("{\"id\":2,\"name\":\"potato soup\",\"author\":{\"username\":\"CharlieBrown\"}}",
+				response.body().string());
+
+		response = client.newCall(new Request.Builder().url(BASE_URL + "/recipes?term=soup&fields=name&page=1&pageSize=2")
+				.get().addHeader("Authorization", token).build()).execute();
+		assertEquals("{\"pageNumber\":1,\"pageSize\":2,\"totalPages\":3,\"totalElements\":5,"
+				+ "\"items\":[{\"name\":\"carrot soup\"},{\"name\":\"potato soup\"}]}", response.body().string());
+
+		response = client.newCall(new Request.Builder().url(BASE_URL + "/recipes?fields=name,password")
+				.get().addHeader("Authorization", token).build()).execute();
+		assertEquals(400, response.code(), "Unknown fields should be rejected");
+		response.close();
+	}
+
+	@Test
+	void testRecipesByIds() throws IOException {
+		Response response = client.newCall(new Request.Builder().url(BASE_URL + "/recipes?ids=4,99,1").get()
+				.addHeader("Authorization", token).build()).execute();
+		assertEquals(200, response.code());
+		assertEquals(new JavalinJackson().toJsonString(List.of(recipeList.get(3), recipeList.get(0)).toArray(), Recipe[].class),
+				response.body().string(), "Recipes should be returned in the requested order");
+
+		response = client.newCall(new Request.Builder().url(BASE_URL + "/recipes?ids=1,two").get()
+				.addHeader("Authorization", token).build()).execute();
+		assertEquals(400, response.code());
+		response.close();
+	}
+
+	@Test
+	void testMetrics() throws IOException {
+		Response denied = client.newCall(new Request.Builder().url(BASE_URL + "/metrics").get().build()).execute();
+		denied.close();
+		assertEquals(401, denied.code(), "Metrics should require an admin");
+
+		Response response = client.newCall(new Request.Builder().url(BASE_URL + "/metrics").get()
+				.addHeader("Authorization", token).build()).execute();
+		assertEquals(200, response.code());
+		String body = response.body().string();
+		assertTrue(body.contains("\"compression\":{") && body.contains("\"bytesSaved\":"),
+				"Metrics should report the compression counters: " + body);
+	}
+
 }
@@ -0,0 +1,89 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.RecipeDAO;
+import com.revature.model.ChefSummary;
+import com.revature.model.Recipe;
+import com.revature.test.utils.QueryCountingConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.FieldSelection;
+import com.revature.util.PageOptions;
+
+/**
+ * Guards against per-row lookups creeping back into RecipeDAO: reading any number of recipes, authors and ingredient lines included, must cost a fixed number of queries.
+ */
+class RecipeQueryCountTest {
+
+	private QueryCountingConnectionUtil connectionUtil;
+	private RecipeDAO recipeDao;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		DBUtil.RUN_SQL();
+		connectionUtil = new QueryCountingConnectionUtil();
+		recipeDao = new RecipeDAO(connectionUtil);
+	}
+
+	@Test
+	void listingAllRecipesIsTwoQueries() {
+		List<Recipe> recipes = recipeDao.getAllRecipes();
+
+		assertEquals(5, recipes.size());
+		assertEquals("JoeCool", recipes.get(0).getAuthor().getUsername());
+		assertEquals(2, recipes.get(3).getIngredients().size());
+		assertEquals(1, connectionUtil.getConnections(), "Authors and ingredients must not be fetched on their own connections");
+		assertEquals(2, connectionUtil.getQueries(), "Authors must be read from the recipe query and ingredients in one batch");
+	}
+
+	@Test
+	void searchingRecipesIsTwoQueries() {
+		List<Recipe> recipes = recipeDao.searchRecipesByTerm("soup");
+
+		assertEquals(5, recipes.size());
+		assertEquals(2, connectionUtil.getQueries());
+	}
+
+	@Test
+	void pagingRecipesDoesNotDependOnPageSize() {
+		recipeDao.getAllRecipes(new PageOptions(1, 4, "name", "asc"));
+
+		assertEquals(3, connectionUtil.getQueries(), "A full page costs the page query, the ingredient batch and the count");
+	}
+
+	@Test
+	void fetchingOneRecipeIsTwoQueries() {
+		Recipe recipe = recipeDao.getRecipeById(4);
+
+		assertEquals("ChefTrevin", recipe.getAuthor().getUsername());
+		assertEquals("rice", recipe.getIngredients().get(1).getName());
+		assertEquals(2, connectionUtil.getQueries());
+	}
+
+	@Test
+	void selectingFieldsWithoutIngredientsIsOneQuery() {
+		List<Recipe> recipes = recipeDao.getAllRecipes(FieldSelection.parse("name,author.username"));
+
+		assertEquals(5, recipes.size());
+		assertEquals("JoeCool", recipes.get(0).getAuthor().getUsername());
+		assertNull(recipes.get(0).getInstructions(), "Unselected columns must not be read");
+		assertEquals(1, connectionUtil.getQueries(), "Ingredients must not be queried when they are not selected");
+	}
+
+	@Test
+	void recipesOfOneChefShareTheAuthorSummary() {
+		List<Recipe> recipes = recipeDao.getAllRecipes();
+
+		assertSame(recipes.get(1).getAuthor(), recipes.get(2).getAuthor(), "CharlieBrown should be read once");
+		assertEquals(new ChefSummary(2, "CharlieBrown"), recipes.get(1).getAuthor());
+		assertNull(recipes.get(1).getAuthor().getEmail(), "Recipes must not carry the author's account details");
+	}
+}
@@ -2,6 +2,7 @@ package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -16,12 +17,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import com.revature.model.Chef;
 import com.revature.model.Ingredient;
 import com.revature.model.Recipe;
 import com.revature.dao.RecipeDAO;
 import com.revature.service.RecipeService;
+import com.revature.util.FieldSelection;
+import com.revature.util.LruCache;
+import com.revature.util.NegativeCache;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.QueryCache;
 
 public class RecipeServiceTest {
     private RecipeService recipeService;
@@ -49,6 +55,54 @@ public class RecipeServiceTest {
         assertEquals(MOCKS.get(0), recipe.get(), () -> "Recipe should match");
     }
 
+    @Test
+    void fetchOneRecipeFromCache() {
+        RecipeService cachedService = new RecipeService(recipeDao,
+                new RecipeService.Options().recipeCache(new LruCache<>(10, 60000, () -> 0)));
+        when(recipeDao.getRecipeById(1)).thenReturn(MOCKS.get(0));
+
+        assertEquals(MOCKS.get(0), cachedService.findRecipe(1).get());
+        assertEquals(MOCKS.get(0), cachedService.findRecipe(1).get());
+        verify(recipeDao, times(1)).getRecipeById(1);
+
+        cachedService.saveRecipe(MOCKS.get(0));
+        cachedService.findRecipe(1);
+        verify(recipeDao, times(2)).getRecipeById(1);
+    }
+
+    @Test
+    void fetchSelectedFieldsFromCache() {
+        RecipeService cachedService = new RecipeService(recipeDao,
+                new RecipeService.Options().recipeCache(new LruCache<>(10, 60000, () -> 0)));
+        Chef author = new Chef(7, "JoeCool", "snoopy@null.com", "redbarron", false);
+        when(recipeDao.getRecipeById(1)).thenReturn(new Recipe(1, "Pasta", "Boil water, add pasta, add sauce", author));
+
+        Recipe recipe = cachedService.findRecipe(1, FieldSelection.parse("name,author.username")).get();
+        assertEquals("Pasta", recipe.getName());
+        assertNull(recipe.getInstructions(), () -> "Unselected properties should be left empty");
+        assertEquals("JoeCool", recipe.getAuthor().getUsername());
+        assertNull(recipe.getAuthor().getPassword(), () -> "Only the author summary should be returned");
+        assertEquals("Boil water, add pasta, add sauce", cachedService.findRecipe(1).get().getInstructions(),
+                () -> "The cached recipe should be left whole");
+        verify(recipeDao, times(1)).getRecipeById(1);
+    }
+
+    @Test
+    void fetchRecipesByIdsReadsOnlyCacheMisses() {
+        RecipeService cachedService = new RecipeService(recipeDao,
+                new RecipeService.Options().recipeCache(new LruCache<>(10, 60000, () -> 0)));
+        when(recipeDao.getRecipeById(2)).thenReturn(MOCKS.get(1));
+        when(recipeDao.getRecipesByIds(new int[] { 3, 1 })).thenReturn(List.of(MOCKS.get(0), MOCKS.get(2)));
+        cachedService.findRecipe(2);
+
+        assertIterableEquals(List.of(MOCKS.get(2), MOCKS.get(1), MOCKS.get(0)),
+                cachedService.findRecipes(new int[] { 3, 2, 1 }));
+        verify(recipeDao).getRecipeById(2);
+        verify(recipeDao).getRecipesByIds(new int[] { 3, 1 });
+        assertIterableEquals(List.of(MOCKS.get(0), MOCKS.get(2)), cachedService.findRecipes(new int[] { 1, 3 }));
+        verifyNoMoreInteractions(recipeDao);
+    }
+
     @Test
     void failToFetchOneRecipe() {
         when(recipeDao.getRecipeById(1)).thenReturn(null);
@@ -56,6 +110,23 @@ public class RecipeServiceTest {
         assertTrue(recipe.isEmpty(), () -> "Recipe should not be present");
     }
 
+    @Test
+    void failToFetchOneRecipeOnceUntilItIsCreated() {
+        RecipeService negativeService = new RecipeService(recipeDao,
+                new RecipeService.Options().missingRecipes(new NegativeCache<>(10, 60000)));
+        when(recipeDao.getRecipeById(42)).thenReturn(null);
+
+        assertTrue(negativeService.findRecipe(42).isEmpty());
+        negativeService.saveRecipe(new Recipe(7, "Updated Recipe", "Updated Recipe Instructions", null));
+        assertTrue(negativeService.findRecipe(42).isEmpty());
+        verify(recipeDao, times(1)).getRecipeById(42);
+
+        when(recipeDao.createRecipe(any(Recipe.class))).thenReturn(42);
+        negativeService.saveRecipe(new Recipe("New Recipe", "New Recipe Instructions"));
+        negativeService.findRecipe(42);
+        verify(recipeDao, times(2)).getRecipeById(42);
+    }
+
     @Test
     void saveNewRecipe() {
         Recipe newRecipe = new Recipe("New Recipe", "New Recipe Instructions");
@@ -110,6 +181,21 @@ public class RecipeServiceTest {
         assertTrue(recipes.isEmpty(), () -> "Recipes should be empty");
     }
 
+    @Test
+    void searchWithSelectedFieldsIsCached() {
+        RecipeService cachedService = new RecipeService(recipeDao,
+                new RecipeService.Options().searchCache(new QueryCache(10, 60000, () -> 0)));
+        FieldSelection names = FieldSelection.parse("name");
+        when(recipeDao.searchRecipesByTerm("a", names)).thenReturn(List.of(MOCKS.get(0)));
+        when(recipeDao.searchRecipesByTerm("a")).thenReturn(MOCKS);
+
+        assertIterableEquals(List.of(MOCKS.get(0)), cachedService.searchRecipes("a", FieldSelection.parse("name")));
+        assertIterableEquals(List.of(MOCKS.get(0)), cachedService.searchRecipes("a", FieldSelection.parse("name")));
+        assertIterableEquals(MOCKS, cachedService.searchRecipes("a"), () -> "Selections should be cached apart");
+        verify(recipeDao, times(1)).searchRecipesByTerm("a", names);
+        verify(recipeDao, times(1)).searchRecipesByTerm("a");
+    }
+
     @Test
     void searchForPageOfAllRecipes() {
         when(recipeDao.getAllRecipes(any(PageOptions.class))).thenReturn(new Page<Recipe>(1, 5, 1, 5, MOCKS));
@@ -0,0 +1,145 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Ingredient;
+import com.revature.util.ResponseCache;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+class ResponseCacheTest {
+
+	private ResponseCache responseCache;
+	private AtomicInteger loads;
+	private String version;
+	private Javalin app;
+
+	@BeforeEach
+	void setUp() {
+		responseCache = new ResponseCache(10, 60000);
+		loads = new AtomicInteger();
+		version = "W/\"1\"";
+		app = Javalin.create();
+		app.get("/items", ctx -> {
+			int count = Integer.parseInt(ctx.queryParam("count"));
+			if (!responseCache.json(ctx, version, () -> items(count))) {
+				ctx.status(404);
+			}
+		});
+	}
+
+	private List<Ingredient> items(int count) {
+		loads.incrementAndGet();
+		if (count == 0) {
+			return null;
+		}
+		List<Ingredient> items = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			items.add(new Ingredient(i, "ingredient " + i));
+		}
+		return items;
+	}
+
+	@Test
+	void repeatedRequestsAreServedFromTheCache() {
+		JavalinTest.test(app, (server, client) -> {
+			String first = client.get("/items?count=2&sort=a").body().string();
+			assertEquals("[{\"id\":1,\"name\":\"ingredient 1\"},{\"id\":2,\"name\":\"ingredient 2\"}]", first);
+			assertEquals(first, client.get("/items?sort=a&count=2").body().string(), "Parameter order should not matter");
+			assertEquals("application/json", client.get("/items?count=2&sort=a").header("Content-Type"));
+			assertEquals(1, loads.get());
+			assertEquals(2, responseCache.getStats().getHits());
+		});
+	}
+
+	@Test
+	void newVersionIsSerializedAgain() {
+		JavalinTest.test(app, (server, client) -> {
+			client.get("/items?count=2").close();
+			version = "W/\"2\"";
+			client.get("/items?count=2").close();
+			assertEquals(2, loads.get());
+		});
+	}
+
+	@Test
+	void missingValueIsNotCached() {
+		JavalinTest.test(app, (server, client) -> {
+			assertEquals(404, client.get("/items?count=0").code());
+			assertEquals(404, client.get("/items?count=0").code());
+			assertEquals(2, loads.get());
+		});
+	}
+
+	@Test
+	void currentTagIsAnsweredWithoutLoading() {
+		responseCache = new ResponseCache();
+		JavalinTest.test(app, (server, client) -> {
+			String etag = client.get("/items?count=3").header("ETag");
+			var unchanged = client.get("/items?count=3", req -> req.header("If-None-Match", etag));
+			assertEquals(304, unchanged.code());
+			assertEquals(etag, unchanged.header("ETag"));
+			assertEquals(1, loads.get(), "A client holding the current tag needs no body");
+
+			version = "W/\"2\"";
+			assertEquals(200, client.get("/items?count=3", req -> req.header("If-None-Match", etag)).code());
+			assertEquals(2, loads.get());
+		});
+	}
+
+	@Test
+	void tagsDoNotMatchMissingValue() {
+		JavalinTest.test(app, (server, client) -> {
+			String etag = client.get("/items?count=1").header("ETag");
+			var missing = client.get("/items?count=0", req -> req.header("If-None-Match", etag));
+			assertEquals(404, missing.code(), "A tag of another resource should not hide a missing one");
+			assertNull(missing.header("ETag"));
+			assertEquals(404, client.get("/items?count=0", req -> req.header("If-None-Match", "*")).code());
+			assertEquals(304, client.get("/items?count=1", req -> req.header("If-None-Match", "*")).code());
+		});
+	}
+
+	@Test
+	void largeBodiesAreSentPreCompressed() {
+		JavalinTest.test(app, (server, client) -> {
+			var identity = client.get("/items?count=100", req -> req.header("Accept-Encoding", "identity"));
+			assertNull(identity.header("Content-Encoding"));
+			byte[] plain = identity.body().bytes();
+			var compressed = client.get("/items?count=100", req -> req.header("Accept-Encoding", "br, gzip"));
+			assertEquals("gzip", compressed.header("Content-Encoding"));
+			assertArrayEquals(plain, gunzip(compressed.body().bytes()));
+			assertEquals(1, loads.get());
+		});
+	}
+
+	@Test
+	void disabledCacheSerializesEveryResponse() {
+		responseCache = new ResponseCache();
+		JavalinTest.test(app, (server, client) -> {
+			client.get("/items?count=2").close();
+			assertEquals("[{\"id\":1,\"name\":\"ingredient 1\"}]", client.get("/items?count=1").body().string());
+			client.get("/items?count=2").close();
+			assertEquals(3, loads.get());
+			assertNull(responseCache.getStats());
+		});
+	}
+
+	private static byte[] gunzip(byte[] bytes) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Ingredient;
+import com.revature.util.CompressionStats;
+import com.revature.util.ResponseCache;
+import com.revature.util.ResponseCompression;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+class ResponseCompressionTest {
+
+	private ResponseCompression compression;
+	private Javalin app;
+
+	@BeforeEach
+	void setUp() {
+		compression = new ResponseCompression(1000, 1, Set.of("/raw/{count}"));
+		ResponseCache responseCache = new ResponseCache(10, 60000, compression);
+		app = Javalin.create(config -> config.compression.none());
+		app.get("/items/{count}", ctx -> ctx.json(items(Integer.parseInt(ctx.pathParam("count")))));
+		app.get("/raw/{count}", ctx -> ctx.json(items(Integer.parseInt(ctx.pathParam("count")))));
+		app.get("/cached/{count}",
+				ctx -> responseCache.json(ctx, "W/\"1\"", () -> items(Integer.parseInt(ctx.pathParam("count")))));
+		app.after(compression::compress);
+	}
+
+	private static List<Ingredient> items(int count) {
+		List<Ingredient> items = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			items.add(new Ingredient(i, "ingredient " + i));
+		}
+		return items;
+	}
+
+	@Test
+	void largeResponsesAreGzipped() {
+		JavalinTest.test(app, (server, client) -> {
+			byte[] plain = client.get("/items/100", req -> req.header("Accept-Encoding", "identity")).body().bytes();
+			var compressed = client.get("/items/100", req -> req.header("Accept-Encoding", "gzip, deflate"));
+			assertEquals("gzip", compressed.header("Content-Encoding"));
+			byte[] body = compressed.body().bytes();
+			assertArrayEquals(plain, gunzip(body));
+
+			CompressionStats stats = compression.getStats();
+			assertEquals(1, stats.getCompressedResponses());
+			assertEquals(plain.length, stats.getBytesIn());
+			assertEquals(body.length, stats.getBytesOut());
+			assertTrue(stats.getBytesSaved() > 0);
+			assertTrue(stats.getCompressionNanos() > 0);
+		});
+	}
+
+	@Test
+	void smallResponsesAndRefusingClientsGetPlainResponses() {
+		JavalinTest.test(app, (server, client) -> {
+			assertNull(client.get("/items/2", req -> req.header("Accept-Encoding", "gzip")).header("Content-Encoding"));
+			assertNull(client.get("/items/100", req -> req.header("Accept-Encoding", "gzip;q=0")).header("Content-Encoding"));
+			assertEquals(404, client.get("/missing", req -> req.header("Accept-Encoding", "gzip")).code());
+			assertEquals(0, compression.getStats().getCompressedResponses());
+		});
+	}
+
+	@Test
+	void excludedRoutesAreNeverCompressed() {
+		JavalinTest.test(app, (server, client) -> {
+			var response = client.get("/raw/100", req -> req.header("Accept-Encoding", "gzip"));
+			assertNull(response.header("Content-Encoding"));
+			assertTrue(response.body().string().startsWith("[{\"id\":1,"));
+		});
+	}
+
+	@Test
+	void cachedResponsesAreSentPreCompressed() {
+		JavalinTest.test(app, (server, client) -> {
+			byte[] first = client.get("/cached/100", req -> req.header("Accept-Encoding", "gzip")).body().bytes();
+			long nanos = compression.getStats().getCompressionNanos();
+			var second = client.get("/cached/100", req -> req.header("Accept-Encoding", "gzip"));
+			assertEquals("gzip", second.header("Content-Encoding"));
+			assertArrayEquals(first, second.body().bytes());
+
+			CompressionStats stats = compression.getStats();
+			assertEquals(2, stats.getPrecompressedResponses());
+			assertEquals(2, stats.getCompressedResponses(), "Pre-compressed bodies must not be compressed again");
+			assertEquals(nanos, stats.getCompressionNanos(), "A cache hit should cost no compression time");
+		});
+	}
+
+	@Test
+	void levelMustBeValid() {
+		assertThrows(IllegalArgumentException.class, () -> new ResponseCompression(1000, 0, Set.of()));
+		assertThrows(IllegalArgumentException.class, () -> new ResponseCompression(1000, 10, Set.of()));
+	}
+
+	private static byte[] gunzip(byte[] bytes) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readAllBytes();
+		}
+	}
+}
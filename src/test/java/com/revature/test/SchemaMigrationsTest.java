@@ -0,0 +1,85 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.SchemaMigrations;
+
+/**
+ * Migrations must run once per database: a restart applies nothing and keeps the data, and a database created before versioning is adopted rather than re-seeded.
+ */
+class SchemaMigrationsTest {
+
+	private final ConnectionUtil connectionUtil = new ConnectionUtil();
+
+	@BeforeEach
+	void setUp() {
+		DBUtil.RUN_SQL();
+	}
+
+	@Test
+	void resetDatabaseIsAtTheLatestVersion() {
+		assertEquals(SchemaMigrations.latestVersion(), SchemaMigrations.currentVersion());
+	}
+
+	@Test
+	void migratingAgainAppliesNothingAndKeepsData() throws SQLException {
+		execute("DELETE FROM RECIPE WHERE id = 1");
+
+		assertEquals(0, SchemaMigrations.migrate());
+		assertEquals(4, count("SELECT COUNT(*) FROM RECIPE"));
+	}
+
+	@Test
+	void secondaryIndexesExist() throws SQLException {
+		Set<String> indexes = new HashSet<>();
+		try (Connection conn = connectionUtil.getConnection();
+			 Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'")) {
+			while (rs.next()) {
+				indexes.add(rs.getString(1));
+			}
+		}
+
+		assertTrue(indexes.contains("IDX_RI_RECIPE_INGREDIENT"), indexes::toString);
+		assertTrue(indexes.contains("IDX_RI_INGREDIENT_RECIPE"), indexes::toString);
+	}
+
+	@Test
+	void legacyDatabaseIsBaselinedWithoutReseeding() throws SQLException {
+		execute("DROP TABLE SCHEMA_VERSION");
+		execute("DELETE FROM RECIPE WHERE id = 1");
+
+		assertEquals(SchemaMigrations.latestVersion() - 1, SchemaMigrations.migrate());
+		assertEquals(SchemaMigrations.latestVersion(), SchemaMigrations.currentVersion());
+		assertEquals(4, count("SELECT COUNT(*) FROM RECIPE"));
+	}
+
+	private void execute(String sql) throws SQLException {
+		try (Connection conn = connectionUtil.getConnection();
+			 Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate(sql);
+		}
+	}
+
+	private int count(String sql) throws SQLException {
+		try (Connection conn = connectionUtil.getConnection();
+			 Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.util.SessionStore;
+
+class SessionStoreTest {
+
+	private final Chef joe = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+	private final Chef cathy = new Chef(2, "CathyCook", "cathy@null.com", "whisk", true);
+
+	@Test
+	void loginLookupLogout() {
+		SessionStore store = new SessionStore(10, 60000, 60000);
+		store.put("joe", joe);
+
+		assertSame(joe, store.get("joe"));
+		assertNull(store.get("nobody"));
+		assertNull(store.get(null));
+
+		store.remove("joe");
+		assertNull(store.get("joe"));
+	}
+
+	@Test
+	void idleSessionExpires() throws InterruptedException {
+		SessionStore store = new SessionStore(10, 20, 60000);
+		store.put("joe", joe);
+		Thread.sleep(40);
+
+		assertNull(store.get("joe"));
+		assertEquals(0, store.size(), "An expired session should be removed when looked up");
+	}
+
+	@Test
+	void sessionExpiresAfterAbsoluteTimeoutEvenWhenUsed() throws InterruptedException {
+		SessionStore store = new SessionStore(10, 60000, 30);
+		store.put("joe", joe);
+		assertSame(joe, store.get("joe"));
+		Thread.sleep(50);
+
+		assertNull(store.get("joe"));
+	}
+
+	@Test
+	void sweepRemovesExpiredSessions() throws InterruptedException {
+		SessionStore store = new SessionStore(10, 20, 60000);
+		store.put("joe", joe);
+		store.put("cathy", cathy);
+		Thread.sleep(40);
+
+		assertEquals(2, store.sweep());
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	void backgroundSweeperRemovesExpiredSessions() throws InterruptedException {
+		try (SessionStore store = new SessionStore(10, 10, 60000).startSweeper(10)) {
+			store.put("joe", joe);
+			long deadline = System.currentTimeMillis() + 5000;
+			while (store.size() > 0 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertEquals(0, store.size());
+		}
+	}
+
+	@Test
+	void fullStoreEndsTheLeastRecentlyUsedSession() throws InterruptedException {
+		SessionStore store = new SessionStore(2, 60000, 60000);
+		store.put("joe", joe);
+		Thread.sleep(5);
+		store.put("cathy", cathy);
+		store.put("joe-again", joe);
+
+		assertEquals(2, store.size());
+		assertNull(store.get("joe"));
+		assertSame(cathy, store.get("cathy"));
+	}
+
+	@Test
+	void concurrentLoginsAndLogoutsKeepTheStoreConsistent() throws Exception {
+		SessionStore store = new SessionStore(100000, 60000, 60000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			int thread = t;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					String token = thread + ":" + i;
+					store.put(token, joe);
+					assertSame(joe, store.get(token));
+					if (i % 2 == 0) {
+						store.remove(token);
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+
+		assertEquals(8 * 1000, store.size());
+	}
+}
@@ -0,0 +1,104 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.util.SessionStore;
+import com.revature.util.SignedTokens;
+
+class SignedTokensTest {
+
+	private final byte[] key = "0123456789abcdef0123456789abcdef".getBytes();
+	private final Chef trevin = new Chef(4, "ChefTrevin", "trevin@revature.com", "plain$trevature", true);
+
+	@Test
+	void issuedTokenVerifies() {
+		SignedTokens tokens = new SignedTokens(key, 60000);
+		Chef chef = tokens.verify(tokens.issue(trevin));
+
+		assertEquals(4, chef.getId());
+		assertEquals("ChefTrevin", chef.getUsername());
+		assertTrue(chef.isAdmin());
+		assertNull(chef.getPassword(), "The password must not travel in the token");
+	}
+
+	@Test
+	void tokenIsAcceptedByAnotherInstanceWithTheSameKey() {
+		String token = new SignedTokens(key, 60000).issue(trevin);
+
+		assertEquals(4, new SignedTokens(key.clone(), 60000).verify(token).getId());
+		assertNull(new SignedTokens("fedcba9876543210fedcba9876543210".getBytes(), 60000).verify(token));
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		SignedTokens tokens = new SignedTokens(key, 60000);
+		Chef joe = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+		String token = tokens.issue(joe);
+		String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+		String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.replace("|false|", "|true|").getBytes())
+				+ token.substring(token.indexOf('.'));
+
+		assertNull(tokens.verify(forged));
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		SignedTokens tokens = new SignedTokens(key, 60000);
+		for (String token : Arrays.asList(null, "", ".", "JoeCool:redbarron", "a.b", "!!!.???")) {
+			assertNull(tokens.verify(token), () -> "Should reject " + token);
+		}
+	}
+
+	@Test
+	void expiredTokenIsRejected() throws InterruptedException {
+		SignedTokens tokens = new SignedTokens(key, 1);
+		String token = tokens.issue(trevin);
+		Thread.sleep(10);
+
+		assertNull(tokens.verify(token));
+	}
+
+	@Test
+	void revokedTokenIsRejectedAndOthersAreNot() {
+		SignedTokens tokens = new SignedTokens(key, 60000);
+		String first = tokens.issue(trevin);
+		String second = tokens.issue(trevin);
+		assertNotEquals(first, second);
+
+		tokens.revoke(first);
+
+		assertNull(tokens.verify(first));
+		assertEquals(4, tokens.verify(second).getId());
+		assertEquals(1, tokens.revokedCount());
+	}
+
+	@Test
+	void authenticationServiceUsesSignedTokensWithoutSessions() {
+		ChefService chefService = mock(ChefService.class);
+		when(chefService.findChefByUsername("ChefTrevin")).thenReturn(Optional.of(trevin));
+		SessionStore sessions = new SessionStore(10, 60000, 60000);
+		AuthenticationService authService = new AuthenticationService(chefService, sessions, new SignedTokens(key, 60000));
+
+		String token = authService.login(new Chef("ChefTrevin", "trevature"));
+
+		assertEquals(0, sessions.size());
+		assertEquals(4, authService.getChefFromSessionToken(token).getId());
+		assertTrue(authService.isAdmin(token));
+		authService.logout(token);
+		assertNull(authService.getChefFromSessionToken(token));
+	}
+}
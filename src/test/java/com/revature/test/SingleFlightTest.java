@@ -0,0 +1,126 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.SingleFlight;
+import com.revature.util.SingleFlightStats;
+
+class SingleFlightTest {
+
+	private final AtomicLong version = new AtomicLong();
+	private final AtomicInteger loads = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	/** Starts a load of the key that runs until the returned latch is released. */
+	private CountDownLatch startBlockedLoad(SingleFlight flights, String key, List<Future<String>> results)
+			throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		results.add(executor.submit(() -> flights.execute(key, () -> {
+			loads.incrementAndGet();
+			started.countDown();
+			await(release);
+			return "value of " + key;
+		})));
+		started.await();
+		return release;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight flights = new SingleFlight(5000, version::get);
+		List<Future<String>> results = new ArrayList<>();
+		CountDownLatch release = startBlockedLoad(flights, "recipe 1", results);
+		for (int i = 0; i < 10; i++) {
+			results.add(executor.submit(() -> flights.execute("recipe 1", () -> {
+				loads.incrementAndGet();
+				return "another load";
+			})));
+		}
+		while (flights.getStats().getWaiting() < 10) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		String first = results.get(0).get(5, TimeUnit.SECONDS);
+		for (Future<String> result : results) {
+			assertSame(first, result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+		SingleFlightStats stats = flights.getStats();
+		assertEquals(1, stats.getLoads());
+		assertEquals(10, stats.getCoalesced());
+		assertEquals(0, stats.getInFlight());
+	}
+
+	@Test
+	void completedLoadsAreNotKept() {
+		SingleFlight flights = new SingleFlight(5000, version::get);
+		flights.execute("recipe 1", loads::incrementAndGet);
+		flights.execute("recipe 1", loads::incrementAndGet);
+
+		assertEquals(2, loads.get());
+		assertEquals(0, flights.getStats().getCoalesced());
+	}
+
+	@Test
+	void callersAfterAWriteStartANewLoad() throws Exception {
+		SingleFlight flights = new SingleFlight(5000, version::get);
+		List<Future<String>> results = new ArrayList<>();
+		CountDownLatch release = startBlockedLoad(flights, "recipe 1", results);
+		version.incrementAndGet();
+
+		assertEquals("fresh", flights.execute("recipe 1", () -> "fresh"));
+		release.countDown();
+		assertEquals("value of recipe 1", results.get(0).get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void callersStopWaitingAfterTheBound() throws Exception {
+		SingleFlight flights = new SingleFlight(50, version::get);
+		List<Future<String>> results = new ArrayList<>();
+		CountDownLatch release = startBlockedLoad(flights, "recipe 1", results);
+
+		assertEquals("own load", flights.execute("recipe 1", () -> "own load"));
+		release.countDown();
+		assertEquals(1, flights.getStats().getTimeouts());
+		assertEquals(2, flights.getStats().getLoads());
+	}
+
+	@Test
+	void failedLoadsAreNotKept() {
+		SingleFlight flights = new SingleFlight(5000, version::get);
+		assertThrows(IllegalStateException.class, () -> flights.execute("recipe 1", () -> {
+			throw new IllegalStateException("database down");
+		}));
+		assertEquals("recovered", flights.execute("recipe 1", () -> "recovered"), "A failed load should not be kept");
+	}
+}
@@ -0,0 +1,112 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.PageOptions;
+import com.revature.util.TableVersions;
+import com.revature.util.TrigramIndex;
+
+/**
+ * The trigram index must be a pure speed-up: indexed DAOs have to return exactly what the LIKE queries return, before and after every kind of write.
+ */
+class TrigramIndexTest {
+
+	private static final List<String> TERMS = List.of("", "o", "to", "tom", "tomato", "oup", "soup", "ice", "lemon r",
+			"xyz", "Joe", "ar", "Chef", "e_", "%", "pot%to", "mato");
+
+	private IngredientDAO likeIngredients;
+	private IngredientDAO indexedIngredients;
+	private ChefDAO likeChefs;
+	private ChefDAO indexedChefs;
+	private RecipeDAO likeRecipes;
+	private RecipeDAO indexedRecipes;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		DBUtil.RUN_SQL();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		likeIngredients = new IngredientDAO(connectionUtil);
+		indexedIngredients = new IngredientDAO(connectionUtil, true);
+		likeChefs = new ChefDAO(connectionUtil);
+		indexedChefs = new ChefDAO(connectionUtil, true);
+		likeRecipes = new RecipeDAO(connectionUtil);
+		indexedRecipes = new RecipeDAO(connectionUtil, true);
+	}
+
+	private void assertSameResults() {
+		PageOptions pageOptions = new PageOptions(1, 2, "name", "desc");
+		for (String term : TERMS) {
+			assertIterableEquals(likeIngredients.searchIngredients(term), indexedIngredients.searchIngredients(term),
+					() -> "Ingredient search differs for: " + term);
+			assertEquals(likeIngredients.searchIngredients(term, pageOptions),
+					indexedIngredients.searchIngredients(term, pageOptions), () -> "Ingredient page differs for: " + term);
+			assertIterableEquals(likeChefs.searchChefsByTerm(term), indexedChefs.searchChefsByTerm(term),
+					() -> "Chef search differs for: " + term);
+			assertIterableEquals(likeRecipes.searchRecipesByTerm(term), indexedRecipes.searchRecipesByTerm(term),
+					() -> "Recipe search differs for: " + term);
+			assertEquals(likeRecipes.searchRecipesByTerm(term, pageOptions),
+					indexedRecipes.searchRecipesByTerm(term, pageOptions), () -> "Recipe page differs for: " + term);
+			assertEquals(likeRecipes.getRecipesAfter(term, null, pageOptions),
+					indexedRecipes.getRecipesAfter(term, null, pageOptions), () -> "Recipe cursor page differs for: " + term);
+		}
+	}
+
+	@Test
+	void indexedSearchMatchesLike() {
+		assertSameResults();
+	}
+
+	@Test
+	void indexFollowsWritesThroughTheIndexedDao() {
+		assertSameResults();
+		indexedIngredients.createIngredient(new Ingredient("tomatillo"));
+		Ingredient potato = indexedIngredients.getIngredientById(2);
+		potato.setName("sweet potato");
+		indexedIngredients.updateIngredient(potato);
+		indexedIngredients.deleteIngredient(indexedIngredients.getIngredientById(3));
+		indexedChefs.createChef(new Chef("TomatoJoe", "tj@null.com", "secret", false));
+		indexedRecipes.createRecipe(new Recipe(0, "iced lemon soup", "Chill.", new Chef(1, "JoeCool", "", "", false)));
+		indexedRecipes.deleteRecipe(indexedRecipes.getRecipeById(3));
+
+		assertSameResults();
+	}
+
+	@Test
+	void indexReloadsAfterWritesItWasNotTold() {
+		assertSameResults();
+		// the plain DAOs do not maintain the indexes, and deleting a chef cascades to their recipes
+		likeIngredients.createIngredient(new Ingredient("tomatillo"));
+		likeChefs.deleteChef(likeChefs.getChefById(2));
+		likeRecipes.createRecipe(new Recipe(0, "soup of the day", "Ask.", new Chef(1, "JoeCool", "", "", false)));
+
+		assertSameResults();
+	}
+
+	@Test
+	void unselectiveTermsFallBackToLike() {
+		TrigramIndex index = new TrigramIndex(new ConnectionUtil(), TableVersions.RECIPE, "name", 2, 0.5);
+
+		assertArrayEquals(new int[] { 3 }, index.search("tomato"));
+		assertArrayEquals(new int[] { 2, 3 }, index.search("ato"));
+		assertNull(index.search("soup"), "A term matching every recipe should be left to the LIKE query");
+		assertNull(index.search("to"), "A short term matching most recipes should be left to the LIKE query");
+		assertArrayEquals(new int[0], index.search("xyz"));
+	}
+}
@@ -0,0 +1,56 @@
+package com.revature.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.revature.util.Pbkdf2PasswordHasher;
+
+/**
+ * Measures login throughput per hashing thread at each PBKDF2 work factor: a login verifies one hash, so logins per second per core is the verify throughput. Use it to pick reva.auth.pbkdf2.iterations and size reva.auth.hashThreads for the expected login rate.
+ *
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" com.revature.test.benchmark.PasswordHashingBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+
+    @Param({ "10000", "100000", "310000", "600000" })
+    public int iterations;
+
+    private Pbkdf2PasswordHasher hasher;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        hasher = new Pbkdf2PasswordHasher(iterations);
+        storedHash = hasher.hash("redbarron");
+    }
+
+    @Benchmark
+    public boolean login() {
+        return hasher.verify("redbarron", storedHash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PasswordHashingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
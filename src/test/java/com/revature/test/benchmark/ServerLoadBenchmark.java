@@ -0,0 +1,129 @@
+package com.revature.test.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.revature.controller.AuthenticationController;
+import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeController;
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.JavalinAppUtil;
+
+import io.javalin.Javalin;
+
+/**
+ * Load-tests the HTTP server with many concurrent clients, once with handlers on platform threads and once on virtual threads, and reports throughput, latency percentiles and errors for each. Every client runs on its own virtual thread and sends its requests one after another over a shared HTTP client; the requests search recipes, so each one queries the database. Unlike the JMH benchmarks this one measures the whole server, so run it on a machine with several cores for numbers that mean anything.
+ *
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" com.revature.test.benchmark.ServerLoadBenchmark [clients] [requestsPerClient]};
+ * the defaults are 1000 clients sending 20 requests each.
+ */
+public class ServerLoadBenchmark {
+
+    private static final int PORT = 8083;
+    private static final String BASE_URL = "http://localhost:" + PORT;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        DBUtil.RUN_SQL();
+        for (String mode : new String[] { "platform", "virtual" }) {
+            System.setProperty("reva.server.threads", mode);
+            run(mode, clients, requestsPerClient);
+        }
+    }
+
+    private static void run(String mode, int clients, int requestsPerClient) throws Exception {
+        ChefDAO chefDao = new ChefDAO(new ConnectionUtil());
+        IngredientDAO ingredientDao = new IngredientDAO(new ConnectionUtil());
+        ChefService chefService = new ChefService(chefDao);
+        AuthenticationService authService = new AuthenticationService(chefService);
+        JavalinAppUtil appUtil = new JavalinAppUtil(
+                new RecipeController(new RecipeService(new RecipeDAO(new ConnectionUtil())), authService),
+                new AuthenticationController(chefService, authService),
+                new IngredientController(new IngredientService(ingredientDao)));
+        Javalin app = appUtil.getApp().start(PORT);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor)
+                    .connectTimeout(Duration.ofSeconds(30)).build();
+            String token = client.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/login"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"ChefTrevin\",\"password\":\"trevature\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString()).body();
+            HttpRequest search = HttpRequest.newBuilder(URI.create(BASE_URL + "/recipes?term=soup"))
+                    .header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(60)).GET().build();
+
+            // one warm-up round so both modes start with a loaded JIT and a full connection pool
+            send(client, search, Math.min(clients, 50), 20, executor);
+            long start = System.nanoTime();
+            Result result = send(client, search, clients, requestsPerClient, executor);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long[] latencies = result.latencies;
+            Arrays.sort(latencies);
+            System.out.printf("%-8s %5d clients  %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms  errors %d%n",
+                    mode, clients, latencies.length / seconds, percentile(latencies, 0.50),
+                    percentile(latencies, 0.99), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6,
+                    result.errors);
+        } finally {
+            app.close();
+        }
+    }
+
+    /**
+     * Starts every client at once and waits for all of them to finish.
+     */
+    private static Result send(HttpClient client, HttpRequest request, int clients, int requestsPerClient,
+            ExecutorService executor) throws Exception {
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                int n = 0;
+                for (int r = 0; r < requestsPerClient; r++) {
+                    long start = System.nanoTime();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            latencies[n++] = System.nanoTime() - start;
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        // counted below
+                    }
+                    errors.incrementAndGet();
+                }
+                return Arrays.copyOf(latencies, n);
+            }));
+        }
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            perClient.add(future.get());
+        }
+        return new Result(perClient.stream().flatMapToLong(Arrays::stream).toArray(), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * fraction)] / 1e6;
+    }
+
+    private record Result(long[] latencies, int errors) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.revature.test.benchmark;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.revature.model.Chef;
+import com.revature.util.SessionStore;
+
+/**
+ * Measures session lookups, logins and logouts under contention, comparing the SessionStore with the synchronized map it replaced. Every request looks up its session, so lookups dominate the mix.
+ *
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" com.revature.test.benchmark.SessionStoreBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class SessionStoreBenchmark {
+
+    private static final int SESSIONS = 10000;
+
+    private final Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+    private final AtomicLong logins = new AtomicLong();
+    private SessionStore store;
+    private Map<String, Chef> synchronizedMap;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        store = new SessionStore(SESSIONS * 4, 1800000, 43200000);
+        synchronizedMap = Collections.synchronizedMap(new HashMap<>());
+        tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            tokens[i] = "chef" + i + ":password";
+            store.put(tokens[i], chef);
+            synchronizedMap.put(tokens[i], chef);
+        }
+    }
+
+    @Benchmark
+    public Chef storeLookup() {
+        return store.get(tokens[ThreadLocalRandom.current().nextInt(SESSIONS)]);
+    }
+
+    @Benchmark
+    public Chef storeLoginLookupLogout() {
+        String token = "login" + logins.incrementAndGet();
+        store.put(token, chef);
+        Chef found = store.get(token);
+        store.remove(token);
+        return found;
+    }
+
+    @Benchmark
+    public Chef synchronizedMapLookup() {
+        return synchronizedMap.get(tokens[ThreadLocalRandom.current().nextInt(SESSIONS)]);
+    }
+
+    @Benchmark
+    public Chef synchronizedMapLoginLookupLogout() {
+        String token = "login" + logins.incrementAndGet();
+        synchronizedMap.put(token, chef);
+        Chef found = synchronizedMap.get(token);
+        synchronizedMap.remove(token);
+        return found;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SessionStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.revature.test.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.revature.model.Chef;
+import com.revature.util.SessionStore;
+import com.revature.util.SignedTokens;
+
+/**
+ * Measures the cost of authenticating a request: verifying a signed token (decode, HMAC-SHA256, parse, revocation check) against looking the token up in the SessionStore.
+ *
+ * Run with {@code mvn test-compile} followed by
+ * {@code java -cp "target/test-classes:target/classes:<test classpath>" com.revature.test.benchmark.TokenVerificationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenVerificationBenchmark {
+
+    private final Chef chef = new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true);
+    private SignedTokens signedTokens;
+    private String signedToken;
+    private SessionStore sessions;
+    private String sessionToken;
+
+    @Setup
+    public void setUp() {
+        signedTokens = new SignedTokens("0123456789abcdef0123456789abcdef".getBytes(), 3600000);
+        signedToken = signedTokens.issue(chef);
+        // a revocation list of realistic size
+        for (int i = 0; i < 1000; i++) {
+            signedTokens.revoke(signedTokens.issue(chef));
+        }
+        sessions = new SessionStore(20000, 3600000, 3600000);
+        for (int i = 0; i < 10000; i++) {
+            sessions.put("chef" + i + ":password", chef);
+        }
+        sessionToken = "chef42:password";
+    }
+
+    @Benchmark
+    public Chef verifySignedToken() {
+        return signedTokens.verify(signedToken);
+    }
+
+    @Benchmark
+    public Chef lookUpSession() {
+        return sessions.get(sessionToken);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
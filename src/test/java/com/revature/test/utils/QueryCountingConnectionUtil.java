@@ -0,0 +1,70 @@
+package com.revature.test.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.revature.util.ConnectionUtil;
+
+/**
+ * A ConnectionUtil that counts the connections it lends out and the statements executed on them, for tests asserting how many database round trips an operation costs.
+ */
+public class QueryCountingConnectionUtil extends ConnectionUtil {
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Override
+    public Connection getConnection() {
+        Connection connection = super.getConnection();
+        connections.incrementAndGet();
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement) {
+                return countingStatement(PreparedStatement.class, (PreparedStatement) result);
+            }
+            if (result instanceof Statement) {
+                return countingStatement(Statement.class, (Statement) result);
+            }
+            return result;
+        });
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public int getQueries() {
+        return queries.get();
+    }
+
+    public void reset() {
+        connections.set(0);
+        queries.set(0);
+    }
+
+    private <S extends Statement> S countingStatement(Class<S> type, S statement) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                queries.incrementAndGet();
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}